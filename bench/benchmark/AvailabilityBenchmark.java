@@ -0,0 +1,45 @@
+package benchmark;
+
+import dao.ReservationDAO;
+import dao.sqlite.SQLiteReservationDAO;
+import model.Reservation;
+import model.Room;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.ReservationService;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Overlap checks and free-room search over a random stay window. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvailabilityBenchmark {
+    private final ReservationDAO reservationDAO = new SQLiteReservationDAO();
+    private final SplittableRandom random = new SplittableRandom(7);
+
+    @Benchmark
+    public List<Reservation> findOverlappingReservations(Dataset data) {
+        LocalDate[] stay = data.randomStay(random);
+        return reservationDAO.findOverlappingReservations(1 + random.nextInt(data.rooms), stay[0], stay[1], null);
+    }
+
+    @Benchmark
+    public List<Room> getAvailableRooms(Dataset data) {
+        LocalDate[] stay = data.randomStay(random);
+        return ReservationService.getInstance().getAvailableRooms(stay[0], stay[1]);
+    }
+}
@@ -0,0 +1,113 @@
+package benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the suite and compares runs.
+ * Usage: BenchmarkRunner run [results.csv] [include-regex] [reservations=1000,100000]
+ *        BenchmarkRunner compare baseline.csv current.csv [tolerance%=10]
+ * Record a baseline with "run bench/results/baseline.csv" before a change, then run again after it and compare.
+ * Every benchmark reports average time, so a higher score is slower; compare exits 1 when anything regressed
+ * by more than the tolerance.
+ */
+public final class BenchmarkRunner {
+    public static void main(String[] args) throws Exception {
+        String command = args.length > 0 ? args[0] : "run";
+        switch (command) {
+            case "run" -> run(args);
+            case "compare" -> {
+                if (args.length < 3) usage();
+                double tolerance = args.length > 3 ? Double.parseDouble(args[3]) : 10;
+                if (compare(Path.of(args[1]), Path.of(args[2]), tolerance) > 0) System.exit(1);
+            }
+            default -> usage();
+        }
+    }
+
+    private static void run(String[] args) throws Exception {
+        Path results = Path.of(args.length > 1 ? args[1] : "bench/results/latest.csv");
+        if (results.getParent() != null) Files.createDirectories(results.getParent());
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(args.length > 2 ? args[2] : "benchmark\\..*Benchmark")
+                .resultFormat(ResultFormatType.CSV)
+                .result(results.toString());
+        if (args.length > 3) options.param("reservations", args[3].replace("reservations=", "").split(","));
+        new Runner(options.build()).run();
+        System.out.println("Results written to " + results);
+    }
+
+    /** Prints each benchmark's change from the baseline; returns the number that regressed beyond the tolerance. */
+    private static int compare(Path baseline, Path current, double tolerancePercent) throws IOException {
+        Map<String, Double> before = readScores(baseline);
+        Map<String, Double> after = readScores(current);
+        int regressions = 0;
+        System.out.printf("%-90s %12s %12s %8s%n", "benchmark", "baseline", "current", "change");
+        for (Map.Entry<String, Double> e : after.entrySet()) {
+            Double old = before.get(e.getKey());
+            if (old == null) {
+                System.out.printf("%-90s %12s %12.3f %8s%n", e.getKey(), "-", e.getValue(), "new");
+                continue;
+            }
+            double change = (e.getValue() - old) / old * 100;
+            boolean regressed = change > tolerancePercent;
+            if (regressed) regressions++;
+            System.out.printf("%-90s %12.3f %12.3f %+7.1f%%%s%n", e.getKey(), old, e.getValue(), change,
+                    regressed ? "  REGRESSION" : "");
+        }
+        return regressions;
+    }
+
+    /** JMH CSV: benchmark name plus its "Param: x" columns identify a row; Score is the measured value. */
+    private static Map<String, Double> readScores(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file);
+        Map<String, Double> scores = new LinkedHashMap<>();
+        if (lines.isEmpty()) return scores;
+        List<String> header = splitCsv(lines.get(0));
+        int benchmark = header.indexOf("Benchmark");
+        int score = header.indexOf("Score");
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.isBlank()) continue;
+            List<String> cells = splitCsv(line);
+            StringBuilder key = new StringBuilder(cells.get(benchmark).replace("benchmark.", ""));
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i).startsWith("Param: ") && i < cells.size() && !cells.get(i).isEmpty()) {
+                    key.append(' ').append(header.get(i).substring(7)).append('=').append(cells.get(i));
+                }
+            }
+            scores.put(key.toString(), Double.parseDouble(cells.get(score)));
+        }
+        return scores;
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (char c : line.toCharArray()) {
+            if (c == '"') quoted = !quoted;
+            else if (c == ',' && !quoted) {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else cell.append(c);
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    private static void usage() {
+        System.err.println("Usage: BenchmarkRunner run [results.csv] [include-regex] [reservations=1000,100000]");
+        System.err.println("       BenchmarkRunner compare baseline.csv current.csv [tolerance%]");
+        System.exit(2);
+    }
+}
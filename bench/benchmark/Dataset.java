@@ -0,0 +1,220 @@
+package benchmark;
+
+import dao.sqlite.SQLiteReservationBalanceDAO;
+import dao.sqlite.SQLiteRoomNightDAO;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import service.CredentialService;
+import service.QuoteService;
+import util.DatabaseInitializer;
+import util.SQLiteConnectionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.SplittableRandom;
+
+/**
+ * A generated hotel of a given size, shared by all benchmarks of a trial.
+ * Each size is built once into bench-data/hotel-&lt;reservations&gt;.db and reused by later runs, so the 1M
+ * dataset is only paid for once. Generation is seeded, so every run measures the same data. JMH forks a fresh
+ * JVM per trial, which is what lets each size point the connection manager at its own file.
+ */
+@State(Scope.Benchmark)
+public class Dataset {
+    private static final String[] TYPES = {"SINGLE", "DOUBLE", "SUITE"};
+    private static final String[] METHODS = {"CASH", "CARD", "TRANSFER", "MOBILE_MONEY"};
+    private static final int STAFF = 25;
+    /** Night audits on record; about three years, and at least a benchmark page. */
+    private static final int SNAPSHOT_DAYS = 1_100;
+    private static final int MAX_AUDIT_ROWS = 100_000;
+
+    @Param({"1000", "100000", "1000000"})
+    public int reservations;
+
+    public int rooms;
+    public int customers;
+
+    @Setup(Level.Trial)
+    public void load() throws Exception {
+        rooms = Math.max(50, Math.min(2000, reservations / 500));
+        customers = Math.max(100, reservations / 5);
+        Path dir = Path.of("bench-data");
+        Files.createDirectories(dir);
+        Path db = dir.resolve("hotel-" + reservations + ".db");
+        boolean fresh = !Files.exists(db);
+        System.setProperty("hotel.db.url", "jdbc:sqlite:" + db.toAbsolutePath());
+        DatabaseInitializer.initialize();
+        if (fresh) generate();
+        // Files generated before the back-office tables were seeded get them on their next run
+        if (isEmpty("audit_log")) generateBackOffice();
+    }
+
+    /** Rooms, customers, back-to-back stays per room running from the past into the future, one payment each. */
+    private void generate() {
+        SplittableRandom random = new SplittableRandom(42);
+        SQLiteConnectionManager db = SQLiteConnectionManager.getInstance();
+        db.runInTransaction(() -> {
+            try {
+                Connection conn = db.getConnection();
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "INSERT INTO rooms (room_number, room_type, price_per_night) VALUES (?, ?, ?)")) {
+                    for (int i = 0; i < rooms; i++) {
+                        ps.setString(1, String.valueOf(1000 + i));
+                        ps.setString(2, TYPES[i % TYPES.length]);
+                        ps.setDouble(3, 80 + 40 * (i % TYPES.length));
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "INSERT INTO customers (full_name, phone, email, id_number) VALUES (?, ?, ?, ?)")) {
+                    for (int i = 1; i <= customers; i++) {
+                        ps.setString(1, "Guest " + i);
+                        ps.setString(2, String.format("+1555%07d", i));
+                        ps.setString(3, "guest" + i + "@example.test");
+                        ps.setString(4, "ID" + i);
+                        ps.addBatch();
+                        if (i % 10_000 == 0) ps.executeBatch();
+                    }
+                    ps.executeBatch();
+                }
+                insertStays(conn, random);
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to generate benchmark dataset", e);
+            }
+        });
+        new SQLiteRoomNightDAO().rebuild();
+        new SQLiteReservationBalanceDAO().rebuild(QuoteService.getInstance().getTaxRate());
+    }
+
+    /** Staff accounts, an audit trail of the bookings (one create each, capped) and a nightly snapshot per day. */
+    private void generateBackOffice() {
+        SplittableRandom random = new SplittableRandom(7);
+        String passwordHash = CredentialService.getInstance().hash("benchmark");
+        int auditRows = Math.min(reservations, MAX_AUDIT_ROWS);
+        SQLiteConnectionManager db = SQLiteConnectionManager.getInstance();
+        db.runInTransaction(() -> {
+            try {
+                Connection conn = db.getConnection();
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "INSERT OR IGNORE INTO users (username, password_hash, full_name, is_active) VALUES (?, ?, ?, ?)")) {
+                    for (int i = 1; i <= STAFF; i++) {
+                        ps.setString(1, "staff" + i);
+                        ps.setString(2, passwordHash);
+                        ps.setString(3, "Staff Member " + i);
+                        ps.setInt(4, i % 10 == 0 ? 0 : 1);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                try (PreparedStatement ps = conn.prepareStatement("INSERT INTO audit_log "
+                        + "(occurred_at, actor, entity, entity_id, action, before_value, after_value) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+                    LocalDateTime at = LocalDateTime.now().minusDays(SNAPSHOT_DAYS);
+                    for (int id = 1; id <= auditRows; id++) {
+                        at = at.plusSeconds(1 + random.nextInt(600));
+                        int staff = 1 + random.nextInt(STAFF);
+                        LocalDate checkIn = at.toLocalDate().plusDays(random.nextInt(60));
+                        ps.setString(1, at.toString());
+                        ps.setString(2, "admin:" + staff + " Staff Member " + staff);
+                        ps.setString(3, "reservation");
+                        ps.setInt(4, id);
+                        ps.setString(5, "create");
+                        ps.setString(6, null);
+                        ps.setString(7, "customer=" + (1 + random.nextInt(customers)) + ", room=" + (1 + random.nextInt(rooms))
+                                + ", checkIn=" + checkIn + ", checkOut=" + checkIn.plusDays(1 + random.nextInt(4))
+                                + ", guests=" + (1 + random.nextInt(2)) + ", status=BOOKED");
+                        ps.addBatch();
+                        if (id % 10_000 == 0) ps.executeBatch();
+                    }
+                    ps.executeBatch();
+                }
+                try (PreparedStatement ps = conn.prepareStatement("INSERT OR IGNORE INTO daily_snapshots "
+                        + "(business_date, revenue, occupied_rooms, total_rooms, no_shows, auto_check_outs) VALUES (?, ?, ?, ?, ?, ?)")) {
+                    LocalDate day = LocalDate.now().minusDays(SNAPSHOT_DAYS);
+                    for (int i = 0; i < SNAPSHOT_DAYS; i++, day = day.plusDays(1)) {
+                        int occupied = random.nextInt(rooms + 1);
+                        ps.setString(1, day.toString());
+                        ps.setDouble(2, occupied * (80 + random.nextInt(120)));
+                        ps.setInt(3, occupied);
+                        ps.setInt(4, rooms);
+                        ps.setInt(5, random.nextInt(4));
+                        ps.setInt(6, random.nextInt(3));
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to generate benchmark back-office data", e);
+            }
+        });
+    }
+
+    private static boolean isEmpty(String table) throws SQLException {
+        Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+        try (PreparedStatement ps = conn.prepareStatement("SELECT NOT EXISTS (SELECT 1 FROM " + table + ")");
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    private void insertStays(Connection conn, SplittableRandom random) throws SQLException {
+        LocalDate today = LocalDate.now();
+        int perRoom = (reservations + rooms - 1) / rooms;
+        int id = 0;
+        try (PreparedStatement res = conn.prepareStatement("INSERT INTO reservations "
+                + "(reservation_id, customer_id, room_id, check_in_date, check_out_date, status, number_of_guests) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement pay = conn.prepareStatement(
+                     "INSERT INTO payments (reservation_id, amount, method, payment_date) VALUES (?, ?, ?, ?)")) {
+            for (int room = 1; room <= rooms && id < reservations; room++) {
+                // About 3.5 days per stay including gaps; most of each room's calendar lies in the past
+                LocalDate cursor = today.minusDays(perRoom * 3L);
+                for (int n = 0; n < perRoom && id < reservations; n++) {
+                    LocalDate checkIn = cursor.plusDays(random.nextInt(3));
+                    LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(4));
+                    cursor = checkOut;
+                    String status = random.nextInt(20) == 0 ? "CANCELLED"
+                            : !checkOut.isAfter(today) ? "COMPLETED"
+                            : checkIn.isAfter(today) ? "BOOKED" : "CHECKED_IN";
+                    res.setInt(1, ++id);
+                    res.setInt(2, 1 + random.nextInt(customers));
+                    res.setInt(3, room);
+                    res.setString(4, checkIn.toString());
+                    res.setString(5, checkOut.toString());
+                    res.setString(6, status);
+                    res.setInt(7, 1 + random.nextInt(2));
+                    res.addBatch();
+                    if (!status.equals("CANCELLED")) {
+                        pay.setInt(1, id);
+                        pay.setDouble(2, 50 + random.nextInt(400));
+                        pay.setString(3, METHODS[random.nextInt(METHODS.length)]);
+                        pay.setString(4, LocalDateTime.of(checkIn, LocalTime.NOON).toString());
+                        pay.addBatch();
+                    }
+                    if (id % 10_000 == 0) {
+                        res.executeBatch();
+                        pay.executeBatch();
+                    }
+                }
+            }
+            res.executeBatch();
+            pay.executeBatch();
+        }
+    }
+
+    /** A stay window somewhere in the year around today. */
+    public LocalDate[] randomStay(SplittableRandom random) {
+        LocalDate checkIn = LocalDate.now().plusDays(random.nextInt(-180, 180));
+        return new LocalDate[]{checkIn, checkIn.plusDays(1 + random.nextInt(7))};
+    }
+}
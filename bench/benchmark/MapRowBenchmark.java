@@ -0,0 +1,100 @@
+package benchmark;
+
+import dao.sqlite.SQLiteAuditDAO;
+import dao.sqlite.SQLiteCustomerDAO;
+import dao.sqlite.SQLiteDailySnapshotDAO;
+import dao.sqlite.SQLitePaymentDAO;
+import dao.sqlite.SQLiteReservationBalanceDAO;
+import dao.sqlite.SQLiteReservationDAO;
+import dao.sqlite.SQLiteRoomDAO;
+import dao.sqlite.SQLiteUserDAO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import util.SQLiteConnectionManager;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost per row of each SQLite DAO's private mapRow, called reflectively on a page of rows.
+ * The figure includes stepping the SQLite cursor, which every real read pays as well.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapRowBenchmark {
+    private static final int PAGE = 1000;
+
+    @Param({"reservation", "room", "customer", "payment", "balance", "user", "audit", "snapshot"})
+    public String dao;
+
+    private Object target;
+    private MethodHandle mapRow;
+    private String query;
+
+    @Setup(Level.Trial)
+    public void resolve(Dataset data) throws Exception {
+        switch (dao) {
+            case "reservation" -> bind(new SQLiteReservationDAO(), "reservations");
+            case "room" -> bind(new SQLiteRoomDAO(), "rooms");
+            case "customer" -> bind(new SQLiteCustomerDAO(), "customers");
+            case "payment" -> bind(new SQLitePaymentDAO(), "payments");
+            case "balance" -> bind(new SQLiteReservationBalanceDAO(), "reservation_balances");
+            case "user" -> bind(new SQLiteUserDAO(), "users");
+            case "audit" -> bind(new SQLiteAuditDAO(), "audit_log");
+            case "snapshot" -> bind(new SQLiteDailySnapshotDAO(), "daily_snapshots");
+            default -> throw new IllegalArgumentException(dao);
+        }
+    }
+
+    private void bind(Object dao, String table) throws Exception {
+        Method method = dao.getClass().getDeclaredMethod("mapRow", ResultSet.class);
+        method.setAccessible(true);
+        target = dao;
+        mapRow = MethodHandles.lookup().unreflect(method);
+        int rows;
+        Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+        try (PreparedStatement ps = conn.prepareStatement("SELECT COUNT(*) FROM (SELECT 1 FROM " + table + " LIMIT " + PAGE + ")");
+             ResultSet rs = ps.executeQuery()) {
+            rows = rs.next() ? rs.getInt(1) : 0;
+        }
+        if (rows == 0) throw new IllegalStateException(table + " is empty; delete bench-data to regenerate it");
+        // Tables smaller than a page (staff, rooms of the small hotel) are cycled so every invocation maps PAGE rows
+        int copies = (PAGE + rows - 1) / rows;
+        query = copies == 1
+                ? "SELECT * FROM " + table + " LIMIT " + PAGE
+                : "WITH RECURSIVE copy(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM copy WHERE n < " + copies + ") "
+                        + "SELECT t.* FROM copy, " + table + " t LIMIT " + PAGE;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE)
+    public void mapPage(Blackhole bh) throws Throwable {
+        Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+        try (PreparedStatement ps = conn.prepareStatement(query); ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                bh.consume(mapRow.invoke(target, rs));
+            }
+        }
+    }
+}
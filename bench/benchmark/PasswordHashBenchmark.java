@@ -0,0 +1,64 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import util.CredentialHasher;
+import util.Pbkdf2CredentialHasher;
+import util.Sha256CredentialHasher;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What AuthService.hashPassword costs per call: the PBKDF2 hasher it uses at several work factors, and the
+ * legacy SHA-256 hash still accepted for old accounts. Needs no dataset.
+ * Pick -Dhotel.pbkdf2.iterations so that pbkdf2Contended stays within the 250 ms sign-in budget. With both
+ * hashing threads busy, as at a shift change, the last of 20 staff signing in waits about ten times that.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHashBenchmark {
+    private static final CredentialHasher SHA256 = new Sha256CredentialHasher();
+
+    @State(Scope.Benchmark)
+    public static class Cost {
+        @Param({"100000", "210000", "600000"})
+        public int iterations;
+
+        CredentialHasher hasher;
+
+        @Setup
+        public void setUp() {
+            hasher = new Pbkdf2CredentialHasher(iterations);
+        }
+    }
+
+    @Benchmark
+    public String pbkdf2(Cost cost) {
+        return cost.hasher.hash("correct horse battery staple");
+    }
+
+    /** Both threads of CredentialService's hashing pool busy at once. */
+    @Benchmark
+    @Threads(2)
+    public String pbkdf2Contended(Cost cost) {
+        return cost.hasher.hash("correct horse battery staple");
+    }
+
+    @Benchmark
+    public String legacySha256() {
+        return SHA256.hash("correct horse battery staple");
+    }
+}
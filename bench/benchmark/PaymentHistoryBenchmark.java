@@ -0,0 +1,40 @@
+package benchmark;
+
+import model.Payment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.PaymentService;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** A customer's payment history, read through the ledger cache and straight from the database. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentHistoryBenchmark {
+    private final SplittableRandom random = new SplittableRandom(11);
+
+    @Benchmark
+    public List<Payment> findByCustomerIdCached(Dataset data) {
+        return PaymentService.getInstance().findByCustomerId(1 + random.nextInt(data.customers));
+    }
+
+    @Benchmark
+    public List<Payment> findByCustomerIdUncached(Dataset data) {
+        int customerId = 1 + random.nextInt(data.customers);
+        PaymentService.getInstance().invalidateLedger(customerId);
+        return PaymentService.getInstance().findByCustomerId(customerId);
+    }
+}
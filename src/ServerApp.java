@@ -0,0 +1,58 @@
+import server.ApiServer;
+import service.AuditService;
+import service.AuthService;
+import service.NightAuditService;
+import util.DatabaseInitializer;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Headless entry point: serves the HTTP API instead of the desktop UI.
+ * Usage: ServerApp [port] [maxInFlight] [bindAddress]. Listens on loopback unless a bind address is given, e.g.
+ * 0.0.0.0 behind a TLS-terminating proxy. On an empty database the first admin, user "admin", takes its password
+ * from HOTEL_ADMIN_PASSWORD or -Dhotel.admin.password; without one the server does not start.
+ */
+public class ServerApp {
+    private static final int MIN_ADMIN_PASSWORD_LENGTH = 12;
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        int maxInFlight = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+        InetAddress bindAddress = args.length > 2 ? InetAddress.getByName(args[2]) : InetAddress.getLoopbackAddress();
+        // jdk.httpserver reads requests while holding a monitor, which pins a virtual thread to its carrier before
+        // JDK 24. Keep a few carriers even on small machines and drop clients that stall mid-request. Both are read
+        // once, so they must be set before the first virtual thread and the server exist; -D overrides win.
+        setIfAbsent("jdk.virtualThreadScheduler.parallelism",
+                String.valueOf(Math.max(8, Runtime.getRuntime().availableProcessors())));
+        setIfAbsent("sun.net.httpserver.maxReqTime", "10");
+
+        DatabaseInitializer.initialize();
+        if (!AuthService.getInstance().hasUsers()) {
+            String password = System.getProperty("hotel.admin.password", System.getenv("HOTEL_ADMIN_PASSWORD"));
+            if (password == null || password.length() < MIN_ADMIN_PASSWORD_LENGTH) {
+                System.err.println("No staff users yet: set HOTEL_ADMIN_PASSWORD or -Dhotel.admin.password to a password of at least "
+                        + MIN_ADMIN_PASSWORD_LENGTH + " characters for the first admin, user \"admin\".");
+                System.exit(2);
+            }
+            AuthService.seedAdminIfNeeded(password);
+        }
+        NightAuditService.getInstance().start();
+        ApiServer server = new ApiServer(new InetSocketAddress(bindAddress, port), maxInFlight);
+        server.start();
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(5);
+            NightAuditService.getInstance().shutdown();
+            AuditService.getInstance().shutdown();
+            stopped.countDown();
+        }, "api-shutdown"));
+        stopped.await();
+    }
+
+    private static void setIfAbsent(String property, String value) {
+        if (System.getProperty(property) == null) System.setProperty(property, value);
+    }
+}
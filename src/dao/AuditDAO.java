@@ -0,0 +1,17 @@
+package dao;
+
+import model.AuditRecord;
+
+import java.util.List;
+
+/**
+ * Data Access Object for the append-only audit_log table.
+ */
+public interface AuditDAO {
+    /** Appends the records in one transaction. */
+    void saveAll(List<AuditRecord> records);
+    /** The entity's history, oldest first. */
+    List<AuditRecord> findByEntity(String entity, int entityId);
+    /** The latest records, newest first. */
+    List<AuditRecord> findRecent(int limit);
+}
@@ -13,4 +13,14 @@ public interface CustomerDAO {
     Optional<Customer> findById(int customerId);
     Optional<Customer> findByUsername(String username);
     List<Customer> findAll();
+    /** Most recently added customers first. */
+    List<Customer> findRecent(int limit);
+    int count();
+    /**
+     * Matches for an FTS5 query over name, phone, email and ID number: newest first, or if ranked, best first among
+     * the newest few hundred matches.
+     */
+    List<Customer> search(String matchExpression, int limit, boolean ranked);
+    /** Repopulates the search index from customers. Returns the number of rows indexed. */
+    int rebuildSearchIndex();
 }
@@ -0,0 +1,17 @@
+package dao;
+
+import model.DailySnapshot;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Data Access Object interface for night audit snapshots.
+ */
+public interface DailySnapshotDAO {
+    /** Inserts or replaces the snapshot of its business date. */
+    DailySnapshot save(DailySnapshot snapshot);
+    Optional<DailySnapshot> findByDate(LocalDate businessDate);
+    List<DailySnapshot> findBetween(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,18 @@
+package dao;
+
+import java.util.Optional;
+
+/**
+ * Data Access Object for idempotency keys: the result of an operation already performed under a key,
+ * with who performed it and a hash of what they asked for.
+ */
+public interface IdempotencyDAO {
+    record StoredResult(int result, String principal, String requestHash) { }
+
+    /** Result stored for the key, if it has not expired by {@code nowMillis}. */
+    Optional<StoredResult> findResult(String operation, String key, long nowMillis);
+    /** Stores the result; fails if the key is already taken, so concurrent first attempts cannot both win. */
+    void save(String operation, String key, StoredResult stored, long expiresAtMillis);
+    /** Deletes keys expired by {@code nowMillis}. Returns the number removed. */
+    int purgeExpired(long nowMillis);
+}
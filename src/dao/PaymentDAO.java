@@ -2,6 +2,7 @@ package dao;
 
 import model.Payment;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +16,8 @@ public interface PaymentDAO {
     Optional<Payment> findById(int paymentId);
     List<Payment> findAll();
     List<Payment> findByReservationId(int reservationId);
+    /** Payments on all of the customer's reservations, oldest first. */
+    List<Payment> findByCustomerId(int customerId);
+    /** Sum of payment amounts dated in [from, to). */
+    double sumAmountBetween(LocalDateTime from, LocalDateTime to);
 }
@@ -0,0 +1,15 @@
+package dao;
+
+import model.RoomType;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Data Access Object for the rate calendar: a price multiplier per room type and night.
+ */
+public interface RateDAO {
+    void saveRates(RoomType roomType, Map<LocalDate, Double> multipliers);
+    /** Multipliers for nights in [from, to); nights without a stored rate are absent. */
+    Map<LocalDate, Double> findRates(RoomType roomType, LocalDate from, LocalDate to);
+}
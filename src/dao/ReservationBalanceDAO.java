@@ -0,0 +1,28 @@
+package dao;
+
+import model.ReservationBalance;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Data Access Object for the materialized reservation_balances table:
+ * one row per reservation with what it was charged, what has been paid and the difference.
+ */
+public interface ReservationBalanceDAO {
+    /** Replaces the reservation's charge, keeping what was paid. */
+    void setCharged(int reservationId, double totalCharged);
+    /** Sets the charge of every listed reservation to zero, e.g. when they are cancelled. */
+    void voidCharges(Collection<Integer> reservationIds);
+    /** Adds {@code delta} (may be negative) to the amount paid. */
+    void addPaid(int reservationId, double delta);
+    Optional<ReservationBalance> findByReservationId(int reservationId);
+    /** Reservations that still owe money, largest balance first. */
+    List<ReservationBalance> findOutstanding();
+    /**
+     * Repopulates the table: charges at the room's base rate plus tax for reservations that are not
+     * cancelled or no-shows, payments summed per reservation. Returns the number of rows written.
+     */
+    int rebuild(double taxRate);
+}
@@ -1,9 +1,13 @@
 package dao;
 
 import model.Reservation;
+import model.ReservationRow;
+import model.ReservationStatus;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -18,4 +22,29 @@ public interface ReservationDAO {
     List<Reservation> findByRoomId(int roomId);
     List<Reservation> findByCustomerId(int customerId);
     List<Reservation> findOverlappingReservations(int roomId, LocalDate checkIn, LocalDate checkOut, Integer excludeReservationId);
+    boolean existsOverlapping(int roomId, LocalDate checkIn, LocalDate checkOut, Integer excludeReservationId);
+    /** True if the room has a BOOKED or CHECKED_IN reservation. */
+    boolean existsActiveByRoomId(int roomId);
+    int countActiveByRoomId(int roomId);
+    /** Number of reservations per status; statuses with none are absent. */
+    Map<ReservationStatus, Integer> countByStatus();
+    int countByStatusAndCheckIn(ReservationStatus status, LocalDate checkInDate);
+    int countByStatusAndCheckOut(ReservationStatus status, LocalDate checkOutDate);
+    List<Reservation> findByIds(Collection<Integer> reservationIds);
+    List<Reservation> findByStatusAndCheckIn(ReservationStatus status, LocalDate checkInDate);
+    List<Reservation> findByStatusAndCheckOut(ReservationStatus status, LocalDate checkOutDate);
+    /** Up to {@code limit} ids with the status whose check-in date is before the given date. */
+    List<Integer> findIdsArrivingBefore(ReservationStatus status, LocalDate date, int limit);
+    /** Up to {@code limit} ids with the status whose check-out date is before the given date. */
+    List<Integer> findIdsDepartingBefore(ReservationStatus status, LocalDate date, int limit);
+    /** Sets the status of the listed reservations in one statement. Returns the number of rows changed. */
+    int updateStatus(Collection<Integer> reservationIds, ReservationStatus status);
+    /** Moves every reservation of one customer to another. Returns the number moved. */
+    int reassignCustomer(int fromCustomerId, int toCustomerId);
+    /** BOOKED or CHECKED_IN reservations whose stay ends after the given date. */
+    List<Reservation> findActiveFrom(LocalDate from);
+    /** Every reservation joined with its customer name, room and balance, newest first. */
+    List<ReservationRow> findAllRows();
+    /** The customer's reservations joined with room and balance, newest first. */
+    List<ReservationRow> findRowsByCustomerId(int customerId);
 }
@@ -0,0 +1,14 @@
+package dao;
+
+import model.RevenueEntry;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Data Access Object for revenue aggregates.
+ */
+public interface RevenueDAO {
+    /** Payments dated in [from, to) summed per day, room type and payment method. */
+    List<RevenueEntry> aggregateByDay(LocalDate from, LocalDate to);
+}
@@ -1,6 +1,7 @@
 package dao;
 
 import model.Room;
+import model.RoomType;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,4 +16,6 @@ public interface RoomDAO {
     Optional<Room> findById(int roomId);
     Optional<Room> findByRoomNumber(String roomNumber);
     List<Room> findAll();
+    int count();
+    List<Room> findByType(RoomType roomType);
 }
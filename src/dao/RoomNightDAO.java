@@ -0,0 +1,24 @@
+package dao;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Access Object for the materialized room_nights table:
+ * one row per (room, night) held by a BOOKED or CHECKED_IN reservation.
+ */
+public interface RoomNightDAO {
+    void addStay(int reservationId, int roomId, LocalDate checkIn, LocalDate checkOut);
+    void removeStay(int reservationId);
+    void removeStays(Collection<Integer> reservationIds);
+    /** Occupied room count per night in [from, to); nights with no stays are absent. */
+    Map<LocalDate, Integer> countOccupiedByNight(LocalDate from, LocalDate to);
+    /** Rooms holding at least one night in [from, to). */
+    List<Integer> findOccupiedRoomIds(LocalDate from, LocalDate to);
+    /** Repopulates the table from reservations. Returns the number of nights written. */
+    int rebuild();
+    /** Returns {missing, extra} row counts compared with what reservations imply. */
+    int[] verify();
+}
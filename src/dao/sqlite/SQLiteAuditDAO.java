@@ -0,0 +1,92 @@
+package dao.sqlite;
+
+import dao.AuditDAO;
+import model.AuditRecord;
+import util.SQLiteConnectionManager;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SQLite implementation of AuditDAO.
+ */
+public class SQLiteAuditDAO implements AuditDAO {
+    private static final DateTimeFormatter FMT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final String INSERT = "INSERT INTO audit_log " +
+            "(occurred_at, actor, entity, entity_id, action, before_value, after_value) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String FIND_BY_ENTITY = "SELECT * FROM audit_log WHERE entity=? AND entity_id=? ORDER BY audit_id";
+    private static final String FIND_RECENT = "SELECT * FROM audit_log ORDER BY audit_id DESC LIMIT ?";
+
+    @Override
+    public void saveAll(List<AuditRecord> records) {
+        SQLiteConnectionManager.getInstance().runInTransaction(() -> {
+            try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+                 PreparedStatement ps = conn.prepareStatement(INSERT)) {
+                for (AuditRecord r : records) {
+                    ps.setString(1, r.getOccurredAt().format(FMT));
+                    ps.setString(2, r.getActor());
+                    ps.setString(3, r.getEntity());
+                    ps.setInt(4, r.getEntityId());
+                    ps.setString(5, r.getAction());
+                    ps.setString(6, r.getBeforeValue());
+                    ps.setString(7, r.getAfterValue());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to save audit records", e);
+            }
+        });
+    }
+
+    @Override
+    public List<AuditRecord> findByEntity(String entity, int entityId) {
+        List<AuditRecord> list = new ArrayList<>();
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(FIND_BY_ENTITY)) {
+            ps.setString(1, entity);
+            ps.setInt(2, entityId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to find audit records", e);
+        }
+        return list;
+    }
+
+    @Override
+    public List<AuditRecord> findRecent(int limit) {
+        List<AuditRecord> list = new ArrayList<>();
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(FIND_RECENT)) {
+            ps.setInt(1, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to find audit records", e);
+        }
+        return list;
+    }
+
+    private AuditRecord mapRow(ResultSet rs) throws SQLException {
+        return new AuditRecord(
+                rs.getLong("audit_id"),
+                LocalDateTime.parse(rs.getString("occurred_at"), FMT),
+                rs.getString("actor"),
+                rs.getString("entity"),
+                rs.getInt("entity_id"),
+                rs.getString("action"),
+                rs.getString("before_value"),
+                rs.getString("after_value")
+        );
+    }
+}
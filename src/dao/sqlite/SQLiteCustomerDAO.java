@@ -19,6 +19,26 @@ public class SQLiteCustomerDAO implements CustomerDAO {
     private static final String FIND_BY_ID = "SELECT * FROM customers WHERE customer_id=?";
     private static final String FIND_BY_USERNAME = "SELECT * FROM customers WHERE username=? AND username IS NOT NULL AND username != ''";
     private static final String FIND_ALL = "SELECT * FROM customers";
+    private static final String FIND_RECENT = "SELECT * FROM customers ORDER BY customer_id DESC LIMIT ?";
+    private static final String COUNT = "SELECT COUNT(*) FROM customers";
+    private static final String INDEX = "INSERT INTO customer_search (rowid, full_name, phone, email, id_number) VALUES (?, ?, ?, ?, ?)";
+    private static final String UNINDEX = "DELETE FROM customer_search WHERE rowid=?";
+    private static final String UNINDEX_ALL = "DELETE FROM customer_search";
+    /** Ranking candidates: only the newest matches are scored, so a broad prefix costs no more than a narrow one. */
+    private static final int MAX_RANKED = 500;
+    /**
+     * Scores the newest {@link #MAX_RANKED} matches. The subquery finds the rowid they start at, which FTS5 applies
+     * as a range on its scan; an IN list of candidate rowids would instead re-run the match for each one.
+     */
+    private static final String SEARCH = "SELECT c.* FROM customer_search s JOIN customers c ON c.customer_id = s.rowid " +
+            "WHERE customer_search MATCH ? AND s.rowid >= COALESCE((SELECT rowid FROM customer_search " +
+            "WHERE customer_search MATCH ? ORDER BY rowid DESC LIMIT 1 OFFSET " + (MAX_RANKED - 1) + "), 0) " +
+            "ORDER BY bm25(customer_search) LIMIT ?";
+    /** FTS5 walks its matches in rowid order, so this stops at the limit instead of scoring and sorting them all. */
+    private static final String SEARCH_NEWEST = "SELECT c.* FROM customer_search s JOIN customers c ON c.customer_id = s.rowid " +
+            "WHERE customer_search MATCH ? ORDER BY s.rowid DESC LIMIT ?";
+    /** Shortest phone tail that is indexed, so a search by the local part of a number still finds it. */
+    private static final int MIN_PHONE_TAIL = 4;
 
     @Override
     public Customer save(Customer customer) {
@@ -36,6 +56,7 @@ public class SQLiteCustomerDAO implements CustomerDAO {
                     customer.setCustomerId(rs.getInt(1));
                 }
             }
+            index(conn, customer);
         } catch (SQLException e) {
             throw new RuntimeException("Failed to save customer", e);
         }
@@ -54,6 +75,8 @@ public class SQLiteCustomerDAO implements CustomerDAO {
             ps.setString(6, customer.getPasswordHash());
             ps.setInt(7, customer.getCustomerId());
             ps.executeUpdate();
+            unindex(conn, customer.getCustomerId());
+            index(conn, customer);
         } catch (SQLException e) {
             throw new RuntimeException("Failed to update customer", e);
         }
@@ -65,7 +88,9 @@ public class SQLiteCustomerDAO implements CustomerDAO {
         try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
              PreparedStatement ps = conn.prepareStatement(DELETE)) {
             ps.setInt(1, customerId);
-            return ps.executeUpdate() > 0;
+            boolean deleted = ps.executeUpdate() > 0;
+            if (deleted) unindex(conn, customerId);
+            return deleted;
         } catch (SQLException e) {
             throw new RuntimeException("Failed to delete customer", e);
         }
@@ -113,6 +138,103 @@ public class SQLiteCustomerDAO implements CustomerDAO {
         return list;
     }
 
+    @Override
+    public List<Customer> findRecent(int limit) {
+        List<Customer> list = new ArrayList<>();
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(FIND_RECENT)) {
+            ps.setInt(1, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to find recent customers", e);
+        }
+        return list;
+    }
+
+    @Override
+    public int count() {
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(COUNT);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to count customers", e);
+        }
+    }
+
+    @Override
+    public List<Customer> search(String matchExpression, int limit, boolean ranked) {
+        List<Customer> list = new ArrayList<>();
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(ranked ? SEARCH : SEARCH_NEWEST)) {
+            int i = 1;
+            ps.setString(i++, matchExpression);
+            if (ranked) ps.setString(i++, matchExpression);
+            ps.setInt(i, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to search customers", e);
+        }
+        return list;
+    }
+
+    @Override
+    public int rebuildSearchIndex() {
+        return SQLiteConnectionManager.getInstance().inTransaction(() -> {
+            int indexed = 0;
+            try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+                 Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate(UNINDEX_ALL);
+                try (ResultSet rs = stmt.executeQuery(FIND_ALL)) {
+                    while (rs.next()) {
+                        index(conn, mapRow(rs));
+                        indexed++;
+                    }
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to rebuild customer search index", e);
+            }
+            return indexed;
+        });
+    }
+
+    /** Writes the customer's search row. Phones are indexed as digits plus their tails, for matching by local number. */
+    private static void index(Connection conn, Customer c) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(INDEX)) {
+            ps.setInt(1, c.getCustomerId());
+            ps.setString(2, c.getFullName());
+            ps.setString(3, phoneTerms(c.getPhone()));
+            ps.setString(4, c.getEmail());
+            ps.setString(5, c.getIdNumber());
+            ps.executeUpdate();
+        }
+    }
+
+    private static void unindex(Connection conn, int customerId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(UNINDEX)) {
+            ps.setInt(1, customerId);
+            ps.executeUpdate();
+        }
+    }
+
+    private static String phoneTerms(String phone) {
+        if (phone == null) return "";
+        String digits = phone.replaceAll("\\D", "");
+        StringBuilder terms = new StringBuilder(digits);
+        for (int i = 1; digits.length() - i >= MIN_PHONE_TAIL; i++) {
+            terms.append(' ').append(digits, i, digits.length());
+        }
+        return terms.toString();
+    }
+
     private Customer mapRow(ResultSet rs) throws SQLException {
         String username = null, passwordHash = null;
         try {
@@ -0,0 +1,81 @@
+package dao.sqlite;
+
+import dao.DailySnapshotDAO;
+import model.DailySnapshot;
+import util.SQLiteConnectionManager;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * SQLite implementation of DailySnapshotDAO.
+ */
+public class SQLiteDailySnapshotDAO implements DailySnapshotDAO {
+    private static final String UPSERT = "INSERT OR REPLACE INTO daily_snapshots " +
+            "(business_date, revenue, occupied_rooms, total_rooms, no_shows, auto_check_outs) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String FIND_BY_DATE = "SELECT * FROM daily_snapshots WHERE business_date=?";
+    private static final String FIND_BETWEEN = "SELECT * FROM daily_snapshots WHERE business_date >= ? AND business_date < ? " +
+            "ORDER BY business_date";
+
+    @Override
+    public DailySnapshot save(DailySnapshot snapshot) {
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(UPSERT)) {
+            ps.setString(1, snapshot.getBusinessDate().toString());
+            ps.setDouble(2, snapshot.getRevenue());
+            ps.setInt(3, snapshot.getOccupiedRooms());
+            ps.setInt(4, snapshot.getTotalRooms());
+            ps.setInt(5, snapshot.getNoShows());
+            ps.setInt(6, snapshot.getAutoCheckOuts());
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to save daily snapshot", e);
+        }
+        return snapshot;
+    }
+
+    @Override
+    public Optional<DailySnapshot> findByDate(LocalDate businessDate) {
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(FIND_BY_DATE)) {
+            ps.setString(1, businessDate.toString());
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(mapRow(rs)) : Optional.empty();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to find daily snapshot", e);
+        }
+    }
+
+    @Override
+    public List<DailySnapshot> findBetween(LocalDate from, LocalDate to) {
+        List<DailySnapshot> list = new ArrayList<>();
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(FIND_BETWEEN)) {
+            ps.setString(1, from.toString());
+            ps.setString(2, to.toString());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to find daily snapshots", e);
+        }
+        return list;
+    }
+
+    private DailySnapshot mapRow(ResultSet rs) throws SQLException {
+        return new DailySnapshot(
+                LocalDate.parse(rs.getString("business_date")),
+                rs.getDouble("revenue"),
+                rs.getInt("occupied_rooms"),
+                rs.getInt("total_rooms"),
+                rs.getInt("no_shows"),
+                rs.getInt("auto_check_outs")
+        );
+    }
+}
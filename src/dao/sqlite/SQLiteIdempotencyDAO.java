@@ -0,0 +1,67 @@
+package dao.sqlite;
+
+import dao.IdempotencyDAO;
+import util.SQLiteConnectionManager;
+
+import java.sql.*;
+import java.util.Optional;
+
+/**
+ * SQLite implementation of IdempotencyDAO.
+ */
+public class SQLiteIdempotencyDAO implements IdempotencyDAO {
+    private static final String FIND_RESULT = "SELECT result, principal, request_hash FROM idempotency_keys WHERE operation=? AND idempotency_key=? AND expires_at > ?";
+    /** An expired row may still be present; it is replaced, a live one makes the insert fail. */
+    private static final String DELETE_EXPIRED_KEY = "DELETE FROM idempotency_keys WHERE operation=? AND idempotency_key=? AND expires_at <= ?";
+    private static final String INSERT = "INSERT INTO idempotency_keys (operation, idempotency_key, result, principal, request_hash, expires_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String PURGE_EXPIRED = "DELETE FROM idempotency_keys WHERE expires_at <= ?";
+
+    @Override
+    public Optional<StoredResult> findResult(String operation, String key, long nowMillis) {
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(FIND_RESULT)) {
+            ps.setString(1, operation);
+            ps.setString(2, key);
+            ps.setLong(3, nowMillis);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next()
+                        ? Optional.of(new StoredResult(rs.getInt(1), rs.getString(2), rs.getString(3)))
+                        : Optional.empty();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to find idempotency key", e);
+        }
+    }
+
+    @Override
+    public void save(String operation, String key, StoredResult stored, long expiresAtMillis) {
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement delete = conn.prepareStatement(DELETE_EXPIRED_KEY);
+             PreparedStatement insert = conn.prepareStatement(INSERT)) {
+            delete.setString(1, operation);
+            delete.setString(2, key);
+            delete.setLong(3, System.currentTimeMillis());
+            delete.executeUpdate();
+            insert.setString(1, operation);
+            insert.setString(2, key);
+            insert.setInt(3, stored.result());
+            insert.setString(4, stored.principal());
+            insert.setString(5, stored.requestHash());
+            insert.setLong(6, expiresAtMillis);
+            insert.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to save idempotency key", e);
+        }
+    }
+
+    @Override
+    public int purgeExpired(long nowMillis) {
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(PURGE_EXPIRED)) {
+            ps.setLong(1, nowMillis);
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to purge idempotency keys", e);
+        }
+    }
+}
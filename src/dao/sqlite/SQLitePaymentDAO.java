@@ -23,6 +23,9 @@ public class SQLitePaymentDAO implements PaymentDAO {
     private static final String FIND_BY_ID = "SELECT * FROM payments WHERE payment_id=?";
     private static final String FIND_ALL = "SELECT * FROM payments";
     private static final String FIND_BY_RESERVATION = "SELECT * FROM payments WHERE reservation_id=?";
+    private static final String FIND_BY_CUSTOMER = "SELECT p.* FROM payments p " +
+            "JOIN reservations r ON r.reservation_id = p.reservation_id WHERE r.customer_id=? ORDER BY p.payment_id";
+    private static final String SUM_BETWEEN = "SELECT COALESCE(SUM(amount), 0) FROM payments WHERE payment_date >= ? AND payment_date < ?";
 
     @Override
     public Payment save(Payment payment) {
@@ -116,6 +119,37 @@ public class SQLitePaymentDAO implements PaymentDAO {
         return list;
     }
 
+    @Override
+    public List<Payment> findByCustomerId(int customerId) {
+        List<Payment> list = new ArrayList<>();
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(FIND_BY_CUSTOMER)) {
+            ps.setInt(1, customerId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to find payments by customer", e);
+        }
+        return list;
+    }
+
+    @Override
+    public double sumAmountBetween(LocalDateTime from, LocalDateTime to) {
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(SUM_BETWEEN)) {
+            ps.setString(1, from.format(FMT));
+            ps.setString(2, to.format(FMT));
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getDouble(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to sum payments", e);
+        }
+    }
+
     private Payment mapRow(ResultSet rs) throws SQLException {
         String dateStr = rs.getString("payment_date");
         LocalDateTime dt = dateStr != null ? LocalDateTime.parse(dateStr, FMT) : LocalDateTime.now();
@@ -0,0 +1,53 @@
+package dao.sqlite;
+
+import dao.RateDAO;
+import model.RoomType;
+import util.SQLiteConnectionManager;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * SQLite implementation of RateDAO.
+ */
+public class SQLiteRateDAO implements RateDAO {
+    private static final String UPSERT = "INSERT OR REPLACE INTO room_rates (room_type, night, multiplier) VALUES (?, ?, ?)";
+    private static final String FIND_RANGE = "SELECT night, multiplier FROM room_rates WHERE room_type=? AND night >= ? AND night < ?";
+
+    @Override
+    public void saveRates(RoomType roomType, Map<LocalDate, Double> multipliers) {
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(UPSERT)) {
+            for (Map.Entry<LocalDate, Double> e : multipliers.entrySet()) {
+                ps.setString(1, roomType.name());
+                ps.setString(2, e.getKey().toString());
+                ps.setDouble(3, e.getValue());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to save rates", e);
+        }
+    }
+
+    @Override
+    public Map<LocalDate, Double> findRates(RoomType roomType, LocalDate from, LocalDate to) {
+        Map<LocalDate, Double> rates = new TreeMap<>();
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(FIND_RANGE)) {
+            ps.setString(1, roomType.name());
+            ps.setString(2, from.toString());
+            ps.setString(3, to.toString());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rates.put(LocalDate.parse(rs.getString("night")), rs.getDouble("multiplier"));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to find rates", e);
+        }
+        return rates;
+    }
+}
@@ -0,0 +1,129 @@
+package dao.sqlite;
+
+import dao.ReservationBalanceDAO;
+import model.ReservationBalance;
+import util.SQLiteConnectionManager;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * SQLite implementation of ReservationBalanceDAO.
+ */
+public class SQLiteReservationBalanceDAO implements ReservationBalanceDAO {
+    private static final String SET_CHARGED = "INSERT INTO reservation_balances " +
+            "(reservation_id, total_charged, total_paid, balance) VALUES (?, ?, 0, ?) " +
+            "ON CONFLICT(reservation_id) DO UPDATE SET total_charged = excluded.total_charged, " +
+            "balance = ROUND(excluded.total_charged - total_paid, 2)";
+    private static final String ADD_PAID = "INSERT INTO reservation_balances " +
+            "(reservation_id, total_charged, total_paid, balance) VALUES (?, 0, ?, ?) " +
+            "ON CONFLICT(reservation_id) DO UPDATE SET total_paid = ROUND(total_paid + excluded.total_paid, 2), " +
+            "balance = ROUND(total_charged - total_paid - excluded.total_paid, 2)";
+    private static final String FIND_BY_RESERVATION = "SELECT * FROM reservation_balances WHERE reservation_id=?";
+    private static final String FIND_OUTSTANDING = "SELECT * FROM reservation_balances WHERE balance > 0 ORDER BY balance DESC";
+    private static final String DELETE_ALL = "DELETE FROM reservation_balances";
+    private static final String REBUILD = "INSERT INTO reservation_balances (reservation_id, total_charged, total_paid, balance) " +
+            "SELECT reservation_id, charged, paid, ROUND(charged - paid, 2) FROM (" +
+            "SELECT r.reservation_id, " +
+            "CASE WHEN r.status IN ('CANCELLED', 'NO_SHOW') THEN 0 ELSE ROUND(COALESCE(rm.price_per_night, 0) * " +
+            "MAX(0, julianday(r.check_out_date) - julianday(r.check_in_date)) * (1 + ?), 2) END AS charged, " +
+            "ROUND((SELECT COALESCE(SUM(p.amount), 0) FROM payments p WHERE p.reservation_id = r.reservation_id), 2) AS paid " +
+            "FROM reservations r LEFT JOIN rooms rm ON rm.room_id = r.room_id)";
+
+    @Override
+    public void setCharged(int reservationId, double totalCharged) {
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(SET_CHARGED)) {
+            ps.setInt(1, reservationId);
+            ps.setDouble(2, totalCharged);
+            ps.setDouble(3, totalCharged);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to save reservation charge", e);
+        }
+    }
+
+    @Override
+    public void voidCharges(Collection<Integer> reservationIds) {
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(SET_CHARGED)) {
+            for (int id : reservationIds) {
+                ps.setInt(1, id);
+                ps.setDouble(2, 0);
+                ps.setDouble(3, 0);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to void reservation charges", e);
+        }
+    }
+
+    @Override
+    public void addPaid(int reservationId, double delta) {
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(ADD_PAID)) {
+            ps.setInt(1, reservationId);
+            ps.setDouble(2, delta);
+            ps.setDouble(3, -delta);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to update reservation payments", e);
+        }
+    }
+
+    @Override
+    public Optional<ReservationBalance> findByReservationId(int reservationId) {
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(FIND_BY_RESERVATION)) {
+            ps.setInt(1, reservationId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(mapRow(rs)) : Optional.empty();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to find reservation balance", e);
+        }
+    }
+
+    @Override
+    public List<ReservationBalance> findOutstanding() {
+        List<ReservationBalance> list = new ArrayList<>();
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(FIND_OUTSTANDING);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                list.add(mapRow(rs));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to find outstanding balances", e);
+        }
+        return list;
+    }
+
+    @Override
+    public int rebuild(double taxRate) {
+        return SQLiteConnectionManager.getInstance().inTransaction(() -> {
+            try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+                 Statement stmt = conn.createStatement();
+                 PreparedStatement ps = conn.prepareStatement(REBUILD)) {
+                stmt.executeUpdate(DELETE_ALL);
+                ps.setDouble(1, taxRate);
+                return ps.executeUpdate();
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to rebuild reservation balances", e);
+            }
+        });
+    }
+
+    private ReservationBalance mapRow(ResultSet rs) throws SQLException {
+        return new ReservationBalance(
+                rs.getInt("reservation_id"),
+                rs.getDouble("total_charged"),
+                rs.getDouble("total_paid"),
+                rs.getDouble("balance")
+        );
+    }
+}
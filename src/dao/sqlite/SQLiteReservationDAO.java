@@ -2,13 +2,19 @@ package dao.sqlite;
 
 import dao.ReservationDAO;
 import model.Reservation;
+import model.ReservationRow;
 import model.ReservationStatus;
+import model.RoomType;
 import util.SQLiteConnectionManager;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -22,8 +28,35 @@ public class SQLiteReservationDAO implements ReservationDAO {
     private static final String FIND_ALL = "SELECT * FROM reservations";
     private static final String FIND_BY_ROOM_ID = "SELECT * FROM reservations WHERE room_id=?";
     private static final String FIND_BY_CUSTOMER_ID = "SELECT * FROM reservations WHERE customer_id=?";
-    private static final String FIND_OVERLAPPING = "SELECT * FROM reservations WHERE room_id=? AND status NOT IN ('CANCELLED') " +
+    private static final String REASSIGN_CUSTOMER = "UPDATE reservations SET customer_id=? WHERE customer_id=?";
+    private static final String FIND_OVERLAPPING = "SELECT * FROM reservations WHERE room_id=? AND status IN ('BOOKED', 'CHECKED_IN') " +
             "AND check_in_date < ? AND check_out_date > ?";
+    private static final String EXISTS_OVERLAPPING = "SELECT EXISTS (SELECT 1 FROM reservations WHERE room_id=? " +
+            "AND status IN ('BOOKED', 'CHECKED_IN') AND check_in_date < ? AND check_out_date > ? AND reservation_id != ?)";
+    private static final String EXISTS_ACTIVE_BY_ROOM = "SELECT EXISTS (SELECT 1 FROM reservations WHERE room_id=? " +
+            "AND status IN ('BOOKED', 'CHECKED_IN'))";
+    private static final String COUNT_ACTIVE_BY_ROOM = "SELECT COUNT(*) FROM reservations WHERE room_id=? " +
+            "AND status IN ('BOOKED', 'CHECKED_IN')";
+    private static final String COUNT_BY_STATUS = "SELECT status, COUNT(*) FROM reservations GROUP BY status";
+    private static final String COUNT_BY_STATUS_AND_CHECK_IN = "SELECT COUNT(*) FROM reservations WHERE status=? AND check_in_date=?";
+    private static final String COUNT_BY_STATUS_AND_CHECK_OUT = "SELECT COUNT(*) FROM reservations WHERE status=? AND check_out_date=?";
+    private static final String FIND_BY_STATUS_AND_CHECK_IN = "SELECT * FROM reservations WHERE status=? AND check_in_date=?";
+    private static final String FIND_BY_STATUS_AND_CHECK_OUT = "SELECT * FROM reservations WHERE status=? AND check_out_date=?";
+    private static final String FIND_IDS_ARRIVING_BEFORE = "SELECT reservation_id FROM reservations " +
+            "WHERE status=? AND check_in_date < ? ORDER BY check_in_date LIMIT ?";
+    private static final String FIND_IDS_DEPARTING_BEFORE = "SELECT reservation_id FROM reservations " +
+            "WHERE status=? AND check_out_date < ? ORDER BY check_out_date LIMIT ?";
+    /** Stays under SQLite's default bound-parameter limit. */
+    private static final int MAX_IN_PARAMS = 500;
+    private static final String SELECT_ROWS = "SELECT r.*, c.full_name AS customer_name, rm.room_number, rm.room_type, " +
+            "COALESCE(b.balance, 0) AS balance FROM reservations r " +
+            "LEFT JOIN customers c ON c.customer_id = r.customer_id " +
+            "LEFT JOIN rooms rm ON rm.room_id = r.room_id " +
+            "LEFT JOIN reservation_balances b ON b.reservation_id = r.reservation_id";
+    private static final String FIND_ALL_ROWS = SELECT_ROWS + " ORDER BY r.reservation_id DESC";
+    private static final String FIND_ROWS_BY_CUSTOMER_ID = SELECT_ROWS + " WHERE r.customer_id=? ORDER BY r.reservation_id DESC";
+    private static final String FIND_ACTIVE_FROM = "SELECT * FROM reservations WHERE status IN ('BOOKED', 'CHECKED_IN') " +
+            "AND check_out_date > ?";
 
     @Override
     public Reservation save(Reservation reservation) {
@@ -136,6 +169,253 @@ public class SQLiteReservationDAO implements ReservationDAO {
         return list;
     }
 
+    @Override
+    public boolean existsOverlapping(int roomId, LocalDate checkIn, LocalDate checkOut, Integer excludeReservationId) {
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(EXISTS_OVERLAPPING)) {
+            ps.setInt(1, roomId);
+            ps.setString(2, checkOut.toString());
+            ps.setString(3, checkIn.toString());
+            ps.setInt(4, excludeReservationId != null ? excludeReservationId : -1);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to check overlapping reservations", e);
+        }
+    }
+
+    @Override
+    public boolean existsActiveByRoomId(int roomId) {
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(EXISTS_ACTIVE_BY_ROOM)) {
+            ps.setInt(1, roomId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to check active reservations", e);
+        }
+    }
+
+    @Override
+    public int countActiveByRoomId(int roomId) {
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(COUNT_ACTIVE_BY_ROOM)) {
+            ps.setInt(1, roomId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to count active reservations", e);
+        }
+    }
+
+    @Override
+    public int reassignCustomer(int fromCustomerId, int toCustomerId) {
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(REASSIGN_CUSTOMER)) {
+            ps.setInt(1, toCustomerId);
+            ps.setInt(2, fromCustomerId);
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to reassign reservations", e);
+        }
+    }
+
+    @Override
+    public Map<ReservationStatus, Integer> countByStatus() {
+        Map<ReservationStatus, Integer> counts = new EnumMap<>(ReservationStatus.class);
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(COUNT_BY_STATUS);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                counts.put(ReservationStatus.valueOf(rs.getString(1)), rs.getInt(2));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to count reservations", e);
+        }
+        return counts;
+    }
+
+    @Override
+    public int countByStatusAndCheckIn(ReservationStatus status, LocalDate checkInDate) {
+        return countByStatusAndDate(COUNT_BY_STATUS_AND_CHECK_IN, status, checkInDate);
+    }
+
+    @Override
+    public int countByStatusAndCheckOut(ReservationStatus status, LocalDate checkOutDate) {
+        return countByStatusAndDate(COUNT_BY_STATUS_AND_CHECK_OUT, status, checkOutDate);
+    }
+
+    private int countByStatusAndDate(String sql, ReservationStatus status, LocalDate date) {
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, status.name());
+            ps.setString(2, date.toString());
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to count reservations", e);
+        }
+    }
+
+    @Override
+    public List<Reservation> findByIds(Collection<Integer> reservationIds) {
+        List<Reservation> list = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>(reservationIds);
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection()) {
+            for (int from = 0; from < ids.size(); from += MAX_IN_PARAMS) {
+                List<Integer> chunk = ids.subList(from, Math.min(ids.size(), from + MAX_IN_PARAMS));
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "SELECT * FROM reservations WHERE reservation_id IN (" + placeholders(chunk.size()) + ")")) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        ps.setInt(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            list.add(mapRow(rs));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to find reservations by id", e);
+        }
+        return list;
+    }
+
+    @Override
+    public List<Reservation> findByStatusAndCheckIn(ReservationStatus status, LocalDate checkInDate) {
+        return findByStatusAndDate(FIND_BY_STATUS_AND_CHECK_IN, status, checkInDate);
+    }
+
+    @Override
+    public List<Reservation> findByStatusAndCheckOut(ReservationStatus status, LocalDate checkOutDate) {
+        return findByStatusAndDate(FIND_BY_STATUS_AND_CHECK_OUT, status, checkOutDate);
+    }
+
+    @Override
+    public List<Integer> findIdsArrivingBefore(ReservationStatus status, LocalDate date, int limit) {
+        return findIdsBefore(FIND_IDS_ARRIVING_BEFORE, status, date, limit);
+    }
+
+    @Override
+    public List<Integer> findIdsDepartingBefore(ReservationStatus status, LocalDate date, int limit) {
+        return findIdsBefore(FIND_IDS_DEPARTING_BEFORE, status, date, limit);
+    }
+
+    @Override
+    public int updateStatus(Collection<Integer> reservationIds, ReservationStatus status) {
+        List<Integer> ids = new ArrayList<>(reservationIds);
+        int updated = 0;
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection()) {
+            for (int from = 0; from < ids.size(); from += MAX_IN_PARAMS) {
+                List<Integer> chunk = ids.subList(from, Math.min(ids.size(), from + MAX_IN_PARAMS));
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "UPDATE reservations SET status=? WHERE reservation_id IN (" + placeholders(chunk.size()) + ")")) {
+                    ps.setString(1, status.name());
+                    for (int i = 0; i < chunk.size(); i++) {
+                        ps.setInt(i + 2, chunk.get(i));
+                    }
+                    updated += ps.executeUpdate();
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to update reservation status", e);
+        }
+        return updated;
+    }
+
+    @Override
+    public List<Reservation> findActiveFrom(LocalDate from) {
+        List<Reservation> list = new ArrayList<>();
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(FIND_ACTIVE_FROM)) {
+            ps.setString(1, from.toString());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to find active reservations", e);
+        }
+        return list;
+    }
+
+    @Override
+    public List<ReservationRow> findAllRows() {
+        List<ReservationRow> list = new ArrayList<>();
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(FIND_ALL_ROWS);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                list.add(mapViewRow(rs));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to find reservation rows", e);
+        }
+        return list;
+    }
+
+    @Override
+    public List<ReservationRow> findRowsByCustomerId(int customerId) {
+        List<ReservationRow> list = new ArrayList<>();
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(FIND_ROWS_BY_CUSTOMER_ID)) {
+            ps.setInt(1, customerId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapViewRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to find reservation rows", e);
+        }
+        return list;
+    }
+
+    private List<Reservation> findByStatusAndDate(String sql, ReservationStatus status, LocalDate date) {
+        List<Reservation> list = new ArrayList<>();
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, status.name());
+            ps.setString(2, date.toString());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to find reservations", e);
+        }
+        return list;
+    }
+
+    private List<Integer> findIdsBefore(String sql, ReservationStatus status, LocalDate date, int limit) {
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, status.name());
+            ps.setString(2, date.toString());
+            ps.setInt(3, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to find reservation ids", e);
+        }
+        return ids;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
     private List<Reservation> findByInt(String sql, int value) {
         List<Reservation> list = new ArrayList<>();
         try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
@@ -152,6 +432,12 @@ public class SQLiteReservationDAO implements ReservationDAO {
         return list;
     }
 
+    private ReservationRow mapViewRow(ResultSet rs) throws SQLException {
+        String roomType = rs.getString("room_type");
+        return new ReservationRow(mapRow(rs), rs.getString("customer_name"), rs.getString("room_number"),
+                roomType != null ? RoomType.valueOf(roomType) : null, rs.getDouble("balance"));
+    }
+
     private Reservation mapRow(ResultSet rs) throws SQLException {
         int numGuests = 1;
         try {
@@ -0,0 +1,51 @@
+package dao.sqlite;
+
+import dao.RevenueDAO;
+import model.PaymentMethod;
+import model.RevenueEntry;
+import model.RoomType;
+import util.SQLiteConnectionManager;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SQLite implementation of RevenueDAO. Aggregation happens in SQL, so only one row per
+ * (day, room type, method) crosses into Java however many payments there are.
+ */
+public class SQLiteRevenueDAO implements RevenueDAO {
+    private static final String AGGREGATE_BY_DAY = "SELECT substr(p.payment_date, 1, 10) AS day, rm.room_type, p.method, " +
+            "SUM(p.amount) AS amount, COUNT(*) AS payments FROM payments p " +
+            "JOIN reservations r ON r.reservation_id = p.reservation_id " +
+            "LEFT JOIN rooms rm ON rm.room_id = r.room_id " +
+            "WHERE p.payment_date >= ? AND p.payment_date < ? " +
+            "GROUP BY day, rm.room_type, p.method ORDER BY day";
+
+    @Override
+    public List<RevenueEntry> aggregateByDay(LocalDate from, LocalDate to) {
+        List<RevenueEntry> list = new ArrayList<>();
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(AGGREGATE_BY_DAY)) {
+            // payment_date is ISO date-time text, so date strings bound the range lexicographically
+            ps.setString(1, from.toString());
+            ps.setString(2, to.toString());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String roomType = rs.getString("room_type");
+                    list.add(new RevenueEntry(
+                            LocalDate.parse(rs.getString("day")),
+                            roomType != null ? RoomType.valueOf(roomType) : null,
+                            PaymentMethod.valueOf(rs.getString("method")),
+                            rs.getDouble("amount"),
+                            rs.getInt("payments")
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to aggregate revenue", e);
+        }
+        return list;
+    }
+}
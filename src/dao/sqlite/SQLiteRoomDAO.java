@@ -2,7 +2,6 @@ package dao.sqlite;
 
 import dao.RoomDAO;
 import model.Room;
-import model.RoomStatus;
 import model.RoomType;
 import util.SQLiteConnectionManager;
 
@@ -13,14 +12,17 @@ import java.util.Optional;
 
 /**
  * SQLite implementation of RoomDAO.
+ * Rooms come back without a status; RoomService derives it for a night from room_nights.
  */
 public class SQLiteRoomDAO implements RoomDAO {
-    private static final String INSERT = "INSERT INTO rooms (room_number, room_type, price_per_night, status) VALUES (?, ?, ?, ?)";
-    private static final String UPDATE = "UPDATE rooms SET room_number=?, room_type=?, price_per_night=?, status=? WHERE room_id=?";
+    private static final String INSERT = "INSERT INTO rooms (room_number, room_type, price_per_night) VALUES (?, ?, ?)";
+    private static final String UPDATE = "UPDATE rooms SET room_number=?, room_type=?, price_per_night=? WHERE room_id=?";
     private static final String DELETE = "DELETE FROM rooms WHERE room_id=?";
     private static final String FIND_BY_ID = "SELECT * FROM rooms WHERE room_id=?";
     private static final String FIND_BY_ROOM_NUMBER = "SELECT * FROM rooms WHERE room_number=?";
     private static final String FIND_ALL = "SELECT * FROM rooms";
+    private static final String FIND_BY_TYPE = "SELECT * FROM rooms WHERE room_type=?";
+    private static final String COUNT = "SELECT COUNT(*) FROM rooms";
 
     @Override
     public Room save(Room room) {
@@ -29,7 +31,6 @@ public class SQLiteRoomDAO implements RoomDAO {
             ps.setString(1, room.getRoomNumber());
             ps.setString(2, room.getRoomType().name());
             ps.setDouble(3, room.getPricePerNight());
-            ps.setString(4, room.getStatus().name());
             ps.executeUpdate();
             try (ResultSet rs = ps.getGeneratedKeys()) {
                 if (rs.next()) {
@@ -49,8 +50,7 @@ public class SQLiteRoomDAO implements RoomDAO {
             ps.setString(1, room.getRoomNumber());
             ps.setString(2, room.getRoomType().name());
             ps.setDouble(3, room.getPricePerNight());
-            ps.setString(4, room.getStatus().name());
-            ps.setInt(5, room.getRoomId());
+            ps.setInt(4, room.getRoomId());
             ps.executeUpdate();
         } catch (SQLException e) {
             throw new RuntimeException("Failed to update room", e);
@@ -110,13 +110,41 @@ public class SQLiteRoomDAO implements RoomDAO {
         return list;
     }
 
+    @Override
+    public List<Room> findByType(RoomType roomType) {
+        List<Room> list = new ArrayList<>();
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(FIND_BY_TYPE)) {
+            ps.setString(1, roomType.name());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to find rooms by type", e);
+        }
+        return list;
+    }
+
+    @Override
+    public int count() {
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(COUNT);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to count rooms", e);
+        }
+    }
+
     private Room mapRow(ResultSet rs) throws SQLException {
         return new Room(
                 rs.getInt("room_id"),
                 rs.getString("room_number"),
                 RoomType.valueOf(rs.getString("room_type")),
                 rs.getDouble("price_per_night"),
-                RoomStatus.valueOf(rs.getString("status"))
+                null
         );
     }
 }
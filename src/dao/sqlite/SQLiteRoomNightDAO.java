@@ -0,0 +1,145 @@
+package dao.sqlite;
+
+import dao.RoomNightDAO;
+import util.SQLiteConnectionManager;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * SQLite implementation of RoomNightDAO.
+ */
+public class SQLiteRoomNightDAO implements RoomNightDAO {
+    private static final String INSERT = "INSERT INTO room_nights (room_id, night, reservation_id) VALUES (?, ?, ?)";
+    private static final String DELETE_BY_RESERVATION = "DELETE FROM room_nights WHERE reservation_id=?";
+    private static final String COUNT_BY_NIGHT = "SELECT night, COUNT(*) AS occupied FROM room_nights " +
+            "WHERE night >= ? AND night < ? GROUP BY night";
+    private static final String FIND_OCCUPIED_ROOMS = "SELECT DISTINCT room_id FROM room_nights WHERE night >= ? AND night < ?";
+    private static final String DELETE_ALL = "DELETE FROM room_nights";
+    /** Expands every active stay into its nights. */
+    private static final String EXPECTED_NIGHTS = "WITH RECURSIVE n(room_id, night, reservation_id, check_out) AS (" +
+            "SELECT room_id, check_in_date, reservation_id, check_out_date FROM reservations " +
+            "WHERE status IN ('BOOKED', 'CHECKED_IN') AND check_in_date < check_out_date " +
+            "UNION ALL SELECT room_id, date(night, '+1 day'), reservation_id, check_out FROM n " +
+            "WHERE date(night, '+1 day') < check_out) ";
+    private static final String REBUILD = EXPECTED_NIGHTS +
+            "INSERT OR IGNORE INTO room_nights (room_id, night, reservation_id) SELECT room_id, night, reservation_id FROM n";
+    private static final String COUNT_MISSING = EXPECTED_NIGHTS +
+            "SELECT COUNT(*) FROM (SELECT room_id, night, reservation_id FROM n " +
+            "EXCEPT SELECT room_id, night, reservation_id FROM room_nights)";
+    private static final String COUNT_EXTRA = EXPECTED_NIGHTS +
+            "SELECT COUNT(*) FROM (SELECT room_id, night, reservation_id FROM room_nights " +
+            "EXCEPT SELECT room_id, night, reservation_id FROM n)";
+
+    @Override
+    public void addStay(int reservationId, int roomId, LocalDate checkIn, LocalDate checkOut) {
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(INSERT)) {
+            for (LocalDate night = checkIn; night.isBefore(checkOut); night = night.plusDays(1)) {
+                ps.setInt(1, roomId);
+                ps.setString(2, night.toString());
+                ps.setInt(3, reservationId);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to save room nights", e);
+        }
+    }
+
+    @Override
+    public void removeStay(int reservationId) {
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(DELETE_BY_RESERVATION)) {
+            ps.setInt(1, reservationId);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to delete room nights", e);
+        }
+    }
+
+    @Override
+    public void removeStays(Collection<Integer> reservationIds) {
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(DELETE_BY_RESERVATION)) {
+            for (int id : reservationIds) {
+                ps.setInt(1, id);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to delete room nights", e);
+        }
+    }
+
+    @Override
+    public Map<LocalDate, Integer> countOccupiedByNight(LocalDate from, LocalDate to) {
+        Map<LocalDate, Integer> counts = new TreeMap<>();
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(COUNT_BY_NIGHT)) {
+            ps.setString(1, from.toString());
+            ps.setString(2, to.toString());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    counts.put(LocalDate.parse(rs.getString("night")), rs.getInt("occupied"));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to count room nights", e);
+        }
+        return counts;
+    }
+
+    @Override
+    public List<Integer> findOccupiedRoomIds(LocalDate from, LocalDate to) {
+        List<Integer> list = new ArrayList<>();
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(FIND_OCCUPIED_ROOMS)) {
+            ps.setString(1, from.toString());
+            ps.setString(2, to.toString());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(rs.getInt(1));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to find occupied rooms", e);
+        }
+        return list;
+    }
+
+    @Override
+    public int rebuild() {
+        return SQLiteConnectionManager.getInstance().inTransaction(() -> {
+            try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+                 Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate(DELETE_ALL);
+                return stmt.executeUpdate(REBUILD);
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to rebuild room nights", e);
+            }
+        });
+    }
+
+    @Override
+    public int[] verify() {
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             Statement stmt = conn.createStatement()) {
+            int missing, extra;
+            try (ResultSet rs = stmt.executeQuery(COUNT_MISSING)) {
+                missing = rs.next() ? rs.getInt(1) : 0;
+            }
+            try (ResultSet rs = stmt.executeQuery(COUNT_EXTRA)) {
+                extra = rs.next() ? rs.getInt(1) : 0;
+            }
+            return new int[]{missing, extra};
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to verify room nights", e);
+        }
+    }
+}
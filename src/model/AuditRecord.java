@@ -0,0 +1,96 @@
+package model;
+
+import java.time.LocalDateTime;
+
+/** One audited change: who did what to which entity, with its state before and after. */
+public class AuditRecord {
+    private long auditId;
+    private LocalDateTime occurredAt;
+    private String actor;
+    private String entity;
+    private int entityId;
+    private String action;
+    private String beforeValue;
+    private String afterValue;
+
+    public AuditRecord() {
+    }
+
+    public AuditRecord(long auditId, LocalDateTime occurredAt, String actor, String entity, int entityId,
+                       String action, String beforeValue, String afterValue) {
+        this.auditId = auditId;
+        this.occurredAt = occurredAt;
+        this.actor = actor;
+        this.entity = entity;
+        this.entityId = entityId;
+        this.action = action;
+        this.beforeValue = beforeValue;
+        this.afterValue = afterValue;
+    }
+
+    public long getAuditId() {
+        return auditId;
+    }
+
+    public void setAuditId(long auditId) {
+        this.auditId = auditId;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    public String getActor() {
+        return actor;
+    }
+
+    public void setActor(String actor) {
+        this.actor = actor;
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public void setEntity(String entity) {
+        this.entity = entity;
+    }
+
+    public int getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(int entityId) {
+        this.entityId = entityId;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    /** Null when the entity did not exist before the change. */
+    public String getBeforeValue() {
+        return beforeValue;
+    }
+
+    public void setBeforeValue(String beforeValue) {
+        this.beforeValue = beforeValue;
+    }
+
+    /** Null when the entity was deleted. */
+    public String getAfterValue() {
+        return afterValue;
+    }
+
+    public void setAfterValue(String afterValue) {
+        this.afterValue = afterValue;
+    }
+}
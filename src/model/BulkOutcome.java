@@ -0,0 +1,14 @@
+package model;
+
+public enum BulkOutcome {
+    UPDATED,
+    UNCHANGED,
+    INVALID_STATUS,
+    NOT_FOUND;
+
+    @Override
+    public String toString() {
+        String s = name().replace("_", " ");
+        return s.charAt(0) + s.substring(1).toLowerCase();
+    }
+}
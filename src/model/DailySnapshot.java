@@ -0,0 +1,77 @@
+package model;
+
+import java.time.LocalDate;
+
+public class DailySnapshot {
+    private LocalDate businessDate;
+    private double revenue;
+    private int occupiedRooms;
+    private int totalRooms;
+    private int noShows;
+    private int autoCheckOuts;
+
+    public DailySnapshot() {
+    }
+
+    public DailySnapshot(LocalDate businessDate, double revenue, int occupiedRooms, int totalRooms,
+                         int noShows, int autoCheckOuts) {
+        this.businessDate = businessDate;
+        this.revenue = revenue;
+        this.occupiedRooms = occupiedRooms;
+        this.totalRooms = totalRooms;
+        this.noShows = noShows;
+        this.autoCheckOuts = autoCheckOuts;
+    }
+
+    public LocalDate getBusinessDate() {
+        return businessDate;
+    }
+
+    public void setBusinessDate(LocalDate businessDate) {
+        this.businessDate = businessDate;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(double revenue) {
+        this.revenue = revenue;
+    }
+
+    public int getOccupiedRooms() {
+        return occupiedRooms;
+    }
+
+    public void setOccupiedRooms(int occupiedRooms) {
+        this.occupiedRooms = occupiedRooms;
+    }
+
+    public int getTotalRooms() {
+        return totalRooms;
+    }
+
+    public void setTotalRooms(int totalRooms) {
+        this.totalRooms = totalRooms;
+    }
+
+    public int getNoShows() {
+        return noShows;
+    }
+
+    public void setNoShows(int noShows) {
+        this.noShows = noShows;
+    }
+
+    public int getAutoCheckOuts() {
+        return autoCheckOuts;
+    }
+
+    public void setAutoCheckOuts(int autoCheckOuts) {
+        this.autoCheckOuts = autoCheckOuts;
+    }
+
+    public double getOccupancy() {
+        return totalRooms == 0 ? 0 : (double) occupiedRooms / totalRooms;
+    }
+}
@@ -0,0 +1,67 @@
+package model;
+
+import java.time.LocalDate;
+
+/** Point-in-time front desk figures for one business date. */
+public class DashboardMetrics {
+    private final LocalDate date;
+    private final int rooms;
+    private final int customers;
+    private final int reservations;
+    private final int inHouse;
+    private final int arrivalsToday;
+    private final int departuresToday;
+    private final int occupiedTonight;
+
+    public DashboardMetrics(LocalDate date, int rooms, int customers, int reservations, int inHouse,
+                            int arrivalsToday, int departuresToday, int occupiedTonight) {
+        this.date = date;
+        this.rooms = rooms;
+        this.customers = customers;
+        this.reservations = reservations;
+        this.inHouse = inHouse;
+        this.arrivalsToday = arrivalsToday;
+        this.departuresToday = departuresToday;
+        this.occupiedTonight = occupiedTonight;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public int getRooms() {
+        return rooms;
+    }
+
+    public int getCustomers() {
+        return customers;
+    }
+
+    public int getReservations() {
+        return reservations;
+    }
+
+    /** Reservations currently checked in. */
+    public int getInHouse() {
+        return inHouse;
+    }
+
+    /** BOOKED reservations due to arrive today. */
+    public int getArrivalsToday() {
+        return arrivalsToday;
+    }
+
+    /** CHECKED_IN reservations due to leave today. */
+    public int getDeparturesToday() {
+        return departuresToday;
+    }
+
+    /** Rooms held by a BOOKED or CHECKED_IN stay for tonight. */
+    public int getOccupiedTonight() {
+        return occupiedTonight;
+    }
+
+    public double getOccupancyPercent() {
+        return rooms == 0 ? 0 : 100.0 * occupiedTonight / rooms;
+    }
+}
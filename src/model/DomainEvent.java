@@ -0,0 +1,35 @@
+package model;
+
+import java.time.LocalDate;
+
+/**
+ * Something that changed in the service layer. Published after the change commits; see {@code service.EventBus}.
+ */
+public sealed interface DomainEvent {
+
+    record ReservationCreated(int reservationId, int customerId, int roomId,
+                              LocalDate checkIn, LocalDate checkOut) implements DomainEvent { }
+
+    /** Customer, room, dates or guest count changed; status did not. */
+    record ReservationUpdated(int reservationId, int customerId, int roomId,
+                              LocalDate checkIn, LocalDate checkOut) implements DomainEvent { }
+
+    record ReservationStatusChanged(int reservationId, ReservationStatus from, ReservationStatus to) implements DomainEvent { }
+
+    record RoomAdded(int roomId) implements DomainEvent { }
+
+    record RoomUpdated(int roomId, RoomType oldType, RoomType newType) implements DomainEvent {
+        public boolean typeChanged() {
+            return oldType != newType;
+        }
+    }
+
+    record RoomDeleted(int roomId) implements DomainEvent { }
+
+    record PaymentRecorded(int paymentId, int reservationId, double amount, PaymentMethod method) implements DomainEvent { }
+
+    record PaymentUpdated(int paymentId, int reservationId, double oldAmount, double newAmount,
+                          PaymentMethod method) implements DomainEvent { }
+
+    record PaymentDeleted(int paymentId, int reservationId, double amount) implements DomainEvent { }
+}
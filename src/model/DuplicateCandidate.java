@@ -0,0 +1,35 @@
+package model;
+
+import java.util.List;
+
+/** Two customer records that probably belong to the same guest, with a 0..1 similarity score and what matched. */
+public class DuplicateCandidate {
+    private final int firstCustomerId;
+    private final int secondCustomerId;
+    private final double score;
+    private final List<String> reasons;
+
+    public DuplicateCandidate(int firstCustomerId, int secondCustomerId, double score, List<String> reasons) {
+        this.firstCustomerId = firstCustomerId;
+        this.secondCustomerId = secondCustomerId;
+        this.score = score;
+        this.reasons = List.copyOf(reasons);
+    }
+
+    /** The older record (lower id); the natural one to keep. */
+    public int getFirstCustomerId() {
+        return firstCustomerId;
+    }
+
+    public int getSecondCustomerId() {
+        return secondCustomerId;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public List<String> getReasons() {
+        return reasons;
+    }
+}
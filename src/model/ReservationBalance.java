@@ -0,0 +1,51 @@
+package model;
+
+public class ReservationBalance {
+    private int reservationId;
+    private double totalCharged;
+    private double totalPaid;
+    private double balance;
+
+    public ReservationBalance() {
+    }
+
+    public ReservationBalance(int reservationId, double totalCharged, double totalPaid, double balance) {
+        this.reservationId = reservationId;
+        this.totalCharged = totalCharged;
+        this.totalPaid = totalPaid;
+        this.balance = balance;
+    }
+
+    public int getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(int reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    public double getTotalCharged() {
+        return totalCharged;
+    }
+
+    public void setTotalCharged(double totalCharged) {
+        this.totalCharged = totalCharged;
+    }
+
+    public double getTotalPaid() {
+        return totalPaid;
+    }
+
+    public void setTotalPaid(double totalPaid) {
+        this.totalPaid = totalPaid;
+    }
+
+    /** Charged minus paid; negative when the guest is owed a refund. */
+    public double getBalance() {
+        return balance;
+    }
+
+    public void setBalance(double balance) {
+        this.balance = balance;
+    }
+}
@@ -0,0 +1,74 @@
+package model;
+
+import java.time.LocalDate;
+
+/**
+ * A reservation with the customer, room and balance fields a list screen shows next to it,
+ * read in one joined query instead of a lookup per cell.
+ */
+public class ReservationRow {
+    private final Reservation reservation;
+    private final String customerName;
+    private final String roomNumber;
+    private final RoomType roomType;
+    private final double balance;
+
+    public ReservationRow(Reservation reservation, String customerName, String roomNumber, RoomType roomType, double balance) {
+        this.reservation = reservation;
+        this.customerName = customerName;
+        this.roomNumber = roomNumber;
+        this.roomType = roomType;
+        this.balance = balance;
+    }
+
+    public Reservation getReservation() {
+        return reservation;
+    }
+
+    public int getReservationId() {
+        return reservation.getReservationId();
+    }
+
+    public int getCustomerId() {
+        return reservation.getCustomerId();
+    }
+
+    public int getRoomId() {
+        return reservation.getRoomId();
+    }
+
+    public LocalDate getCheckInDate() {
+        return reservation.getCheckInDate();
+    }
+
+    public LocalDate getCheckOutDate() {
+        return reservation.getCheckOutDate();
+    }
+
+    public int getNumberOfGuests() {
+        return reservation.getNumberOfGuests();
+    }
+
+    public ReservationStatus getStatus() {
+        return reservation.getStatus();
+    }
+
+    /** Null if the customer row is gone. */
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    /** Null if the room row is gone. */
+    public String getRoomNumber() {
+        return roomNumber;
+    }
+
+    public RoomType getRoomType() {
+        return roomType;
+    }
+
+    /** Charged minus paid from reservation_balances; 0 when the reservation has no balance row. */
+    public double getBalance() {
+        return balance;
+    }
+}
@@ -4,7 +4,8 @@ public enum ReservationStatus {
     BOOKED,
     CHECKED_IN,
     COMPLETED,
-    CANCELLED;
+    CANCELLED,
+    NO_SHOW;
 
     @Override
     public String toString() {
@@ -0,0 +1,41 @@
+package model;
+
+import java.time.LocalDate;
+
+/** Revenue collected on one day for one room type and payment method. */
+public class RevenueEntry {
+    private final LocalDate day;
+    private final RoomType roomType;
+    private final PaymentMethod method;
+    private final double amount;
+    private final int paymentCount;
+
+    public RevenueEntry(LocalDate day, RoomType roomType, PaymentMethod method, double amount, int paymentCount) {
+        this.day = day;
+        this.roomType = roomType;
+        this.method = method;
+        this.amount = amount;
+        this.paymentCount = paymentCount;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    /** Null when the reservation's room no longer exists. */
+    public RoomType getRoomType() {
+        return roomType;
+    }
+
+    public PaymentMethod getMethod() {
+        return method;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public int getPaymentCount() {
+        return paymentCount;
+    }
+}
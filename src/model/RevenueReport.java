@@ -0,0 +1,65 @@
+package model;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** Revenue over [from, to), with totals by day, room type and payment method. */
+public class RevenueReport {
+    private final LocalDate from;
+    private final LocalDate to;
+    private final List<RevenueEntry> entries;
+    private final Map<LocalDate, Double> byDay = new TreeMap<>();
+    private final Map<RoomType, Double> byRoomType = new EnumMap<>(RoomType.class);
+    private final Map<PaymentMethod, Double> byMethod = new EnumMap<>(PaymentMethod.class);
+    private double total;
+    private int paymentCount;
+
+    public RevenueReport(LocalDate from, LocalDate to, List<RevenueEntry> entries) {
+        this.from = from;
+        this.to = to;
+        this.entries = List.copyOf(entries);
+        for (RevenueEntry e : entries) {
+            byDay.merge(e.getDay(), e.getAmount(), Double::sum);
+            if (e.getRoomType() != null) byRoomType.merge(e.getRoomType(), e.getAmount(), Double::sum);
+            byMethod.merge(e.getMethod(), e.getAmount(), Double::sum);
+            total += e.getAmount();
+            paymentCount += e.getPaymentCount();
+        }
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public List<RevenueEntry> getEntries() {
+        return entries;
+    }
+
+    public Map<LocalDate, Double> getByDay() {
+        return Collections.unmodifiableMap(byDay);
+    }
+
+    public Map<RoomType, Double> getByRoomType() {
+        return Collections.unmodifiableMap(byRoomType);
+    }
+
+    public Map<PaymentMethod, Double> getByMethod() {
+        return Collections.unmodifiableMap(byMethod);
+    }
+
+    public double getTotal() {
+        return total;
+    }
+
+    public int getPaymentCount() {
+        return paymentCount;
+    }
+}
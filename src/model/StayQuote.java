@@ -0,0 +1,83 @@
+package model;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Map;
+
+public class StayQuote {
+    private final int roomId;
+    private final String roomNumber;
+    private final RoomType roomType;
+    private final LocalDate checkInDate;
+    private final LocalDate checkOutDate;
+    private final int numberOfGuests;
+    private final Map<LocalDate, Double> nightlyRates;
+    private final double subtotal;
+    private final double taxes;
+    private final double total;
+    private final double deposit;
+
+    public StayQuote(int roomId, String roomNumber, RoomType roomType, LocalDate checkInDate, LocalDate checkOutDate,
+                     int numberOfGuests, Map<LocalDate, Double> nightlyRates,
+                     double subtotal, double taxes, double total, double deposit) {
+        this.roomId = roomId;
+        this.roomNumber = roomNumber;
+        this.roomType = roomType;
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+        this.numberOfGuests = numberOfGuests;
+        this.nightlyRates = Collections.unmodifiableMap(nightlyRates);
+        this.subtotal = subtotal;
+        this.taxes = taxes;
+        this.total = total;
+        this.deposit = deposit;
+    }
+
+    public int getRoomId() {
+        return roomId;
+    }
+
+    public String getRoomNumber() {
+        return roomNumber;
+    }
+
+    public RoomType getRoomType() {
+        return roomType;
+    }
+
+    public LocalDate getCheckInDate() {
+        return checkInDate;
+    }
+
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    public int getNumberOfGuests() {
+        return numberOfGuests;
+    }
+
+    public Map<LocalDate, Double> getNightlyRates() {
+        return nightlyRates;
+    }
+
+    public int getNights() {
+        return nightlyRates.size();
+    }
+
+    public double getSubtotal() {
+        return subtotal;
+    }
+
+    public double getTaxes() {
+        return taxes;
+    }
+
+    public double getTotal() {
+        return total;
+    }
+
+    public double getDeposit() {
+        return deposit;
+    }
+}
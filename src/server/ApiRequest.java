@@ -0,0 +1,136 @@
+package server;
+
+import service.Session;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/** A parsed API call: method, path segments, query and form parameters, and the caller's session if any. */
+final class ApiRequest {
+    private final String method;
+    private final String[] path;
+    /** Query and form parameters; the form's win. */
+    private final Map<String, String> params;
+    private final Map<String, String> query;
+    private final Map<String, String> headers;
+    private final Session session;
+
+    ApiRequest(String method, String[] path, Map<String, String> query, Map<String, String> form,
+               Map<String, String> headers, Session session) {
+        this.method = method;
+        this.path = path;
+        this.query = query;
+        this.params = new HashMap<>(query);
+        params.putAll(form);
+        this.headers = headers;
+        this.session = session;
+    }
+
+    String method() {
+        return method;
+    }
+
+    int segments() {
+        return path.length;
+    }
+
+    String segment(int index) {
+        return index < path.length ? path[index] : null;
+    }
+
+    /** Numeric id in the path, 404 if it is not a number. */
+    int id(int index) {
+        try {
+            return Integer.parseInt(segment(index));
+        } catch (NumberFormatException e) {
+            throw new ApiException(404, "Not found");
+        }
+    }
+
+    String header(String name) {
+        return headers.get(name.toLowerCase());
+    }
+
+    boolean has(String name) {
+        String value = params.get(name);
+        return value != null && !value.isBlank();
+    }
+
+    String string(String name) {
+        if (!has(name)) throw new ApiException(400, "Missing parameter: " + name);
+        return params.get(name).trim();
+    }
+
+    /**
+     * A username or password, taken untrimmed from the form body only. Sent in the query string it would end up
+     * in proxy and access logs, so that is refused rather than ignored.
+     */
+    String credential(String name) {
+        if (query.containsKey(name)) throw new ApiException(400, "Send " + name + " in the request body, not the URL");
+        String value = params.get(name);
+        if (value == null || value.isEmpty()) throw new ApiException(400, "Missing parameter: " + name);
+        return value;
+    }
+
+    String string(String name, String fallback) {
+        return has(name) ? params.get(name).trim() : fallback;
+    }
+
+    int integer(String name) {
+        try {
+            return Integer.parseInt(string(name));
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "Not a number: " + name);
+        }
+    }
+
+    int integer(String name, int fallback) {
+        return has(name) ? integer(name) : fallback;
+    }
+
+    double decimal(String name) {
+        try {
+            return Double.parseDouble(string(name));
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "Not a number: " + name);
+        }
+    }
+
+    LocalDate date(String name) {
+        try {
+            return LocalDate.parse(string(name));
+        } catch (DateTimeParseException e) {
+            throw new ApiException(400, "Not a date (yyyy-mm-dd): " + name);
+        }
+    }
+
+    LocalDate date(String name, LocalDate fallback) {
+        return has(name) ? date(name) : fallback;
+    }
+
+    <E extends Enum<E>> E enumValue(String name, Class<E> type) {
+        try {
+            return Enum.valueOf(type, string(name).toUpperCase().replace(' ', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, "Unknown " + name + ": " + params.get(name));
+        }
+    }
+
+    Session session() {
+        if (session == null) throw new ApiException(401, "Sign in required");
+        return session;
+    }
+
+    Session admin() {
+        if (!session().isAdmin()) throw new ApiException(403, "Staff only");
+        return session;
+    }
+
+    /** Staff may act for anyone; a guest only for themselves. */
+    void requireSelfOrAdmin(int customerId) {
+        Session s = session();
+        if (s.isGuest() && s.getPrincipalId() != customerId) throw new ApiException(403, "Not your booking");
+    }
+}
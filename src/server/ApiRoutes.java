@@ -0,0 +1,497 @@
+package server;
+
+import model.AuditRecord;
+import model.Customer;
+import model.Payment;
+import model.Reservation;
+import model.ReservationBalance;
+import model.RevenueReport;
+import model.Room;
+import model.RoomType;
+import model.PaymentMethod;
+import service.AuditService;
+import service.AuthService;
+import service.CustomerSearchService;
+import service.CustomerService;
+import service.EventBus;
+import service.GuestAuthService;
+import service.InventoryService;
+import service.PaymentService;
+import service.PricingService;
+import service.QuoteService;
+import service.ReservationService;
+import service.RevenueReportService;
+import service.RoomService;
+import service.Session;
+import service.SessionRegistry;
+import util.LruCache;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * The API's endpoints. Reads are open to any session (rooms and availability to anyone, for the kiosk);
+ * changes to rooms, customers and payments are staff only, and guests see and book only for themselves.
+ */
+final class ApiRoutes {
+    record Response(int status, Object body) {}
+
+    private static final Response NO_CONTENT = new Response(204, null);
+
+    private final ApiServer server;
+
+    ApiRoutes(ApiServer server) {
+        this.server = server;
+    }
+
+    Response dispatch(ApiRequest req) {
+        String resource = req.segment(0);
+        if (resource == null) throw new ApiException(404, "Not found");
+        return switch (resource) {
+            case "health" -> ok(Map.of("status", "up"));
+            case "metrics" -> {
+                req.admin();
+                Map<String, Object> snapshot = new LinkedHashMap<>(server.metricsSnapshot());
+                Map<String, Object> caches = new LinkedHashMap<>();
+                caches.put("rooms", cache(RoomService.getInstance().getCacheStats()));
+                caches.put("occupancy", cache(RoomService.getInstance().getOccupancyCacheStats()));
+                caches.put("customers", cache(CustomerService.getInstance().getCacheStats()));
+                caches.put("users", cache(AuthService.getInstance().getCacheStats()));
+                caches.put("rates", cache(PricingService.getInstance().getCacheStats()));
+                caches.put("ledgers", cache(PaymentService.getInstance().getCacheStats()));
+                caches.put("quotes", cache(QuoteService.getInstance().getCacheStats()));
+                snapshot.put("caches", caches);
+                snapshot.put("events", events(EventBus.getInstance().getStats()));
+                yield ok(snapshot);
+            }
+            case "sessions" -> sessions(req);
+            case "rooms" -> rooms(req);
+            case "availability" -> availability(req);
+            case "customers" -> customers(req);
+            case "reservations" -> reservations(req);
+            case "payments" -> payments(req);
+            case "reports" -> reports(req);
+            case "audit" -> audit(req);
+            default -> throw new ApiException(404, "Not found");
+        };
+    }
+
+    private Response sessions(ApiRequest req) {
+        switch (req.method()) {
+            case "POST" -> {
+                String username = req.credential("username");
+                String password = req.credential("password");
+                CompletableFuture<Session> login = "guest".equalsIgnoreCase(req.string("type", "admin"))
+                        ? GuestAuthService.getInstance().openSessionAsync(username, password)
+                        : AuthService.getInstance().openSessionAsync(username, password);
+                Session s;
+                try {
+                    s = login.join();
+                } catch (CompletionException e) {
+                    if (e.getCause() instanceof RejectedExecutionException) throw new ApiException(503, "Sign-in is busy, try again");
+                    throw e;
+                }
+                if (s == null) throw new ApiException(401, "Invalid username or password");
+                Map<String, Object> body = new LinkedHashMap<>();
+                body.put("token", s.getToken());
+                body.put("type", s.getType());
+                body.put("id", s.getPrincipalId());
+                body.put("name", s.getDisplayName());
+                return new Response(201, body);
+            }
+            case "DELETE" -> {
+                SessionRegistry.getInstance().close(req.session().getToken());
+                return NO_CONTENT;
+            }
+            default -> throw methodNotAllowed();
+        }
+    }
+
+    private Response rooms(ApiRequest req) {
+        RoomService rooms = RoomService.getInstance();
+        if (req.segments() == 1) {
+            switch (req.method()) {
+                case "GET" -> {
+                    return ok(map(rooms.findAll(req.date("date", LocalDate.now())), ApiRoutes::room));
+                }
+                case "POST" -> {
+                    req.admin();
+                    int id = rooms.addRoom(req.string("roomNumber"), req.enumValue("roomType", RoomType.class), req.decimal("pricePerNight"));
+                    if (id == -1) throw new ApiException(409, "Room number already exists or price is invalid");
+                    return created(rooms.findById(id).map(ApiRoutes::room).orElse(null));
+                }
+                default -> throw methodNotAllowed();
+            }
+        }
+        int roomId = req.id(1);
+        Room existing = rooms.findById(roomId).orElseThrow(ApiRoutes::notFound);
+        switch (req.method()) {
+            case "GET" -> {
+                return ok(room(existing));
+            }
+            case "PUT" -> {
+                req.admin();
+                boolean updated = rooms.updateRoom(roomId, req.string("roomNumber", existing.getRoomNumber()),
+                        req.has("roomType") ? req.enumValue("roomType", RoomType.class) : existing.getRoomType(),
+                        req.has("pricePerNight") ? req.decimal("pricePerNight") : existing.getPricePerNight());
+                if (!updated) throw new ApiException(409, "Room could not be updated");
+                return ok(rooms.findById(roomId).map(ApiRoutes::room).orElse(null));
+            }
+            case "DELETE" -> {
+                req.admin();
+                if (!rooms.deleteRoom(roomId)) throw new ApiException(409, "Room has active reservations");
+                return NO_CONTENT;
+            }
+            default -> throw methodNotAllowed();
+        }
+    }
+
+    /** Free rooms for the stay, plus per type the rooms left (with overbooking) and the quoted total. */
+    private Response availability(ApiRequest req) {
+        if (!req.method().equals("GET")) throw methodNotAllowed();
+        LocalDate checkIn = req.date("checkIn");
+        LocalDate checkOut = req.date("checkOut");
+        if (!checkOut.isAfter(checkIn)) throw new ApiException(400, "Check-out must be after check-in");
+        int guests = req.integer("guests", 1);
+        List<Map<String, Object>> types = new ArrayList<>();
+        for (RoomType type : RoomType.values()) {
+            int left = Integer.MAX_VALUE;
+            for (int n : InventoryService.getInstance().getRemaining(type, checkIn, checkOut)) left = Math.min(left, n);
+            Map<String, Object> t = new LinkedHashMap<>();
+            t.put("roomType", type);
+            t.put("remaining", Math.max(0, left));
+            t.put("total", QuoteService.getInstance().quoteRoomType(type, checkIn, checkOut, guests).map(q -> q.getTotal()).orElse(null));
+            types.add(t);
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("rooms", map(ReservationService.getInstance().getAvailableRooms(checkIn, checkOut), ApiRoutes::room));
+        body.put("types", types);
+        return ok(body);
+    }
+
+    /** GET /reports/revenue?from=&to= - revenue of payments dated in [from, to). */
+    private Response reports(ApiRequest req) {
+        req.admin();
+        if (!"revenue".equals(req.segment(1))) throw notFound();
+        if (!req.method().equals("GET")) throw methodNotAllowed();
+        LocalDate from = req.date("from");
+        LocalDate to = req.date("to");
+        if (!to.isAfter(from)) throw new ApiException(400, "to must be after from");
+        RevenueReport report = RevenueReportService.getInstance().getReport(from, to);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("from", from);
+        body.put("to", to);
+        body.put("total", report.getTotal());
+        body.put("payments", report.getPaymentCount());
+        body.put("byDay", report.getByDay());
+        body.put("byRoomType", report.getByRoomType());
+        body.put("byMethod", report.getByMethod());
+        return ok(body);
+    }
+
+    /** GET /audit?entity=&id= for one entity's history, or GET /audit?limit= for the latest changes. */
+    private Response audit(ApiRequest req) {
+        req.admin();
+        if (req.segments() != 1) throw notFound();
+        if (!req.method().equals("GET")) throw methodNotAllowed();
+        AuditService audit = AuditService.getInstance();
+        List<AuditRecord> trail = req.has("entity")
+                ? audit.findByEntity(req.string("entity"), req.integer("id"))
+                : audit.findRecent(req.integer("limit", 100));
+        return ok(map(trail, ApiRoutes::auditRecord));
+    }
+
+    private Response customers(ApiRequest req) {
+        CustomerService customers = CustomerService.getInstance();
+        if (req.segments() == 1) {
+            req.admin();
+            switch (req.method()) {
+                case "GET" -> {
+                    List<Customer> list = req.has("q")
+                            ? CustomerSearchService.getInstance().search(req.string("q"), req.integer("limit", CustomerSearchService.DEFAULT_LIMIT))
+                            : customers.findAll();
+                    return ok(map(list, ApiRoutes::customer));
+                }
+                case "POST" -> {
+                    int id = customers.addCustomer(req.string("fullName"), req.string("phone", ""),
+                            req.string("email", ""), req.string("idNumber", ""));
+                    if (id == -1) throw new ApiException(400, "Customer could not be added");
+                    return created(customers.findById(id).map(ApiRoutes::customer).orElse(null));
+                }
+                default -> throw methodNotAllowed();
+            }
+        }
+        int customerId = req.id(1);
+        req.requireSelfOrAdmin(customerId);
+        Customer existing = customers.findById(customerId).orElseThrow(ApiRoutes::notFound);
+        switch (req.method()) {
+            case "GET" -> {
+                return ok(customer(existing));
+            }
+            case "PUT" -> {
+                boolean updated = customers.updateCustomer(customerId, req.string("fullName", existing.getFullName()),
+                        req.string("phone", existing.getPhone()), req.string("email", existing.getEmail()),
+                        req.string("idNumber", existing.getIdNumber()));
+                if (!updated) throw new ApiException(400, "Customer could not be updated");
+                return ok(customers.findById(customerId).map(ApiRoutes::customer).orElse(null));
+            }
+            case "DELETE" -> {
+                req.admin();
+                if (!customers.deleteCustomer(customerId)) throw new ApiException(409, "Customer has reservations");
+                return NO_CONTENT;
+            }
+            default -> throw methodNotAllowed();
+        }
+    }
+
+    private Response reservations(ApiRequest req) {
+        ReservationService reservations = ReservationService.getInstance();
+        if (req.segments() == 1) {
+            switch (req.method()) {
+                case "GET" -> {
+                    Session s = req.session();
+                    List<Reservation> list = s.isGuest() ? reservations.findByCustomerId(s.getPrincipalId())
+                            : req.has("customerId") ? reservations.findByCustomerId(req.integer("customerId"))
+                            : reservations.findAll();
+                    return ok(map(list, ApiRoutes::reservation));
+                }
+                case "POST" -> {
+                    return createReservation(req);
+                }
+                default -> throw methodNotAllowed();
+            }
+        }
+        int reservationId = req.id(1);
+        Reservation existing = reservations.findById(reservationId).orElseThrow(ApiRoutes::notFound);
+        req.requireSelfOrAdmin(existing.getCustomerId());
+        String action = req.segment(2);
+        if (action == null) {
+            switch (req.method()) {
+                case "GET" -> {
+                    return ok(reservation(existing));
+                }
+                case "PUT" -> {
+                    req.admin();
+                    boolean updated = reservations.updateReservation(reservationId,
+                            req.integer("customerId", existing.getCustomerId()), req.integer("roomId", existing.getRoomId()),
+                            req.date("checkIn", existing.getCheckInDate()), req.date("checkOut", existing.getCheckOutDate()),
+                            req.integer("guests", existing.getNumberOfGuests()));
+                    if (!updated) throw new ApiException(409, "Reservation could not be changed");
+                    return ok(reservations.findById(reservationId).map(ApiRoutes::reservation).orElse(null));
+                }
+                default -> throw methodNotAllowed();
+            }
+        }
+        if (action.equals("balance") && req.method().equals("GET")) {
+            return ok(PaymentService.getInstance().getBalance(reservationId).map(ApiRoutes::balance).orElse(null));
+        }
+        if (!req.method().equals("POST")) throw methodNotAllowed();
+        boolean done = switch (action) {
+            case "cancel" -> reservations.cancelReservation(reservationId);
+            case "check-in" -> {
+                req.admin();
+                yield reservations.checkIn(reservationId);
+            }
+            case "check-out" -> {
+                req.admin();
+                yield reservations.checkOut(reservationId);
+            }
+            default -> throw new ApiException(404, "Not found");
+        };
+        if (!done) throw new ApiException(409, "Not allowed in status " + existing.getStatus());
+        return ok(reservations.findById(reservationId).map(ApiRoutes::reservation).orElse(null));
+    }
+
+    /** Books a specific room, or the best-fitting room of a type. Honours an Idempotency-Key header. */
+    private Response createReservation(ApiRequest req) {
+        Session s = req.session();
+        ReservationService reservations = ReservationService.getInstance();
+        int customerId = s.isGuest() ? s.getPrincipalId() : req.integer("customerId");
+        LocalDate checkIn = req.date("checkIn");
+        LocalDate checkOut = req.date("checkOut");
+        int guests = req.integer("guests", 1);
+        String key = req.header("Idempotency-Key");
+        int id;
+        if (req.has("roomId")) {
+            int roomId = req.integer("roomId");
+            id = reservations.createReservation(key, customerId, roomId, checkIn, checkOut, guests);
+            if (id == -1) {
+                String reason = reservations.validateReservation(null, customerId, roomId, checkIn, checkOut);
+                throw new ApiException(409, reason != null ? reason : "Room could not be booked");
+            }
+        } else {
+            id = reservations.createReservationForType(key, customerId, req.enumValue("roomType", RoomType.class),
+                    checkIn, checkOut, guests);
+            if (id == -1) throw new ApiException(409, "No room of that type is free for these dates");
+        }
+        // A replayed key answers with the stored id; never hand back a booking the caller does not own
+        Reservation created = reservations.findById(id).orElseThrow(ApiRoutes::notFound);
+        req.requireSelfOrAdmin(created.getCustomerId());
+        Map<String, Object> body = reservation(created);
+        PaymentService.getInstance().getBalance(id).ifPresent(b -> body.put("balance", balance(b)));
+        return created(body);
+    }
+
+    private Response payments(ApiRequest req) {
+        PaymentService payments = PaymentService.getInstance();
+        Session s = req.session();
+        if (req.segments() == 1) {
+            switch (req.method()) {
+                case "GET" -> {
+                    if (req.has("reservationId")) {
+                        int reservationId = req.integer("reservationId");
+                        Reservation r = ReservationService.getInstance().findById(reservationId).orElseThrow(ApiRoutes::notFound);
+                        req.requireSelfOrAdmin(r.getCustomerId());
+                        return ok(map(payments.findByReservationId(reservationId), ApiRoutes::payment));
+                    }
+                    int customerId = s.isGuest() ? s.getPrincipalId() : req.integer("customerId", -1);
+                    return ok(map(customerId == -1 ? payments.findAll() : payments.findByCustomerId(customerId), ApiRoutes::payment));
+                }
+                case "POST" -> {
+                    req.admin();
+                    int id = payments.recordPayment(req.header("Idempotency-Key"), req.integer("reservationId"),
+                            req.decimal("amount"), req.enumValue("method", PaymentMethod.class));
+                    if (id == -1) throw new ApiException(409, "Payment could not be recorded");
+                    return created(payments.findById(id).map(ApiRoutes::payment).orElse(null));
+                }
+                default -> throw methodNotAllowed();
+            }
+        }
+        req.admin();
+        int paymentId = req.id(1);
+        Payment existing = payments.findById(paymentId).orElseThrow(ApiRoutes::notFound);
+        switch (req.method()) {
+            case "GET" -> {
+                return ok(payment(existing));
+            }
+            case "PUT" -> {
+                boolean updated = payments.updatePayment(paymentId,
+                        req.has("amount") ? req.decimal("amount") : existing.getAmount(),
+                        req.has("method") ? req.enumValue("method", PaymentMethod.class) : existing.getMethod());
+                if (!updated) throw new ApiException(409, "Payment could not be updated");
+                return ok(payments.findById(paymentId).map(ApiRoutes::payment).orElse(null));
+            }
+            case "DELETE" -> {
+                if (!payments.deletePayment(paymentId)) throw new ApiException(409, "Payment could not be deleted");
+                return NO_CONTENT;
+            }
+            default -> throw methodNotAllowed();
+        }
+    }
+
+    private static Map<String, Object> room(Room r) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("roomId", r.getRoomId());
+        m.put("roomNumber", r.getRoomNumber());
+        m.put("roomType", r.getRoomType());
+        m.put("pricePerNight", r.getPricePerNight());
+        m.put("status", r.getStatus());
+        return m;
+    }
+
+    private static Map<String, Object> customer(Customer c) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("customerId", c.getCustomerId());
+        m.put("fullName", c.getFullName());
+        m.put("phone", c.getPhone());
+        m.put("email", c.getEmail());
+        m.put("idNumber", c.getIdNumber());
+        m.put("username", c.getUsername());
+        return m;
+    }
+
+    private static Map<String, Object> reservation(Reservation r) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("reservationId", r.getReservationId());
+        m.put("customerId", r.getCustomerId());
+        m.put("roomId", r.getRoomId());
+        m.put("checkIn", r.getCheckInDate());
+        m.put("checkOut", r.getCheckOutDate());
+        m.put("guests", r.getNumberOfGuests());
+        m.put("status", r.getStatus());
+        return m;
+    }
+
+    private static Map<String, Object> payment(Payment p) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("paymentId", p.getPaymentId());
+        m.put("reservationId", p.getReservationId());
+        m.put("amount", p.getAmount());
+        m.put("method", p.getMethod());
+        m.put("paymentDate", p.getPaymentDate());
+        return m;
+    }
+
+    private static Map<String, Object> auditRecord(AuditRecord a) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("auditId", a.getAuditId());
+        m.put("occurredAt", a.getOccurredAt());
+        m.put("actor", a.getActor());
+        m.put("entity", a.getEntity());
+        m.put("entityId", a.getEntityId());
+        m.put("action", a.getAction());
+        m.put("before", a.getBeforeValue());
+        m.put("after", a.getAfterValue());
+        return m;
+    }
+
+    private static Map<String, Object> events(EventBus.Stats s) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("published", s.published());
+        m.put("deliveredAsync", s.deliveredAsync());
+        m.put("blockedPublishes", s.blockedPublishes());
+        m.put("subscriberFailures", s.subscriberFailures());
+        m.put("queued", s.queued());
+        m.put("highWaterMark", s.highWaterMark());
+        m.put("capacity", s.capacity());
+        return m;
+    }
+
+    private static Map<String, Object> cache(LruCache.Stats s) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("hits", s.hits());
+        m.put("misses", s.misses());
+        m.put("hitRatio", Math.round(s.hitRatio() * 1000) / 1000.0);
+        m.put("evictions", s.evictions());
+        m.put("size", s.size());
+        m.put("capacity", s.capacity());
+        return m;
+    }
+
+    private static Map<String, Object> balance(ReservationBalance b) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("charged", b.getTotalCharged());
+        m.put("paid", b.getTotalPaid());
+        m.put("balance", b.getBalance());
+        return m;
+    }
+
+    private static <T> List<Map<String, Object>> map(List<T> items, Function<T, Map<String, Object>> mapper) {
+        List<Map<String, Object>> out = new ArrayList<>(items.size());
+        for (T item : items) out.add(mapper.apply(item));
+        return out;
+    }
+
+    private static Response ok(Object body) {
+        return new Response(200, body);
+    }
+
+    private static Response created(Object body) {
+        return new Response(201, body);
+    }
+
+    private static ApiException notFound() {
+        return new ApiException(404, "Not found");
+    }
+
+    private static ApiException methodNotAllowed() {
+        return new ApiException(405, "Method not allowed");
+    }
+}
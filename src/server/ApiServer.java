@@ -0,0 +1,198 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import service.IdempotencyService;
+import service.Session;
+import service.SessionManager;
+import service.SessionRegistry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Headless HTTP front end over the service layer, for several desks and kiosks sharing one store.
+ * Each request runs on its own virtual thread. The in-flight permit is taken when the server hands the request
+ * over, before any thread runs it; at most {@code maxInFlight} hold one, and the rest are answered 503 straight
+ * away rather than waiting. Callers authenticate with {@code Authorization: Bearer <token>} from POST /sessions,
+ * and each request runs bound to that session.
+ */
+public final class ApiServer {
+    private static final Logger LOG = Logger.getLogger(ApiServer.class.getName());
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    /** Whether the request on this thread was given a permit; each request has a thread of its own. */
+    private static final ThreadLocal<Boolean> admitted = new ThreadLocal<>();
+
+    private final HttpServer server;
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final RequestMetrics metrics = new RequestMetrics();
+    private final ApiRoutes routes;
+
+    /** @param maxInFlight requests served at once; SQLite serialises writers, so more would only wait on its lock */
+    public ApiServer(InetSocketAddress address, int maxInFlight) throws IOException {
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.server = HttpServer.create(address, maxInFlight);
+        server.createContext("/", this::handle);
+        server.setExecutor(this::admit);
+        this.routes = new ApiRoutes(this);
+    }
+
+    public void start() {
+        server.start();
+        LOG.info("API listening on " + server.getAddress());
+    }
+
+    /** Stops accepting, gives running requests up to {@code graceSeconds} to finish, then stops the workers. */
+    public void stop(int graceSeconds) {
+        server.stop(graceSeconds);
+        workers.shutdown();
+        try {
+            workers.awaitTermination(graceSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    Map<String, Object> metricsSnapshot() {
+        return metrics.snapshot(maxInFlight - inFlight.availablePermits());
+    }
+
+    /**
+     * Runs on the server's dispatcher thread as each request arrives, so the permit is settled before the request
+     * is handed to a thread. A request without one still gets a thread, only to be answered 503.
+     */
+    private void admit(Runnable exchange) {
+        boolean permitted = inFlight.tryAcquire();
+        try {
+            workers.execute(() -> {
+                admitted.set(permitted);
+                try {
+                    exchange.run();
+                } finally {
+                    if (permitted) inFlight.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Stopping: the server drops the connection
+            if (permitted) inFlight.release();
+            throw e;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        if (!Boolean.TRUE.equals(admitted.get())) {
+            metrics.recordRejected();
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            send(exchange, 503, Map.of("error", "Server busy, try again"));
+            return;
+        }
+        String route = exchange.getRequestMethod() + " ?";
+        int status = 500;
+        try {
+            String[] path = Arrays.stream(exchange.getRequestURI().getPath().split("/"))
+                    .filter(s -> !s.isEmpty()).toArray(String[]::new);
+            route = exchange.getRequestMethod() + " " + routeName(path);
+            Map<String, String> headers = new HashMap<>();
+            exchange.getRequestHeaders().forEach((k, v) -> headers.put(k.toLowerCase(), v.isEmpty() ? null : v.get(0)));
+            Map<String, String> query = new HashMap<>();
+            parseForm(exchange.getRequestURI().getRawQuery(), query);
+            Map<String, String> form = new HashMap<>();
+            parseForm(readBody(exchange), form);
+            Session session = authenticate(headers.get("authorization"));
+            ApiRequest request = new ApiRequest(exchange.getRequestMethod(), path, query, form, headers, session);
+
+            ApiRoutes.Response response = session != null
+                    ? SessionManager.runAs(session, () -> routes.dispatch(request))
+                    : routes.dispatch(request);
+            status = response.status();
+            send(exchange, status, response.body());
+        } catch (ApiException e) {
+            status = e.getStatus();
+            send(exchange, status, Map.of("error", e.getMessage()));
+        } catch (IdempotencyService.KeyReusedException e) {
+            status = 422;
+            send(exchange, status, Map.of("error", e.getMessage()));
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "Request failed: " + route, e);
+            send(exchange, 500, Map.of("error", "Internal error"));
+        } finally {
+            metrics.record(route, status, System.nanoTime() - start);
+        }
+    }
+
+    private static Session authenticate(String authorization) {
+        if (authorization == null) return null;
+        if (!authorization.startsWith("Bearer ")) throw new ApiException(401, "Bearer token expected");
+        return SessionRegistry.getInstance().find(authorization.substring(7).trim())
+                .orElseThrow(() -> new ApiException(401, "Session expired, sign in again"));
+    }
+
+    /** Path with numeric segments folded to {id}, so metrics group by route rather than by row. */
+    private static String routeName(String[] path) {
+        StringBuilder name = new StringBuilder();
+        for (String segment : path) {
+            name.append('/').append(segment.chars().allMatch(Character::isDigit) ? "{id}" : segment);
+        }
+        return name.length() == 0 ? "/" : name.toString();
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) throw new ApiException(413, "Request body too large");
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    /** Reads application/x-www-form-urlencoded pairs; body values override query values. */
+    private static void parseForm(String form, Map<String, String> into) {
+        if (form == null || form.isBlank()) return;
+        for (String pair : form.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            if (!key.isEmpty()) into.put(key, value);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, Object body) throws IOException {
+        try {
+            if (body == null) {
+                exchange.sendResponseHeaders(status, -1);
+                return;
+            }
+            byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().put("Content-Type", List.of("application/json; charset=utf-8"));
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request counts and latency per route. Latencies go into power-of-two microsecond buckets, so recording is a
+ * couple of atomic increments and percentiles are read off the bucket counts to within a factor of two.
+ */
+final class RequestMetrics {
+    private static final int BUCKETS = 40;
+
+    private static final class Route {
+        final LongAdder count = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder totalMicros = new LongAdder();
+        final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+    }
+
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+    private final LongAdder rejected = new LongAdder();
+
+    void record(String route, int status, long nanos) {
+        Route r = routes.computeIfAbsent(route, k -> new Route());
+        long micros = Math.max(1, nanos / 1000);
+        r.count.increment();
+        if (status >= 500) r.errors.increment();
+        r.totalMicros.add(micros);
+        r.histogram.incrementAndGet(Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros)));
+    }
+
+    /** A request turned away because the server was at its in-flight limit. */
+    void recordRejected() {
+        rejected.increment();
+    }
+
+    /** Per route: count, server errors, mean and p50/p95/p99 latency in milliseconds. */
+    Map<String, Object> snapshot(int inFlight) {
+        Map<String, Object> byRoute = new TreeMap<>();
+        routes.forEach((name, r) -> {
+            long count = r.count.sum();
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("count", count);
+            m.put("errors", r.errors.sum());
+            m.put("meanMs", count == 0 ? 0 : round(r.totalMicros.sum() / (double) count / 1000));
+            m.put("p50Ms", percentile(r.histogram, 0.50));
+            m.put("p95Ms", percentile(r.histogram, 0.95));
+            m.put("p99Ms", percentile(r.histogram, 0.99));
+            byRoute.put(name, m);
+        });
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("inFlight", inFlight);
+        result.put("rejected", rejected.sum());
+        result.put("routes", byRoute);
+        return result;
+    }
+
+    /** Upper bound of the bucket holding the percentile. */
+    private static double percentile(AtomicLongArray histogram, double p) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) total += histogram.get(i);
+        if (total == 0) return 0;
+        long target = (long) Math.ceil(total * p);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += histogram.get(i);
+            if (seen >= target) return round((2L << i) / 1000.0);
+        }
+        return round((2L << (BUCKETS - 1)) / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
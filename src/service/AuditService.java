@@ -0,0 +1,246 @@
+package service;
+
+import dao.AuditDAO;
+import dao.sqlite.SQLiteAuditDAO;
+import model.AuditRecord;
+import model.Customer;
+import model.Payment;
+import model.Reservation;
+import model.Room;
+import util.SQLiteConnectionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Append-only audit trail of service mutations.
+ * {@link #record} only stamps the actor and time and queues the record once the change commits; a background
+ * writer drains the queue and appends whole batches to audit_log in one transaction each, so a burst of
+ * changes costs one commit rather than one per change. The batch being written, or waiting to be retried, is
+ * shared with {@link #flush}, which writes it itself rather than leaving it behind the writer's backoff.
+ */
+public class AuditService {
+    public static final String RESERVATION = "reservation";
+    public static final String ROOM = "room";
+    public static final String PAYMENT = "payment";
+    public static final String CUSTOMER = "customer";
+
+    private static final Logger LOG = Logger.getLogger(AuditService.class.getName());
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final int MAX_BATCH = 500;
+    /** How long the writer lingers after the first record so that followers join its batch. */
+    private static final long LINGER_MILLIS = 20;
+    private static final long RETRY_MIN_MILLIS = 100;
+    private static final long RETRY_MAX_MILLIS = 30_000;
+    private static final int MAX_RECENT = 1_000;
+    /** How long {@link #shutdown} keeps retrying before it gives the remaining records up. */
+    private static final long SHUTDOWN_MILLIS = 5_000;
+
+    private final AuditDAO auditDAO;
+    private final BlockingQueue<AuditRecord> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    /** Overrides the session user for work not done on a user's behalf, such as the night audit. */
+    private final ThreadLocal<String> actorOverride = new ThreadLocal<>();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final Object flushLock = new Object();
+    /** Records taken off the queue but not yet written, whoever took them; guarded by flushLock. */
+    private final List<AuditRecord> inFlight = new ArrayList<>();
+    /** Released per queued record; wakes the writer without it taking a record that flush() could not see. */
+    private final Semaphore queued = new Semaphore(0);
+    private final Thread writer;
+
+    public AuditService(AuditDAO auditDAO) {
+        this.auditDAO = auditDAO;
+        writer = new Thread(this::writeLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private static final AuditService INSTANCE = new AuditService(new SQLiteAuditDAO());
+
+    public static AuditService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Queues an audit record for a change made in the current transaction. Entity states are the
+     * {@link #describe} form; {@code before} is null for creations and {@code after} for deletions.
+     */
+    public void record(String entity, int entityId, String action, String before, String after) {
+        AuditRecord record = new AuditRecord(0, LocalDateTime.now(), currentActor(), entity, entityId, action, before, after);
+        SQLiteConnectionManager.getInstance().afterCommit(() -> enqueue(record));
+    }
+
+    /** Runs the work with every record attributed to {@code actor} instead of the session user. */
+    public <T> T runAs(String actor, Supplier<T> work) {
+        String previous = actorOverride.get();
+        actorOverride.set(actor);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) actorOverride.remove();
+            else actorOverride.set(previous);
+        }
+    }
+
+    public List<AuditRecord> findByEntity(String entity, int entityId) {
+        flush();
+        return auditDAO.findByEntity(entity, entityId);
+    }
+
+    public List<AuditRecord> findRecent(int limit) {
+        flush();
+        return auditDAO.findRecent(Math.max(1, Math.min(limit, MAX_RECENT)));
+    }
+
+    /**
+     * Writes everything queued so far on the calling thread, starting with the writer's batch if it holds one.
+     * Used before reads. A batch that fails stays in flight for the writer to retry, and the error is rethrown.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            do {
+                writeInFlight();
+            } while (queue.drainTo(inFlight, MAX_BATCH) > 0);
+        }
+    }
+
+    /**
+     * Stops the writer and flushes what is left, retrying a failing database with the writer's backoff for at
+     * most {@link #SHUTDOWN_MILLIS}. Records still unwritten then are reported and given up.
+     */
+    public void shutdown() {
+        writer.interrupt();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SHUTDOWN_MILLIS);
+        long backoff = RETRY_MIN_MILLIS;
+        while (true) {
+            try {
+                flush();
+                return;
+            } catch (RuntimeException e) {
+                long left = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (left <= 0) {
+                    LOG.log(Level.SEVERE, "Gave up on " + getQueuedCount() + " audit records at shutdown", e);
+                    return;
+                }
+                try {
+                    Thread.sleep(Math.min(backoff, left));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoff = Math.min(backoff * 2, RETRY_MAX_MILLIS);
+            }
+        }
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    public int getQueuedCount() {
+        synchronized (flushLock) {
+            return queue.size() + inFlight.size();
+        }
+    }
+
+    /** Single-line, stable description of an entity's audited fields. */
+    public static String describe(Object entity) {
+        if (entity == null) return null;
+        if (entity instanceof Reservation r) {
+            return "customer=" + r.getCustomerId() + ", room=" + r.getRoomId() + ", checkIn=" + r.getCheckInDate()
+                    + ", checkOut=" + r.getCheckOutDate() + ", guests=" + r.getNumberOfGuests()
+                    + ", status=" + (r.getStatus() != null ? r.getStatus().name() : null);
+        }
+        if (entity instanceof Room r) {
+            return "number=" + r.getRoomNumber() + ", type=" + (r.getRoomType() != null ? r.getRoomType().name() : null)
+                    + ", pricePerNight=" + r.getPricePerNight();
+        }
+        if (entity instanceof Payment p) {
+            return "reservation=" + p.getReservationId() + ", amount=" + p.getAmount()
+                    + ", method=" + (p.getMethod() != null ? p.getMethod().name() : null) + ", date=" + p.getPaymentDate();
+        }
+        if (entity instanceof Customer c) {
+            // Credentials are never written to the audit log
+            return "name=" + c.getFullName() + ", phone=" + c.getPhone() + ", email=" + c.getEmail()
+                    + ", idNumber=" + c.getIdNumber() + ", username=" + c.getUsername();
+        }
+        return entity.toString();
+    }
+
+    private String currentActor() {
+        String override = actorOverride.get();
+        if (override != null) return override;
+        Session session = SessionManager.current();
+        return session != null ? session.toString() : "system";
+    }
+
+    private void enqueue(AuditRecord record) {
+        try {
+            // Blocks only if the writer has fallen 10k records behind; audit records are never dropped
+            queue.put(record);
+            queued.release();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // Never waits: handed straight to the writer's batch
+            synchronized (flushLock) {
+                inFlight.add(record);
+            }
+            queued.release();
+        }
+    }
+
+    /**
+     * A batch that fails to write stays in flight and is retried with growing backoff until the database takes
+     * it, or until a flush() writes it first. Stops when interrupted by {@link #shutdown}.
+     */
+    private void writeLoop() {
+        long backoff = 0;
+        while (true) {
+            try {
+                if (backoff > 0) {
+                    Thread.sleep(backoff);
+                } else if (queue.isEmpty()) {
+                    queued.acquire();
+                    queued.drainPermits();
+                    Thread.sleep(LINGER_MILLIS);
+                }
+                synchronized (flushLock) {
+                    queue.drainTo(inFlight, MAX_BATCH - inFlight.size());
+                    try {
+                        writeInFlight();
+                        backoff = 0;
+                    } catch (RuntimeException e) {
+                        backoff = Math.min(Math.max(backoff * 2, RETRY_MIN_MILLIS), RETRY_MAX_MILLIS);
+                        LOG.log(Level.SEVERE, "Failed to write " + inFlight.size() + " audit records, retrying in "
+                                + backoff + " ms", e);
+                    }
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /** Caller holds flushLock. Clears the batch only once it is written. */
+    private void writeInFlight() {
+        if (inFlight.isEmpty()) return;
+        auditDAO.saveAll(inFlight);
+        written.add(inFlight.size());
+        batches.increment();
+        inFlight.clear();
+    }
+}
@@ -3,17 +3,15 @@ package service;
 import dao.UserDAO;
 import dao.sqlite.SQLiteUserDAO;
 import model.User;
+import util.LruCache;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.Base64;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public class AuthService {
-    private static volatile int currentUserId = -1;
-    private static volatile String currentUsername;
     private final UserDAO userDAO;
+    /** Staff accounts by username; every sign-in looks one up. Callers get copies. */
+    private final LruCache<String, User> usersByName = new LruCache<>(Integer.getInteger("hotel.cache.users", 500));
 
     public AuthService(UserDAO userDAO) {
         this.userDAO = userDAO;
@@ -25,22 +23,39 @@ public class AuthService {
         return INSTANCE;
     }
 
+    /** Blocking login; hashing still runs on the credential pool. Prefer {@link #loginAsync} on the UI thread. */
     public int login(String username, String password) {
-        int id = doLogin(username, password);
-        if (id != -1) SessionManager.loginAdmin(id, userDAO.findByUsername(username.trim()).map(User::getFullName).orElse(username));
-        return id;
+        return loginAsync(username, password).join();
     }
 
-    private int doLogin(String username, String password) {
-        Optional<User> opt = userDAO.findByUsername(username.trim());
-        if (opt.isEmpty()) return -1;
+    /** Signs the local terminal in; completes with the user id, or -1. */
+    public CompletableFuture<Integer> loginAsync(String username, String password) {
+        return openSessionAsync(username, password).thenApply(s -> {
+            if (s == null) return -1;
+            SessionManager.attach(s);
+            return s.getPrincipalId();
+        });
+    }
+
+    /**
+     * Verifies the password off the calling thread and completes with a new session, or null. A hash in a legacy
+     * format or with a lower cost than the current one is replaced on success.
+     */
+    public CompletableFuture<Session> openSessionAsync(String username, String password) {
+        if (username == null || username.trim().isEmpty() || password == null) return CompletableFuture.completedFuture(null);
+        Optional<User> opt = findByUsername(username.trim());
+        if (opt.isEmpty() || !opt.get().isActive()) return CompletableFuture.completedFuture(null);
         User u = opt.get();
-        if (!u.isActive()) return -1;
-        String hash = hashPassword(password);
-        if (!hash.equals(u.getPasswordHash())) return -1;
-        currentUserId = u.getUserId();
-        currentUsername = u.getUsername();
-        return currentUserId;
+        return CredentialService.getInstance().verifyAsync(password, u.getPasswordHash()).thenApply(v -> {
+            if (!v.matches()) return null;
+            if (v.upgradedHash() != null) {
+                u.setPasswordHash(v.upgradedHash());
+                userDAO.update(u);
+                usersByName.invalidate(u.getUsername());
+            }
+            return SessionRegistry.getInstance().open(SessionManager.UserType.ADMIN, u.getUserId(),
+                    u.getFullName() != null ? u.getFullName() : u.getUsername());
+        });
     }
 
     /** For guest auth - same hashing. */
@@ -48,56 +63,94 @@ public class AuthService {
         return hashPassword(password);
     }
 
+    /** Blocking form of {@link #registerAsync}. */
     public int register(String username, String fullName, String password) {
-        if (username == null || username.trim().isEmpty()) return -1;
-        if (userDAO.findByUsername(username.trim()).isPresent()) return -1;
-        User u = new User(0, username.trim(), hashPassword(password), fullName != null ? fullName : username, true);
-        userDAO.save(u);
-        SessionManager.loginAdmin(u.getUserId(), u.getFullName());
-        currentUserId = u.getUserId();
-        currentUsername = u.getUsername();
-        return currentUserId;
+        return registerAsync(username, fullName, password).join();
+    }
+
+    /** Hashes the password off the calling thread, then creates the user and signs it in; completes with its id, or -1. */
+    public CompletableFuture<Integer> registerAsync(String username, String fullName, String password) {
+        if (username == null || username.trim().isEmpty() || password == null) return CompletableFuture.completedFuture(-1);
+        String name = username.trim();
+        if (findByUsername(name).isPresent()) return CompletableFuture.completedFuture(-1);
+        return CredentialService.getInstance().hashAsync(password).thenApply(hash -> {
+            // Re-checked: the name may have been taken while the password was hashing
+            if (findByUsername(name).isPresent()) return -1;
+            User u = new User(0, name, hash, fullName != null ? fullName : username, true);
+            userDAO.save(u);
+            usersByName.invalidate(u.getUsername());
+            SessionManager.loginAdmin(u.getUserId(), u.getFullName());
+            return u.getUserId();
+        });
     }
 
-    /** Seeds default admin if no users exist. Does not log in. */
+    /** Seeds the desktop app's default admin (admin/admin) if no users exist. Does not log in. */
     public static void seedAdminIfNeeded() {
+        seedAdminIfNeeded("admin");
+    }
+
+    /** Creates user "admin" with the given password if no users exist. Does not log in. */
+    public static void seedAdminIfNeeded(String password) {
         AuthService svc = getInstance();
-        if (!svc.userDAO.findAll().isEmpty()) return;
-        User u = new User(0, "admin", svc.hashPassword("admin"), "Administrator", true);
+        if (svc.hasUsers()) return;
+        User u = new User(0, "admin", svc.hashPassword(password), "Administrator", true);
         svc.userDAO.save(u);
     }
 
+    public boolean hasUsers() {
+        return !userDAO.findAll().isEmpty();
+    }
+
     public void logout() {
-        currentUserId = -1;
-        currentUsername = null;
         SessionManager.logout();
     }
 
+    /** Admin user id of the current session, or -1. */
     public static int getCurrentUserId() {
-        return currentUserId;
+        return SessionManager.getCurrentAdminId();
     }
 
     public static String getCurrentUsername() {
-        return currentUsername;
+        int userId = getCurrentUserId();
+        return userId != -1 ? INSTANCE.userDAO.findById(userId).map(User::getUsername).orElse(null) : null;
     }
 
+    /** Blocking form of {@link #changePasswordAsync}. */
     public boolean changePassword(int userId, String currentPassword, String newPassword) {
+        return changePasswordAsync(userId, currentPassword, newPassword).join();
+    }
+
+    /** Verifies the current password and hashes the new one off the calling thread; completes with whether it changed. */
+    public CompletableFuture<Boolean> changePasswordAsync(int userId, String currentPassword, String newPassword) {
         Optional<User> opt = userDAO.findById(userId);
-        if (opt.isEmpty()) return false;
+        if (opt.isEmpty() || currentPassword == null || newPassword == null) return CompletableFuture.completedFuture(false);
         User u = opt.get();
-        if (!u.getPasswordHash().equals(hashPassword(currentPassword))) return false;
-        u.setPasswordHash(hashPassword(newPassword));
-        userDAO.update(u);
-        return true;
+        // Captured here: the completion runs on a pool thread, which has no session bound
+        Session own = SessionManager.current();
+        CredentialService credentials = CredentialService.getInstance();
+        return credentials.verifyAsync(currentPassword, u.getPasswordHash()).thenCompose(v -> {
+            if (!v.matches()) return CompletableFuture.completedFuture(false);
+            return credentials.hashAsync(newPassword).thenApply(hash -> {
+                u.setPasswordHash(hash);
+                userDAO.update(u);
+                usersByName.invalidate(u.getUsername());
+                // Sessions opened elsewhere with the old password end; the caller's own stays open
+                SessionRegistry.getInstance().closeAll(SessionManager.UserType.ADMIN, userId, own != null ? own.getToken() : null);
+                return true;
+            });
+        });
+    }
+
+    public Optional<User> findByUsername(String username) {
+        return usersByName.get(username, userDAO::findByUsername)
+                .map(u -> new User(u.getUserId(), u.getUsername(), u.getPasswordHash(), u.getFullName(), u.isActive()));
+    }
+
+    public LruCache.Stats getCacheStats() {
+        return usersByName.getStats();
     }
 
     String hashPassword(String password) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] hash = md.digest(password.getBytes(StandardCharsets.UTF_8));
-            return Base64.getEncoder().encodeToString(hash);
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("SHA-256 not available", e);
-        }
+        return CredentialService.getInstance().hash(password);
     }
 }
@@ -0,0 +1,107 @@
+package service;
+
+import util.CredentialHasher;
+import util.Pbkdf2CredentialHasher;
+import util.Sha256CredentialHasher;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Password hashing and verification on a small dedicated pool, so slow key derivation never runs on the
+ * UI thread and a login storm queues instead of starving everything else. New hashes use the primary hasher;
+ * hashes in an older format or with a lower cost verify through their own hasher and come back with an
+ * upgraded hash for the caller to store.
+ */
+public class CredentialService {
+    /** Default PBKDF2 cost; override with -Dhotel.pbkdf2.iterations. See benchmark.PasswordHashBenchmark. */
+    public static final int DEFAULT_ITERATIONS = 210_000;
+    private static final int QUEUE_CAPACITY = 64;
+
+    /** Outcome of a verification; {@code upgradedHash} is non-null when the stored hash should be replaced. */
+    public record Verification(boolean matches, String upgradedHash) { }
+
+    private final ThreadPoolExecutor executor;
+    private volatile CredentialHasher primary;
+    private final List<CredentialHasher> legacy = List.of(new Sha256CredentialHasher());
+
+    public CredentialService(CredentialHasher primary, int threads) {
+        this.primary = primary;
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), r -> {
+                    Thread t = new Thread(r, "credential-hash-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    private static final CredentialService INSTANCE = new CredentialService(
+            new Pbkdf2CredentialHasher(Integer.getInteger("hotel.pbkdf2.iterations", DEFAULT_ITERATIONS)),
+            Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() / 2)));
+
+    public static CredentialService getInstance() {
+        return INSTANCE;
+    }
+
+    public CompletableFuture<String> hashAsync(String password) {
+        CredentialHasher hasher = primary;
+        return submit(() -> hasher.hash(password));
+    }
+
+    public CompletableFuture<Verification> verifyAsync(String password, String storedHash) {
+        CredentialHasher current = primary;
+        return submit(() -> {
+            if (password == null || storedHash == null || storedHash.isEmpty()) return new Verification(false, null);
+            CredentialHasher hasher = current.canVerify(storedHash) ? current : legacy.stream()
+                    .filter(h -> h.canVerify(storedHash)).findFirst().orElse(null);
+            if (hasher == null || !hasher.matches(password, storedHash)) return new Verification(false, null);
+            boolean upgrade = hasher != current || current.needsRehash(storedHash);
+            return new Verification(true, upgrade ? current.hash(password) : null);
+        });
+    }
+
+    /** Blocking form of {@link #hashAsync}, for callers already off the UI thread. */
+    public String hash(String password) {
+        return join(hashAsync(password));
+    }
+
+    /** Blocking form of {@link #verifyAsync}, for callers already off the UI thread. */
+    public Verification verify(String password, String storedHash) {
+        return join(verifyAsync(password, storedHash));
+    }
+
+    public CredentialHasher getPrimary() {
+        return primary;
+    }
+
+    /** Switches the scheme for new hashes; existing ones are upgraded as their owners sign in. */
+    public void setPrimary(CredentialHasher primary) {
+        this.primary = primary;
+    }
+
+    /** A full queue fails the future rather than throwing at the caller. */
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(work, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package service;
+
+import dao.CustomerDAO;
+import dao.sqlite.SQLiteCustomerDAO;
+import model.Customer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Type-ahead customer lookup by name, phone, email or ID number.
+ * Backed by the customer_search FTS5 table, which the customer DAO keeps in step with every write. Each word
+ * typed must prefix-match some indexed word; input that looks like a phone number is matched as one digit run,
+ * so "555-0101" finds "+1 (555) 010-1234" as well as "5550101".
+ * <p>
+ * Words shorter than {@value #MIN_TERM_LENGTH} characters are ignored: the index keeps prefixes of 2 to 4
+ * characters, and a one-letter prefix expands to most of the term list. Results are ranked by relevance only once
+ * some word has {@value #MIN_RANKED_LENGTH} characters; a two-letter prefix matches a large share of all customers,
+ * so those searches list the newest matches instead. Ranking scores only the newest few hundred matches, which
+ * keeps a broad three-letter prefix as cheap as a narrow one.
+ */
+public class CustomerSearchService {
+    public static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 200;
+    static final int MIN_TERM_LENGTH = 2;
+    static final int MIN_RANKED_LENGTH = 3;
+    private static final Pattern PHONE_LIKE = Pattern.compile("[+()\\d\\s.-]*\\d{3}[+()\\d\\s.-]*");
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final CustomerDAO customerDAO;
+
+    public CustomerSearchService(CustomerDAO customerDAO) {
+        this.customerDAO = customerDAO;
+    }
+
+    private static final CustomerSearchService INSTANCE = new CustomerSearchService(new SQLiteCustomerDAO());
+
+    public static CustomerSearchService getInstance() {
+        return INSTANCE;
+    }
+
+    public List<Customer> search(String text) {
+        return search(text, DEFAULT_LIMIT);
+    }
+
+    /** Up to {@code limit} customers matching the text, best match first. Blank or one-letter text matches nobody. */
+    public List<Customer> search(String text, int limit) {
+        String match = toMatchExpression(text);
+        if (match == null) return List.of();
+        return customerDAO.search(match, Math.max(1, Math.min(limit, MAX_LIMIT)), isRanked(text));
+    }
+
+    /** Whether the text has anything to search for; callers keep their unfiltered list until it does. */
+    public static boolean isSearchable(String text) {
+        return toMatchExpression(text) != null;
+    }
+
+    /** Rebuilds the index from the customers table, e.g. after rows were changed outside the application. */
+    public int rebuildIndex() {
+        return customerDAO.rebuildSearchIndex();
+    }
+
+    /** FTS5 query for the text, or null if it has nothing searchable. Terms are quoted so user input is never syntax. */
+    static String toMatchExpression(String text) {
+        if (text == null || text.isBlank()) return null;
+        String trimmed = text.trim();
+        if (PHONE_LIKE.matcher(trimmed).matches()) {
+            return "{phone id_number} : \"" + trimmed.replaceAll("\\D", "") + "\"*";
+        }
+        List<String> terms = new ArrayList<>();
+        for (String word : WORD_SEPARATORS.split(trimmed)) {
+            if (word.codePointCount(0, word.length()) >= MIN_TERM_LENGTH) terms.add("\"" + word + "\"*");
+        }
+        return terms.isEmpty() ? null : String.join(" ", terms);
+    }
+
+    /** Whether the text narrows enough to be worth ranking by relevance; phone numbers and IDs are not ranked. */
+    static boolean isRanked(String text) {
+        if (text == null || PHONE_LIKE.matcher(text.trim()).matches()) return false;
+        for (String word : WORD_SEPARATORS.split(text.trim())) {
+            if (word.codePointCount(0, word.length()) >= MIN_RANKED_LENGTH) return true;
+        }
+        return false;
+    }
+}
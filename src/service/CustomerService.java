@@ -3,15 +3,19 @@ package service;
 import dao.CustomerDAO;
 import dao.sqlite.SQLiteCustomerDAO;
 import model.Customer;
+import util.LruCache;
+import util.SQLiteConnectionManager;
 
 import java.util.List;
 import java.util.Optional;
 
 /**
- * Customer business logic.
+ * Customer business logic. Writes run in a transaction so the customer row and its search index row change together.
+ * Customers by id are cached; callers always get their own copy.
  */
 public class CustomerService {
     private final CustomerDAO customerDAO;
+    private final LruCache<Integer, Customer> customersById = new LruCache<>(Integer.getInteger("hotel.cache.customers", 10_000));
 
     public CustomerService(CustomerDAO customerDAO) {
         this.customerDAO = customerDAO;
@@ -27,30 +31,72 @@ public class CustomerService {
         if (fullName == null || fullName.trim().isEmpty()) return -1;
         Customer c = new Customer(0, fullName.trim(), phone != null ? phone : "",
                 email != null ? email : "", idNumber != null ? idNumber : "", null, null);
-        return customerDAO.save(c).getCustomerId();
+        return SQLiteConnectionManager.getInstance().inTransaction(() -> {
+            int id = customerDAO.save(c).getCustomerId();
+            SQLiteConnectionManager.getInstance().afterCommit(() -> MetricsService.getInstance().onCustomerAdded());
+            AuditService.getInstance().record(AuditService.CUSTOMER, id, "create", null, AuditService.describe(c));
+            return id;
+        });
     }
 
     public boolean updateCustomer(int customerId, String fullName, String phone, String email, String idNumber) {
         Optional<Customer> opt = customerDAO.findById(customerId);
         if (opt.isEmpty()) return false;
         Customer c = opt.get();
+        String before = AuditService.describe(c);
         if (fullName != null && !fullName.trim().isEmpty()) c.setFullName(fullName.trim());
         if (phone != null) c.setPhone(phone);
         if (email != null) c.setEmail(email);
         if (idNumber != null) c.setIdNumber(idNumber);
-        customerDAO.update(c);
+        SQLiteConnectionManager.getInstance().runInTransaction(() -> {
+            customerDAO.update(c);
+            invalidate(customerId);
+            AuditService.getInstance().record(AuditService.CUSTOMER, customerId, "update", before, AuditService.describe(c));
+        });
         return true;
     }
 
     public boolean deleteCustomer(int customerId) {
-        return customerDAO.delete(customerId);
+        Optional<Customer> existing = customerDAO.findById(customerId);
+        return SQLiteConnectionManager.getInstance().inTransaction(() -> {
+            boolean deleted = customerDAO.delete(customerId);
+            if (deleted) {
+                invalidate(customerId);
+                SQLiteConnectionManager.getInstance().afterCommit(() -> MetricsService.getInstance().onCustomerDeleted());
+                AuditService.getInstance().record(AuditService.CUSTOMER, customerId, "delete",
+                        AuditService.describe(existing.orElse(null)), null);
+            }
+            return deleted;
+        });
     }
 
     public Optional<Customer> findById(int customerId) {
-        return customerDAO.findById(customerId);
+        return customersById.get(customerId, customerDAO::findById).map(CustomerService::copy);
+    }
+
+    /**
+     * Drops the cached customer now and again once the current transaction commits. Anything writing customers
+     * outside this service must call it.
+     */
+    public void invalidate(int customerId) {
+        customersById.invalidate(customerId);
+        SQLiteConnectionManager.getInstance().afterCommit(() -> customersById.invalidate(customerId));
+    }
+
+    public LruCache.Stats getCacheStats() {
+        return customersById.getStats();
+    }
+
+    private static Customer copy(Customer c) {
+        return new Customer(c.getCustomerId(), c.getFullName(), c.getPhone(), c.getEmail(), c.getIdNumber(),
+                c.getUsername(), c.getPasswordHash());
     }
 
     public List<Customer> findAll() {
         return customerDAO.findAll();
     }
+
+    public List<Customer> findRecent(int limit) {
+        return customerDAO.findRecent(limit);
+    }
 }
@@ -0,0 +1,286 @@
+package service;
+
+import dao.CustomerDAO;
+import dao.ReservationDAO;
+import dao.sqlite.SQLiteCustomerDAO;
+import dao.sqlite.SQLiteReservationDAO;
+import model.Customer;
+import model.DuplicateCandidate;
+import util.SQLiteConnectionManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Finds customer records that are the same guest registered twice, and merges them.
+ * Customers are grouped by blocking keys (phone, email, ID number, surname sound-alike plus first initial) and only
+ * pairs that share a block are scored, so the work grows with the number of near-matches rather than with the
+ * square of the customer count. Scoring runs in parallel.
+ */
+public class DuplicateCustomerService {
+    public static final double DEFAULT_MIN_SCORE = 0.6;
+    /** Blocks larger than this, such as a very common name or an agency's phone, are skipped as too unselective. */
+    private static final int MAX_BLOCK = 64;
+    private static final int MIN_PHONE_DIGITS = 7;
+    /** Phones compare on their last digits, so "+1 555 0101 234" matches "5550101234". */
+    private static final int PHONE_SUFFIX_DIGITS = 9;
+
+    private record Profile(int customerId, String name, String phone, String email, String idNumber, String nameKey) {}
+
+    private final CustomerDAO customerDAO;
+    private final ReservationDAO reservationDAO;
+    private final ForkJoinPool scoringPool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors()));
+
+    public DuplicateCustomerService(CustomerDAO customerDAO, ReservationDAO reservationDAO) {
+        this.customerDAO = customerDAO;
+        this.reservationDAO = reservationDAO;
+    }
+
+    private static final DuplicateCustomerService INSTANCE = new DuplicateCustomerService(
+            new SQLiteCustomerDAO(), new SQLiteReservationDAO());
+
+    public static DuplicateCustomerService getInstance() {
+        return INSTANCE;
+    }
+
+    /** Likely duplicate pairs scoring at least {@code minScore}, best first. */
+    public List<DuplicateCandidate> findDuplicates(double minScore) {
+        List<Customer> customers = customerDAO.findAll();
+        Profile[] profiles = scoringPool.submit(() -> customers.parallelStream()
+                .map(DuplicateCustomerService::profile).toArray(Profile[]::new)).join();
+
+        Map<String, List<Integer>> blocks = new HashMap<>();
+        for (int i = 0; i < profiles.length; i++) {
+            for (String key : blockingKeys(profiles[i])) {
+                blocks.computeIfAbsent(key, k -> new ArrayList<>(2)).add(i);
+            }
+        }
+        // A pair sharing several blocks is scored once
+        Set<Long> pairs = new HashSet<>();
+        for (List<Integer> block : blocks.values()) {
+            if (block.size() < 2 || block.size() > MAX_BLOCK) continue;
+            for (int a = 0; a < block.size(); a++) {
+                for (int b = a + 1; b < block.size(); b++) {
+                    int i = Math.min(block.get(a), block.get(b));
+                    int j = Math.max(block.get(a), block.get(b));
+                    pairs.add((long) i << 32 | j);
+                }
+            }
+        }
+        long[] candidates = pairs.stream().mapToLong(Long::longValue).toArray();
+        List<DuplicateCandidate> found = scoringPool.submit(() -> Arrays.stream(candidates).parallel()
+                .mapToObj(p -> score(profiles[(int) (p >>> 32)], profiles[(int) p]))
+                .filter(Objects::nonNull)
+                .filter(c -> c.getScore() >= minScore)
+                .toList()).join();
+        List<DuplicateCandidate> sorted = new ArrayList<>(found);
+        sorted.sort(Comparator.comparingDouble(DuplicateCandidate::getScore).reversed()
+                .thenComparingInt(DuplicateCandidate::getFirstCustomerId));
+        return sorted;
+    }
+
+    /**
+     * Folds {@code duplicateId} into {@code keepId} in one transaction: its reservations (and with them payments and
+     * balances) move over, blank contact fields and a missing login are filled from it, and it is deleted.
+     */
+    public boolean merge(int keepId, int duplicateId) {
+        if (keepId == duplicateId) return false;
+        SQLiteConnectionManager db = SQLiteConnectionManager.getInstance();
+        return db.inTransaction(() -> {
+            Customer keep = customerDAO.findById(keepId).orElse(null);
+            Customer duplicate = customerDAO.findById(duplicateId).orElse(null);
+            if (keep == null || duplicate == null) return false;
+            String before = AuditService.describe(keep);
+            int moved = reservationDAO.reassignCustomer(duplicateId, keepId);
+            if (isBlank(keep.getPhone())) keep.setPhone(duplicate.getPhone());
+            if (isBlank(keep.getEmail())) keep.setEmail(duplicate.getEmail());
+            if (isBlank(keep.getIdNumber())) keep.setIdNumber(duplicate.getIdNumber());
+            if (isBlank(keep.getUsername()) && !isBlank(duplicate.getUsername())) {
+                keep.setUsername(duplicate.getUsername());
+                keep.setPasswordHash(duplicate.getPasswordHash());
+            }
+            // Delete first, so the login moved over is never held by two rows
+            customerDAO.delete(duplicateId);
+            customerDAO.update(keep);
+            CustomerService.getInstance().invalidate(keepId);
+            CustomerService.getInstance().invalidate(duplicateId);
+            AuditService audit = AuditService.getInstance();
+            audit.record(AuditService.CUSTOMER, keepId, "merge", before,
+                    AuditService.describe(keep) + ", mergedFrom=" + duplicateId + ", reservationsMoved=" + moved);
+            audit.record(AuditService.CUSTOMER, duplicateId, "merge", AuditService.describe(duplicate), null);
+            db.afterCommit(() -> {
+                PaymentService.getInstance().invalidateLedger(keepId);
+                PaymentService.getInstance().invalidateLedger(duplicateId);
+                MetricsService.getInstance().onCustomerDeleted();
+                SessionRegistry.getInstance().closeAll(SessionManager.UserType.GUEST, duplicateId, null);
+            });
+            return true;
+        });
+    }
+
+    /**
+     * Merges every candidate pair into its older record. Chains (A~B, B~C) collapse into one customer.
+     * Returns the number of records merged away.
+     */
+    public int mergeAll(List<DuplicateCandidate> candidates) {
+        Map<Integer, Integer> mergedInto = new HashMap<>();
+        int merged = 0;
+        for (DuplicateCandidate c : candidates) {
+            int a = survivor(mergedInto, c.getFirstCustomerId());
+            int b = survivor(mergedInto, c.getSecondCustomerId());
+            if (a == b) continue;
+            int keep = Math.min(a, b);
+            int duplicate = Math.max(a, b);
+            if (merge(keep, duplicate)) {
+                mergedInto.put(duplicate, keep);
+                merged++;
+            }
+        }
+        return merged;
+    }
+
+    private static int survivor(Map<Integer, Integer> mergedInto, int customerId) {
+        Integer next;
+        while ((next = mergedInto.get(customerId)) != null) customerId = next;
+        return customerId;
+    }
+
+    /** Weighted evidence from matching identifiers and name similarity; null if nothing matched. */
+    private static DuplicateCandidate score(Profile a, Profile b) {
+        double score = 0;
+        List<String> reasons = new ArrayList<>(4);
+        if (a.idNumber() != null && b.idNumber() != null) {
+            if (a.idNumber().equals(b.idNumber())) {
+                score += 0.5;
+                reasons.add("same ID number");
+            } else {
+                score -= 0.3;
+                reasons.add("different ID numbers");
+            }
+        }
+        if (a.email() != null && a.email().equals(b.email())) {
+            score += 0.4;
+            reasons.add("same email");
+        }
+        if (a.phone() != null && a.phone().equals(b.phone())) {
+            score += 0.35;
+            reasons.add("same phone");
+        }
+        double nameSimilarity = jaroWinkler(a.name(), b.name());
+        if (nameSimilarity >= 0.85) {
+            score += 0.3 * nameSimilarity;
+            reasons.add(String.format(Locale.ROOT, "similar name (%.2f)", nameSimilarity));
+        }
+        if (score <= 0) return null;
+        return new DuplicateCandidate(Math.min(a.customerId(), b.customerId()), Math.max(a.customerId(), b.customerId()),
+                Math.min(1.0, Math.round(score * 100) / 100.0), reasons);
+    }
+
+    private static List<String> blockingKeys(Profile p) {
+        List<String> keys = new ArrayList<>(4);
+        if (p.phone() != null) keys.add("p:" + p.phone());
+        if (p.email() != null) keys.add("e:" + p.email());
+        if (p.idNumber() != null) keys.add("i:" + p.idNumber());
+        if (p.nameKey() != null) keys.add("n:" + p.nameKey());
+        return keys;
+    }
+
+    private static Profile profile(Customer c) {
+        String name = normalizeName(c.getFullName());
+        String digits = c.getPhone() != null ? c.getPhone().replaceAll("\\D", "") : "";
+        String phone = digits.length() >= MIN_PHONE_DIGITS
+                ? digits.substring(Math.max(0, digits.length() - PHONE_SUFFIX_DIGITS)) : null;
+        String email = normalizeEmail(c.getEmail());
+        String idNumber = c.getIdNumber() != null ? c.getIdNumber().replaceAll("[^\\p{Alnum}]", "").toUpperCase(Locale.ROOT) : "";
+        String[] parts = name.isEmpty() ? new String[0] : name.split(" ");
+        // A surname with no Latin letters has no Soundex code, and such names are not blocked by name at all
+        String surnameCode = parts.length > 0 ? soundex(parts[parts.length - 1]) : null;
+        String nameKey = surnameCode != null ? surnameCode + parts[0].charAt(0) : null;
+        return new Profile(c.getCustomerId(), name, phone, email, idNumber.isEmpty() ? null : idNumber, nameKey);
+    }
+
+    /** Lower case, accents removed, punctuation dropped, single spaces. */
+    private static String normalizeName(String name) {
+        if (name == null) return "";
+        String plain = Normalizer.normalize(name, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return plain.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N} ]", "").trim().replaceAll("\\s+", " ");
+    }
+
+    /** Lower case with any "+tag" removed from the local part. */
+    private static String normalizeEmail(String email) {
+        if (email == null || email.isBlank() || email.indexOf('@') < 1) return null;
+        String e = email.trim().toLowerCase(Locale.ROOT);
+        int at = e.indexOf('@');
+        int plus = e.indexOf('+');
+        return plus > 0 && plus < at ? e.substring(0, plus) + e.substring(at) : e;
+    }
+
+    /** American Soundex: first letter plus three digits for the following consonant groups. */
+    static String soundex(String word) {
+        final String codes = "01230120022455012623010202";
+        StringBuilder out = new StringBuilder(4);
+        char last = 0;
+        for (int i = 0; i < word.length() && out.length() < 4; i++) {
+            char ch = word.charAt(i);
+            if (ch < 'a' || ch > 'z') continue;
+            char code = codes.charAt(ch - 'a');
+            if (out.length() == 0) {
+                out.append(Character.toUpperCase(ch));
+            } else if (code != '0' && code != last) {
+                out.append(code);
+            }
+            // h and w do not separate letters with the same code; vowels do
+            if (ch != 'h' && ch != 'w') last = code;
+        }
+        if (out.length() == 0) return null;
+        while (out.length() < 4) out.append('0');
+        return out.toString();
+    }
+
+    static double jaroWinkler(String s, String t) {
+        if (s.isEmpty() || t.isEmpty()) return 0;
+        if (s.equals(t)) return 1;
+        int window = Math.max(0, Math.max(s.length(), t.length()) / 2 - 1);
+        boolean[] sMatched = new boolean[s.length()];
+        boolean[] tMatched = new boolean[t.length()];
+        int matches = 0;
+        for (int i = 0; i < s.length(); i++) {
+            int from = Math.max(0, i - window);
+            int to = Math.min(t.length() - 1, i + window);
+            for (int j = from; j <= to; j++) {
+                if (!tMatched[j] && s.charAt(i) == t.charAt(j)) {
+                    sMatched[i] = tMatched[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) return 0;
+        int transpositions = 0;
+        for (int i = 0, j = 0; i < s.length(); i++) {
+            if (!sMatched[i]) continue;
+            while (!tMatched[j]) j++;
+            if (s.charAt(i) != t.charAt(j)) transpositions++;
+            j++;
+        }
+        double m = matches;
+        double jaro = (m / s.length() + m / t.length() + (m - transpositions / 2.0) / m) / 3;
+        int prefix = 0;
+        while (prefix < Math.min(4, Math.min(s.length(), t.length())) && s.charAt(prefix) == t.charAt(prefix)) prefix++;
+        return jaro + prefix * 0.1 * (1 - jaro);
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+}
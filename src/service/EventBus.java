@@ -0,0 +1,160 @@
+package service;
+
+import model.DomainEvent;
+import util.SQLiteConnectionManager;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-process bus for {@link DomainEvent}s.
+ * Services call {@link #publish} inside their transaction; delivery waits for the commit and is skipped on
+ * rollback. Synchronous subscribers run on the publishing thread. Asynchronous ones are fed, in publish order,
+ * by one daemon thread draining a bounded ring buffer; when the buffer is full the publisher waits for room,
+ * which slows producers down instead of dropping events, growing memory or delivering out of order.
+ * <p>
+ * Derived views subscribe when the bus is created, so no event can be published before they listen.
+ */
+public class EventBus {
+    private static final Logger LOG = Logger.getLogger(EventBus.class.getName());
+    private static final int RING_CAPACITY = 1024;
+
+    /** Returned by subscribe; stops delivery when closed. */
+    public interface Subscription extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    public record Stats(long published, long deliveredAsync, long blockedPublishes, long subscriberFailures,
+                        int queued, int highWaterMark, int capacity) { }
+
+    private record Subscriber(Class<? extends DomainEvent> type, Consumer<DomainEvent> handler, boolean async) {
+        boolean accepts(DomainEvent event) {
+            return type.isInstance(event);
+        }
+    }
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final BlockingQueue<DomainEvent> ring = new ArrayBlockingQueue<>(RING_CAPACITY);
+    private final LongAdder published = new LongAdder();
+    private final LongAdder deliveredAsync = new LongAdder();
+    private final LongAdder blockedPublishes = new LongAdder();
+    private final LongAdder subscriberFailures = new LongAdder();
+    private final AtomicInteger highWaterMark = new AtomicInteger();
+
+    private final Thread dispatcher;
+
+    public EventBus() {
+        dispatcher = new Thread(this::dispatchLoop, "event-bus");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    private static final EventBus INSTANCE = new EventBus();
+
+    static {
+        InventoryService.subscribeTo(INSTANCE);
+        MetricsService.subscribeTo(INSTANCE);
+        RevenueReportService.subscribeTo(INSTANCE);
+    }
+
+    public static EventBus getInstance() {
+        return INSTANCE;
+    }
+
+    /** Delivers matching events on the publishing thread, right after commit. */
+    public <E extends DomainEvent> Subscription subscribe(Class<E> type, Consumer<? super E> handler) {
+        return add(type, handler, false);
+    }
+
+    /** Delivers matching events on the bus thread, in publish order. */
+    public <E extends DomainEvent> Subscription subscribeAsync(Class<E> type, Consumer<? super E> handler) {
+        return add(type, handler, true);
+    }
+
+    /** Queues the event for delivery once the current transaction commits, or now when none is open. */
+    public void publish(DomainEvent event) {
+        SQLiteConnectionManager.getInstance().afterCommit(() -> dispatch(event));
+    }
+
+    public Stats getStats() {
+        return new Stats(published.sum(), deliveredAsync.sum(), blockedPublishes.sum(), subscriberFailures.sum(),
+                ring.size(), highWaterMark.get(), RING_CAPACITY);
+    }
+
+    private <E extends DomainEvent> Subscription add(Class<E> type, Consumer<? super E> handler, boolean async) {
+        @SuppressWarnings("unchecked")
+        Consumer<DomainEvent> cast = e -> handler.accept((E) e);
+        Subscriber subscriber = new Subscriber(type, cast, async);
+        subscribers.add(subscriber);
+        return () -> subscribers.remove(subscriber);
+    }
+
+    private void dispatch(DomainEvent event) {
+        published.increment();
+        boolean hasAsync = false;
+        for (Subscriber s : subscribers) {
+            if (!s.accepts(event)) continue;
+            if (s.async()) hasAsync = true;
+            else deliver(s, event);
+        }
+        if (!hasAsync) return;
+        if (!ring.offer(event)) {
+            if (Thread.currentThread() == dispatcher) {
+                // An async subscriber published into a full ring; waiting would wait on itself. Still one thread, so serial
+                deliverAsync(event);
+                return;
+            }
+            blockedPublishes.increment();
+            enqueue(event);
+        }
+        highWaterMark.accumulateAndGet(ring.size(), Math::max);
+    }
+
+    /** Waits for room; an interrupt is kept for the caller rather than losing the event. */
+    private void enqueue(DomainEvent event) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                ring.put(event);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private void dispatchLoop() {
+        while (true) {
+            try {
+                deliverAsync(ring.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void deliverAsync(DomainEvent event) {
+        for (Subscriber s : subscribers) {
+            if (s.async() && s.accepts(event)) deliver(s, event);
+        }
+        deliveredAsync.increment();
+    }
+
+    private void deliver(Subscriber subscriber, DomainEvent event) {
+        try {
+            subscriber.handler().accept(event);
+        } catch (RuntimeException e) {
+            subscriberFailures.increment();
+            LOG.log(Level.WARNING, "Event subscriber failed on " + event, e);
+        }
+    }
+}
@@ -3,8 +3,10 @@ package service;
 import dao.CustomerDAO;
 import dao.sqlite.SQLiteCustomerDAO;
 import model.Customer;
+import util.SQLiteConnectionManager;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Guest (customer) authentication. Guests log in with username/password stored in customers table.
@@ -22,28 +24,65 @@ public class GuestAuthService {
         return INSTANCE;
     }
 
+    /** Blocking login; hashing still runs on the credential pool. Prefer {@link #loginAsync} on the UI thread. */
     public int login(String username, String password) {
-        if (username == null || username.trim().isEmpty() || password == null) return -1;
+        return loginAsync(username, password).join();
+    }
+
+    /** Signs the local terminal in; completes with the customer id, or -1. */
+    public CompletableFuture<Integer> loginAsync(String username, String password) {
+        return openSessionAsync(username, password).thenApply(s -> {
+            if (s == null) return -1;
+            SessionManager.attach(s);
+            return s.getPrincipalId();
+        });
+    }
+
+    /** Verifies the password off the calling thread and completes with a new session, or null. Upgrades old hashes. */
+    public CompletableFuture<Session> openSessionAsync(String username, String password) {
+        if (username == null || username.trim().isEmpty() || password == null) return CompletableFuture.completedFuture(null);
         Optional<Customer> opt = customerDAO.findByUsername(username.trim());
-        if (opt.isEmpty()) return -1;
+        if (opt.isEmpty()) return CompletableFuture.completedFuture(null);
         Customer c = opt.get();
-        if (c.getPasswordHash() == null || c.getPasswordHash().isEmpty()) return -1;
-        String hash = AuthService.getInstance().hashPasswordForGuest(password);
-        if (!hash.equals(c.getPasswordHash())) return -1;
-        SessionManager.loginGuest(c.getCustomerId(), c.getFullName());
-        return c.getCustomerId();
+        if (c.getPasswordHash() == null || c.getPasswordHash().isEmpty()) return CompletableFuture.completedFuture(null);
+        return CredentialService.getInstance().verifyAsync(password, c.getPasswordHash()).thenApply(v -> {
+            if (!v.matches()) return null;
+            if (v.upgradedHash() != null) {
+                c.setPasswordHash(v.upgradedHash());
+                customerDAO.update(c);
+                CustomerService.getInstance().invalidate(c.getCustomerId());
+            }
+            return SessionRegistry.getInstance().open(SessionManager.UserType.GUEST, c.getCustomerId(), c.getFullName());
+        });
     }
 
+    /** Blocking form of {@link #registerAsync}. */
     public int register(String username, String fullName, String phone, String email, String idNumber, String password) {
-        if (username == null || username.trim().isEmpty()) return -1;
-        if (fullName == null || fullName.trim().isEmpty()) return -1;
-        if (password == null || password.isEmpty()) return -1;
+        return registerAsync(username, fullName, phone, email, idNumber, password).join();
+    }
+
+    /** Hashes the password off the calling thread, then creates the guest and signs it in; completes with its id, or -1. */
+    public CompletableFuture<Integer> registerAsync(String username, String fullName, String phone, String email,
+                                                    String idNumber, String password) {
+        if (username == null || username.trim().isEmpty()) return CompletableFuture.completedFuture(-1);
+        if (fullName == null || fullName.trim().isEmpty()) return CompletableFuture.completedFuture(-1);
+        if (password == null || password.isEmpty()) return CompletableFuture.completedFuture(-1);
+        if (customerDAO.findByUsername(username.trim()).isPresent()) return CompletableFuture.completedFuture(-1);
+        return CredentialService.getInstance().hashAsync(password)
+                .thenApply(hash -> saveGuest(username, fullName, phone, email, idNumber, hash));
+    }
+
+    private int saveGuest(String username, String fullName, String phone, String email, String idNumber, String hash) {
+        // Re-checked: the name may have been taken while the password was hashing
         if (customerDAO.findByUsername(username.trim()).isPresent()) return -1;
-        String hash = AuthService.getInstance().hashPasswordForGuest(password);
         Customer c = new Customer(0, fullName.trim(), phone != null ? phone : "",
                 email != null ? email : "", idNumber != null ? idNumber : "",
                 username.trim(), hash);
-        customerDAO.save(c);
+        SQLiteConnectionManager.getInstance().runInTransaction(() -> {
+            customerDAO.save(c);
+            SQLiteConnectionManager.getInstance().afterCommit(() -> MetricsService.getInstance().onCustomerAdded());
+            AuditService.getInstance().record(AuditService.CUSTOMER, c.getCustomerId(), "register", null, AuditService.describe(c));
+        });
         SessionManager.loginGuest(c.getCustomerId(), c.getFullName());
         return c.getCustomerId();
     }
@@ -0,0 +1,111 @@
+package service;
+
+import dao.IdempotencyDAO;
+import dao.IdempotencyDAO.StoredResult;
+import dao.sqlite.SQLiteIdempotencyDAO;
+import util.SQLiteConnectionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.IntSupplier;
+
+/**
+ * Makes create-style operations safe to retry.
+ * The first successful call under a key stores its result in the same transaction as its writes, together with
+ * the caller and a hash of the request; a later call with the key from the same caller for the same request
+ * returns that result without running the operation again. Keys expire after a TTL.
+ */
+public class IdempotencyService {
+    private static final Duration DEFAULT_TTL = Duration.ofHours(24);
+
+    /** The key was first used by another caller or for a different request. */
+    public static class KeyReusedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public KeyReusedException(String operation) {
+            super("Idempotency key was already used for a different " + operation + " request");
+        }
+    }
+
+    private final IdempotencyDAO idempotencyDAO;
+    private volatile Duration ttl = DEFAULT_TTL;
+
+    public IdempotencyService(IdempotencyDAO idempotencyDAO) {
+        this.idempotencyDAO = idempotencyDAO;
+    }
+
+    private static final IdempotencyService INSTANCE = new IdempotencyService(new SQLiteIdempotencyDAO());
+
+    public static IdempotencyService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Runs {@code operation} once per key. {@code request} describes the parameters, so a key replayed by
+     * another caller or with other parameters throws {@link KeyReusedException} instead of returning someone
+     * else's result. Failures (-1) are not remembered, so a retry after a rejected attempt runs again.
+     * A null key runs the operation unconditionally.
+     */
+    public int execute(String operationName, String key, String request, IntSupplier operation) {
+        if (key == null || key.isBlank()) return operation.getAsInt();
+        StoredResult attempt = new StoredResult(-1, currentPrincipal(), hash(request));
+        SQLiteConnectionManager db = SQLiteConnectionManager.getInstance();
+        try {
+            return db.inTransaction(() -> {
+                Optional<StoredResult> previous = idempotencyDAO.findResult(operationName, key, System.currentTimeMillis());
+                if (previous.isPresent()) return replay(operationName, previous.get(), attempt);
+                int result = operation.getAsInt();
+                if (result != -1) {
+                    idempotencyDAO.save(operationName, key, new StoredResult(result, attempt.principal(), attempt.requestHash()),
+                            System.currentTimeMillis() + ttl.toMillis());
+                }
+                return result;
+            });
+        } catch (KeyReusedException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // A concurrent first attempt may have claimed the key; this attempt was rolled back, so answer with its result
+            Optional<StoredResult> winner = idempotencyDAO.findResult(operationName, key, System.currentTimeMillis());
+            if (winner.isPresent()) return replay(operationName, winner.get(), attempt);
+            throw e;
+        }
+    }
+
+    /** Deletes expired keys. Returns the number removed. */
+    public int purgeExpired() {
+        return idempotencyDAO.purgeExpired(System.currentTimeMillis());
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    /** A key replays only for the caller and request that stored it. */
+    private static int replay(String operationName, StoredResult stored, StoredResult attempt) {
+        if (stored.principal() == null || !stored.principal().equals(attempt.principal())
+                || !Objects.equals(stored.requestHash(), attempt.requestHash())) {
+            throw new KeyReusedException(operationName);
+        }
+        return stored.result();
+    }
+
+    private static String currentPrincipal() {
+        Session session = SessionManager.current();
+        if (session == null) return "system";
+        return (session.isAdmin() ? "admin:" : "guest:") + session.getPrincipalId();
+    }
+
+    private static String hash(String request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(String.valueOf(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Failed to hash idempotent request", e);
+        }
+    }
+}
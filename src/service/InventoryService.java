@@ -0,0 +1,191 @@
+package service;
+
+import dao.ReservationDAO;
+import dao.RoomDAO;
+import dao.sqlite.SQLiteReservationDAO;
+import dao.sqlite.SQLiteRoomDAO;
+import model.DomainEvent;
+import model.Reservation;
+import model.Room;
+import model.RoomType;
+import util.SQLiteConnectionManager;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per room type, per night inventory counters (sold vs. total).
+ * Counts BOOKED and CHECKED_IN stays. Loaded lazily from the database, then kept current by
+ * ReservationService; room changes invalidate it so the next read reloads.
+ */
+public class InventoryService {
+    private final ReservationDAO reservationDAO;
+    private final RoomDAO roomDAO;
+
+    private final Map<RoomType, Map<LocalDate, Integer>> sold = new EnumMap<>(RoomType.class);
+    private final Map<RoomType, Integer> totals = new ConcurrentHashMap<>();
+    private final Map<RoomType, Integer> overbookingAllowances = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    /** Last transaction the counters were loaded with; its callbacks and earlier ones are already counted. */
+    private long loadedThrough;
+    /** Nights before this date are not tracked; stays that ended earlier were never loaded. */
+    private LocalDate trackedFrom = LocalDate.MIN;
+
+    public InventoryService(ReservationDAO reservationDAO, RoomDAO roomDAO) {
+        this.reservationDAO = reservationDAO;
+        this.roomDAO = roomDAO;
+        for (RoomType type : RoomType.values()) {
+            sold.put(type, new ConcurrentHashMap<>());
+        }
+    }
+
+    private static final InventoryService INSTANCE = new InventoryService(
+            new SQLiteReservationDAO(), new SQLiteRoomDAO());
+
+    public static InventoryService getInstance() {
+        return INSTANCE;
+    }
+
+    public int getTotal(RoomType roomType) {
+        ensureLoaded();
+        return totals.getOrDefault(roomType, 0);
+    }
+
+    public int getSold(RoomType roomType, LocalDate night) {
+        ensureLoaded();
+        return sold.get(roomType).getOrDefault(night, 0);
+    }
+
+    /** Rooms still sellable that night, including the overbooking allowance. May be negative when oversold. */
+    public int getRemaining(RoomType roomType, LocalDate night) {
+        ensureLoaded();
+        return totals.getOrDefault(roomType, 0) + getOverbookingAllowance(roomType)
+                - sold.get(roomType).getOrDefault(night, 0);
+    }
+
+    /** Remaining rooms for each night in [from, to). */
+    public int[] getRemaining(RoomType roomType, LocalDate from, LocalDate to) {
+        ensureLoaded();
+        int capacity = totals.getOrDefault(roomType, 0) + getOverbookingAllowance(roomType);
+        Map<LocalDate, Integer> nights = sold.get(roomType);
+        int[] remaining = new int[(int) Math.max(0, to.toEpochDay() - from.toEpochDay())];
+        LocalDate night = from;
+        for (int i = 0; i < remaining.length; i++, night = night.plusDays(1)) {
+            remaining[i] = capacity - nights.getOrDefault(night, 0);
+        }
+        return remaining;
+    }
+
+    /** True if every night of the stay has at least one room of the type left. */
+    public boolean canSell(RoomType roomType, LocalDate checkIn, LocalDate checkOut) {
+        for (int left : getRemaining(roomType, checkIn, checkOut)) {
+            if (left <= 0) return false;
+        }
+        return true;
+    }
+
+    public int getOverbookingAllowance(RoomType roomType) {
+        return overbookingAllowances.getOrDefault(roomType, 0);
+    }
+
+    public void setOverbookingAllowance(RoomType roomType, int rooms) {
+        overbookingAllowances.put(roomType, Math.max(0, rooms));
+    }
+
+    public void onReservationCreated(RoomType roomType, LocalDate checkIn, LocalDate checkOut) {
+        synchronized (this) {
+            if (isNewerThanLoad()) adjust(roomType, checkIn, checkOut, 1);
+        }
+        repriceNights(roomType, checkIn, checkOut);
+    }
+
+    public void onReservationReleased(RoomType roomType, LocalDate checkIn, LocalDate checkOut) {
+        synchronized (this) {
+            if (isNewerThanLoad()) adjust(roomType, checkIn, checkOut, -1);
+        }
+        repriceNights(roomType, checkIn, checkOut);
+    }
+
+    public void onReservationModified(RoomType oldType, LocalDate oldCheckIn, LocalDate oldCheckOut,
+                                      RoomType newType, LocalDate newCheckIn, LocalDate newCheckOut) {
+        synchronized (this) {
+            if (isNewerThanLoad()) {
+                adjust(oldType, oldCheckIn, oldCheckOut, -1);
+                adjust(newType, newCheckIn, newCheckOut, 1);
+            }
+        }
+        repriceNights(oldType, oldCheckIn, oldCheckOut);
+        repriceNights(newType, newCheckIn, newCheckOut);
+    }
+
+    /** Caller holds the lock. False when unloaded or when the load already read the committed change. */
+    private boolean isNewerThanLoad() {
+        return loaded && SQLiteConnectionManager.getInstance().committedSequence() > loadedThrough;
+    }
+
+    /** Any room change alters the totals per type. */
+    static void subscribeTo(EventBus bus) {
+        bus.subscribe(DomainEvent.RoomAdded.class, e -> getInstance().invalidate());
+        bus.subscribe(DomainEvent.RoomUpdated.class, e -> getInstance().invalidate());
+        bus.subscribe(DomainEvent.RoomDeleted.class, e -> getInstance().invalidate());
+    }
+
+    /** Drops the counters; the next read rebuilds them from the database. */
+    public void invalidate() {
+        synchronized (this) {
+            loaded = false;
+        }
+        PricingService.getInstance().invalidateAll();
+    }
+
+    /** Occupancy drives pricing, so nights whose counters moved are repriced. Called outside the lock. */
+    private static void repriceNights(RoomType roomType, LocalDate checkIn, LocalDate checkOut) {
+        if (roomType == null || checkIn == null || checkOut == null) return;
+        PricingService.getInstance().reprice(roomType, checkIn, checkOut);
+    }
+
+    /**
+     * Loads from committed data even when called inside a transaction: the transaction's own stays reach the
+     * counters through the on* callbacks after commit, so counting them here too would count them twice. A
+     * transaction that committed before the load but whose callbacks run after it is skipped the same way.
+     */
+    private void ensureLoaded() {
+        if (loaded) return;
+        synchronized (this) {
+            if (loaded) return;
+            loadedThrough = SQLiteConnectionManager.getInstance().loadCommitted(this::load);
+            loaded = true;
+        }
+    }
+
+    /** Caller holds the lock. */
+    private void load() {
+        Map<Integer, RoomType> roomTypes = new HashMap<>();
+        Map<RoomType, Integer> counts = new EnumMap<>(RoomType.class);
+        for (Room room : roomDAO.findAll()) {
+            roomTypes.put(room.getRoomId(), room.getRoomType());
+            counts.merge(room.getRoomType(), 1, Integer::sum);
+        }
+        for (RoomType type : RoomType.values()) {
+            totals.put(type, counts.getOrDefault(type, 0));
+            sold.get(type).clear();
+        }
+        trackedFrom = LocalDate.now();
+        for (Reservation r : reservationDAO.findActiveFrom(trackedFrom)) {
+            RoomType type = roomTypes.get(r.getRoomId());
+            if (type != null) adjust(type, r.getCheckInDate(), r.getCheckOutDate(), 1);
+        }
+    }
+
+    private void adjust(RoomType roomType, LocalDate checkIn, LocalDate checkOut, int delta) {
+        if (roomType == null || checkIn == null || checkOut == null) return;
+        Map<LocalDate, Integer> nights = sold.get(roomType);
+        LocalDate start = checkIn.isBefore(trackedFrom) ? trackedFrom : checkIn;
+        for (LocalDate night = start; night.isBefore(checkOut); night = night.plusDays(1)) {
+            nights.merge(night, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+}
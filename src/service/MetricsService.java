@@ -0,0 +1,165 @@
+package service;
+
+import dao.CustomerDAO;
+import dao.ReservationDAO;
+import dao.RoomDAO;
+import dao.RoomNightDAO;
+import dao.sqlite.SQLiteCustomerDAO;
+import dao.sqlite.SQLiteReservationDAO;
+import dao.sqlite.SQLiteRoomDAO;
+import dao.sqlite.SQLiteRoomNightDAO;
+import model.DashboardMetrics;
+import model.DomainEvent;
+import model.Reservation;
+import model.ReservationStatus;
+import util.SQLiteConnectionManager;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dashboard counters.
+ * Loaded with COUNT queries on first use and again when the date rolls over, then kept current by the
+ * services through {@link #onReservationChanged} and the room/customer hooks. Reads and updates are
+ * single atomic operations; only a reload takes a lock. Hooks run after commit, so those of transactions the
+ * reload already read are skipped.
+ */
+public class MetricsService {
+    /** What a reservation contributes to the counters: its status and dates, or null for none. */
+    public record Stay(ReservationStatus status, LocalDate checkIn, LocalDate checkOut) {
+        public static Stay of(Reservation r) {
+            return new Stay(r.getStatus(), r.getCheckInDate(), r.getCheckOutDate());
+        }
+    }
+
+    /** One business date's counters; replaced wholesale on reload. */
+    private static final class Counters {
+        final LocalDate day;
+        /** Last transaction the load read; changes from it and earlier ones are already counted. */
+        long loadedThrough;
+        final AtomicInteger rooms = new AtomicInteger();
+        final AtomicInteger customers = new AtomicInteger();
+        final AtomicInteger reservations = new AtomicInteger();
+        final AtomicInteger inHouse = new AtomicInteger();
+        final AtomicInteger arrivals = new AtomicInteger();
+        final AtomicInteger departures = new AtomicInteger();
+        final AtomicInteger occupied = new AtomicInteger();
+
+        Counters(LocalDate day) {
+            this.day = day;
+        }
+
+        boolean predatesChange() {
+            return SQLiteConnectionManager.getInstance().committedSequence() > loadedThrough;
+        }
+
+        void apply(Stay stay, int sign) {
+            if (stay == null) return;
+            reservations.addAndGet(sign);
+            ReservationStatus status = stay.status();
+            if (status == ReservationStatus.CHECKED_IN) {
+                inHouse.addAndGet(sign);
+                if (day.equals(stay.checkOut())) departures.addAndGet(sign);
+            }
+            if (status == ReservationStatus.BOOKED && day.equals(stay.checkIn())) arrivals.addAndGet(sign);
+            boolean active = status == ReservationStatus.BOOKED || status == ReservationStatus.CHECKED_IN;
+            if (active && stay.checkIn() != null && stay.checkOut() != null
+                    && !stay.checkIn().isAfter(day) && stay.checkOut().isAfter(day)) {
+                occupied.addAndGet(sign);
+            }
+        }
+    }
+
+    private final RoomDAO roomDAO;
+    private final CustomerDAO customerDAO;
+    private final ReservationDAO reservationDAO;
+    private final RoomNightDAO roomNightDAO;
+
+    private volatile Counters counters;
+
+    public MetricsService(RoomDAO roomDAO, CustomerDAO customerDAO, ReservationDAO reservationDAO, RoomNightDAO roomNightDAO) {
+        this.roomDAO = roomDAO;
+        this.customerDAO = customerDAO;
+        this.reservationDAO = reservationDAO;
+        this.roomNightDAO = roomNightDAO;
+    }
+
+    private static final MetricsService INSTANCE = new MetricsService(
+            new SQLiteRoomDAO(), new SQLiteCustomerDAO(), new SQLiteReservationDAO(), new SQLiteRoomNightDAO());
+
+    public static MetricsService getInstance() {
+        return INSTANCE;
+    }
+
+    public DashboardMetrics getMetrics() {
+        Counters c = current();
+        return new DashboardMetrics(c.day, c.rooms.get(), c.customers.get(), c.reservations.get(), c.inHouse.get(),
+                c.arrivals.get(), c.departures.get(), c.occupied.get());
+    }
+
+    /** A reservation was created ({@code before} null), changed, or deleted ({@code after} null). */
+    public void onReservationChanged(Stay before, Stay after) {
+        Counters c = counters;
+        if (c == null || !c.day.equals(LocalDate.now()) || !c.predatesChange()) return;
+        c.apply(before, -1);
+        c.apply(after, 1);
+    }
+
+    static void subscribeTo(EventBus bus) {
+        bus.subscribe(DomainEvent.RoomAdded.class, e -> getInstance().onRoomAdded());
+        bus.subscribe(DomainEvent.RoomDeleted.class, e -> getInstance().onRoomDeleted());
+    }
+
+    public void onRoomAdded() {
+        Counters c = counters;
+        if (c != null && c.predatesChange()) c.rooms.incrementAndGet();
+    }
+
+    public void onRoomDeleted() {
+        Counters c = counters;
+        if (c != null && c.predatesChange()) c.rooms.decrementAndGet();
+    }
+
+    public void onCustomerAdded() {
+        Counters c = counters;
+        if (c != null && c.predatesChange()) c.customers.incrementAndGet();
+    }
+
+    public void onCustomerDeleted() {
+        Counters c = counters;
+        if (c != null && c.predatesChange()) c.customers.decrementAndGet();
+    }
+
+    /** Discards the counters; the next read reloads them from the database. */
+    public void refresh() {
+        counters = null;
+    }
+
+    private Counters current() {
+        Counters c = counters;
+        LocalDate today = LocalDate.now();
+        if (c != null && c.day.equals(today)) return c;
+        synchronized (this) {
+            c = counters;
+            if (c != null && c.day.equals(today)) return c;
+            Counters loading = new Counters(today);
+            loading.loadedThrough = SQLiteConnectionManager.getInstance().loadCommitted(() -> load(loading));
+            c = loading;
+            counters = c;
+            return c;
+        }
+    }
+
+    private void load(Counters c) {
+        LocalDate today = c.day;
+        c.rooms.set(roomDAO.count());
+        c.customers.set(customerDAO.count());
+        Map<ReservationStatus, Integer> byStatus = reservationDAO.countByStatus();
+        c.reservations.set(byStatus.values().stream().mapToInt(Integer::intValue).sum());
+        c.inHouse.set(byStatus.getOrDefault(ReservationStatus.CHECKED_IN, 0));
+        c.arrivals.set(reservationDAO.countByStatusAndCheckIn(ReservationStatus.BOOKED, today));
+        c.departures.set(reservationDAO.countByStatusAndCheckOut(ReservationStatus.CHECKED_IN, today));
+        c.occupied.set(roomNightDAO.countOccupiedByNight(today, today.plusDays(1)).getOrDefault(today, 0));
+    }
+}
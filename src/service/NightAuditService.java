@@ -0,0 +1,186 @@
+package service;
+
+import dao.DailySnapshotDAO;
+import dao.PaymentDAO;
+import dao.ReservationDAO;
+import dao.RoomNightDAO;
+import dao.sqlite.SQLiteDailySnapshotDAO;
+import dao.sqlite.SQLitePaymentDAO;
+import dao.sqlite.SQLiteReservationDAO;
+import dao.sqlite.SQLiteRoomNightDAO;
+import model.BulkOutcome;
+import model.DailySnapshot;
+import model.ReservationStatus;
+import model.RoomType;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Night audit: closes the previous business day on a background thread.
+ * No-shows and overdue stays are moved to their final status in small batches, each its own short
+ * transaction, so the write lock is released between batches. Then the day's revenue and occupancy
+ * are snapshotted and the derived caches are rolled forward.
+ */
+public class NightAuditService {
+    private static final Logger LOG = Logger.getLogger(NightAuditService.class.getName());
+    private static final int BATCH_SIZE = 200;
+    /** Who the audit trail names for changes made by the night audit. */
+    private static final String AUDIT_ACTOR = "night-audit";
+    private static final LocalTime DEFAULT_RUN_AT = LocalTime.of(3, 0);
+
+    private final ReservationDAO reservationDAO;
+    private final PaymentDAO paymentDAO;
+    private final RoomNightDAO roomNightDAO;
+    private final DailySnapshotDAO snapshotDAO;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private ScheduledExecutorService scheduler;
+
+    public NightAuditService(ReservationDAO reservationDAO, PaymentDAO paymentDAO,
+                             RoomNightDAO roomNightDAO, DailySnapshotDAO snapshotDAO) {
+        this.reservationDAO = reservationDAO;
+        this.paymentDAO = paymentDAO;
+        this.roomNightDAO = roomNightDAO;
+        this.snapshotDAO = snapshotDAO;
+    }
+
+    private static final NightAuditService INSTANCE = new NightAuditService(
+            new SQLiteReservationDAO(), new SQLitePaymentDAO(), new SQLiteRoomNightDAO(), new SQLiteDailySnapshotDAO());
+
+    public static NightAuditService getInstance() {
+        return INSTANCE;
+    }
+
+    /** Schedules the audit daily at 03:00. A day missed while the app was closed is caught up immediately. */
+    public synchronized void start() {
+        start(DEFAULT_RUN_AT);
+    }
+
+    public synchronized void start(LocalTime runAt) {
+        if (scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "night-audit");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        if (snapshotDAO.findByDate(yesterday).isEmpty()) {
+            scheduler.execute(this::runScheduled);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = now.toLocalDate().atTime(runAt);
+        if (!next.isAfter(now)) next = next.plusDays(1);
+        scheduler.scheduleAtFixedRate(this::runScheduled, Duration.between(now, next).toMillis(),
+                TimeUnit.DAYS.toMillis(1), TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void shutdown() {
+        if (scheduler == null) return;
+        scheduler.shutdownNow();
+        scheduler = null;
+    }
+
+    /** Runs the audit for yesterday on the calling thread. Empty if an audit is already in progress. */
+    public Optional<DailySnapshot> runNow() {
+        return runAudit(LocalDate.now().minusDays(1));
+    }
+
+    /**
+     * Closes {@code businessDate}: BOOKED stays that should have arrived by then become NO_SHOW, CHECKED_IN
+     * stays that should have left are completed, and the day's snapshot is written (replacing any earlier one).
+     */
+    public Optional<DailySnapshot> runAudit(LocalDate businessDate) {
+        if (!running.compareAndSet(false, true)) return Optional.empty();
+        try {
+            return Optional.of(AuditService.getInstance().runAs(AUDIT_ACTOR, () -> audit(businessDate)));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private DailySnapshot audit(LocalDate businessDate) {
+        long started = System.nanoTime();
+        LocalDate today = businessDate.plusDays(1);
+        ReservationService reservations = ReservationService.getInstance();
+        int noShows = drain(limit -> reservationDAO.findIdsArrivingBefore(ReservationStatus.BOOKED, today, limit),
+                reservations::markNoShows);
+        // Snapshot before completing overdue stays: their past nights still count as occupied
+        int occupied = roomNightDAO.countOccupiedByNight(businessDate, today).getOrDefault(businessDate, 0);
+        int checkOuts = drain(limit -> reservationDAO.findIdsDepartingBefore(ReservationStatus.CHECKED_IN, today, limit),
+                reservations::checkOutAll);
+
+        InventoryService inventory = InventoryService.getInstance();
+        int totalRooms = 0;
+        for (RoomType type : RoomType.values()) {
+            totalRooms += inventory.getTotal(type);
+        }
+        double revenue = paymentDAO.sumAmountBetween(businessDate.atStartOfDay(), today.atStartOfDay());
+        DailySnapshot snapshot = snapshotDAO.save(
+                new DailySnapshot(businessDate, revenue, occupied, totalRooms, noShows, checkOuts));
+
+        // Roll derived state forward to the new business day; dropping inventory also rewrites the rate horizon
+        inventory.invalidate();
+        MetricsService.getInstance().refresh();
+        int moved = RoomAssignmentService.getInstance().reoptimize(today);
+        int expiredKeys = IdempotencyService.getInstance().purgeExpired();
+
+        LOG.info(String.format("Night audit %s done in %d ms: %d no-shows, %d auto check-outs, %d reservations re-roomed, "
+                        + "%d idempotency keys expired, revenue %.2f, occupancy %d/%d",
+                businessDate, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started),
+                noShows, checkOuts, moved, expiredKeys, revenue, occupied, totalRooms));
+        return snapshot;
+    }
+
+    public Optional<DailySnapshot> getSnapshot(LocalDate businessDate) {
+        return snapshotDAO.findByDate(businessDate);
+    }
+
+    public List<DailySnapshot> getSnapshots(LocalDate from, LocalDate to) {
+        return snapshotDAO.findBetween(from, to);
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /** Keeps transitioning batches until the query runs dry. Returns how many were updated. */
+    private static int drain(Function<Integer, List<Integer>> nextBatch,
+                             Function<List<Integer>, Map<Integer, BulkOutcome>> transition) {
+        int updated = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Integer> ids = nextBatch.apply(BATCH_SIZE);
+            if (ids.isEmpty()) break;
+            int batchUpdated = 0;
+            for (BulkOutcome outcome : transition.apply(ids).values()) {
+                if (outcome == BulkOutcome.UPDATED) batchUpdated++;
+            }
+            updated += batchUpdated;
+            // Rows that did not move would be fetched again forever
+            if (batchUpdated == 0) break;
+        }
+        return updated;
+    }
+
+    private void runScheduled() {
+        try {
+            runNow();
+        } catch (RuntimeException e) {
+            // An escaping exception would cancel the periodic task
+            LOG.log(Level.SEVERE, "Night audit failed", e);
+        }
+    }
+}
@@ -1,56 +1,127 @@
 package service;
 
 import dao.PaymentDAO;
+import dao.ReservationBalanceDAO;
 import dao.ReservationDAO;
 import dao.sqlite.SQLitePaymentDAO;
+import dao.sqlite.SQLiteReservationBalanceDAO;
 import dao.sqlite.SQLiteReservationDAO;
+import model.DomainEvent;
 import model.Payment;
 import model.PaymentMethod;
 import model.Reservation;
+import model.ReservationBalance;
+import util.LruCache;
+import util.SQLiteConnectionManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Payment business logic.
+ * Keeps a bounded per-customer payment ledger cache; payment writes patch the affected ledger in place
+ * instead of dropping it. Each write adjusts the reservation's materialized balance in the same transaction.
  */
 public class PaymentService {
     private final PaymentDAO paymentDAO;
     private final ReservationDAO reservationDAO;
+    private final ReservationBalanceDAO balanceDAO;
 
-    public PaymentService(PaymentDAO paymentDAO, ReservationDAO reservationDAO) {
+    /** Customer id to an immutable list of their payments, in payment id order. */
+    private final LruCache<Integer, List<Payment>> ledgers = new LruCache<>(Integer.getInteger("hotel.cache.ledgers", 5_000));
+
+    public PaymentService(PaymentDAO paymentDAO, ReservationDAO reservationDAO, ReservationBalanceDAO balanceDAO) {
         this.paymentDAO = paymentDAO;
         this.reservationDAO = reservationDAO;
+        this.balanceDAO = balanceDAO;
     }
 
     private static final PaymentService INSTANCE = new PaymentService(
-            new SQLitePaymentDAO(), new SQLiteReservationDAO());
+            new SQLitePaymentDAO(), new SQLiteReservationDAO(), new SQLiteReservationBalanceDAO());
 
     public static PaymentService getInstance() {
         return INSTANCE;
     }
 
     public int recordPayment(int reservationId, double amount, PaymentMethod method) {
-        if (reservationDAO.findById(reservationId).isEmpty()) return -1;
-        if (amount <= 0) return -1;
-        Payment p = new Payment(0, reservationId, amount, method, LocalDateTime.now());
-        return paymentDAO.save(p).getPaymentId();
+        return recordPayment(null, reservationId, amount, method);
+    }
+
+    /** As above; a retry with the same idempotency key returns the first payment's id instead of charging again. */
+    public int recordPayment(String idempotencyKey, int reservationId, double amount, PaymentMethod method) {
+        String request = "reservation=" + reservationId + ", amount=" + amount + ", method=" + method;
+        return IdempotencyService.getInstance().execute("recordPayment", idempotencyKey, request,
+                () -> doRecordPayment(reservationId, amount, method));
+    }
+
+    private int doRecordPayment(int reservationId, double amount, PaymentMethod method) {
+        return db().inTransaction(() -> {
+            Optional<Reservation> reservation = reservationDAO.findById(reservationId);
+            if (reservation.isEmpty()) return -1;
+            if (amount <= 0) return -1;
+            Payment p = new Payment(0, reservationId, amount, method, LocalDateTime.now());
+            paymentDAO.save(p);
+            balanceDAO.addPaid(reservationId, amount);
+            EventBus.getInstance().publish(new DomainEvent.PaymentRecorded(p.getPaymentId(), reservationId, amount, method));
+            AuditService.getInstance().record(AuditService.PAYMENT, p.getPaymentId(), "create", null, AuditService.describe(p));
+            int customerId = reservation.get().getCustomerId();
+            db().afterCommit(() -> ledgers.computeIfPresent(customerId, ledger -> {
+                List<Payment> appended = new ArrayList<>(ledger);
+                appended.add(p);
+                return List.copyOf(appended);
+            }));
+            return p.getPaymentId();
+        });
     }
 
     public boolean updatePayment(int paymentId, double amount, PaymentMethod method) {
-        Optional<Payment> opt = paymentDAO.findById(paymentId);
-        if (opt.isEmpty()) return false;
-        if (amount <= 0) return false;
-        Payment p = opt.get();
-        p.setAmount(amount);
-        p.setMethod(method);
-        paymentDAO.update(p);
-        return true;
+        return db().inTransaction(() -> {
+            Optional<Payment> opt = paymentDAO.findById(paymentId);
+            if (opt.isEmpty()) return false;
+            if (amount <= 0) return false;
+            Payment p = opt.get();
+            double oldAmount = p.getAmount();
+            String before = AuditService.describe(p);
+            double delta = amount - oldAmount;
+            p.setAmount(amount);
+            p.setMethod(method);
+            paymentDAO.update(p);
+            if (delta != 0) balanceDAO.addPaid(p.getReservationId(), delta);
+            invalidateRevenue(p);
+            EventBus.getInstance().publish(
+                    new DomainEvent.PaymentUpdated(paymentId, p.getReservationId(), oldAmount, amount, method));
+            AuditService.getInstance().record(AuditService.PAYMENT, paymentId, "update", before, AuditService.describe(p));
+            customerOf(p).ifPresent(customerId -> db().afterCommit(() -> ledgers.computeIfPresent(customerId,
+                    ledger -> ledger.stream().map(e -> e.getPaymentId() == paymentId ? p : e).toList())));
+            return true;
+        });
     }
 
     public boolean deletePayment(int paymentId) {
-        return paymentDAO.delete(paymentId);
+        return db().inTransaction(() -> {
+            Optional<Payment> opt = paymentDAO.findById(paymentId);
+            if (opt.isEmpty() || !paymentDAO.delete(paymentId)) return false;
+            Payment p = opt.get();
+            balanceDAO.addPaid(p.getReservationId(), -p.getAmount());
+            invalidateRevenue(p);
+            EventBus.getInstance().publish(new DomainEvent.PaymentDeleted(paymentId, p.getReservationId(), p.getAmount()));
+            AuditService.getInstance().record(AuditService.PAYMENT, paymentId, "delete", AuditService.describe(p), null);
+            customerOf(p).ifPresent(customerId -> db().afterCommit(() -> ledgers.computeIfPresent(customerId,
+                    ledger -> ledger.stream().filter(e -> e.getPaymentId() != paymentId).toList())));
+            return true;
+        });
+    }
+
+    /** Charged, paid and outstanding amounts of the reservation. */
+    public Optional<ReservationBalance> getBalance(int reservationId) {
+        return balanceDAO.findByReservationId(reservationId);
+    }
+
+    /** Reservations that still owe money, largest balance first. */
+    public List<ReservationBalance> findOutstandingBalances() {
+        return balanceDAO.findOutstanding();
     }
 
     public List<Payment> findAll() {
@@ -61,14 +132,34 @@ public class PaymentService {
         return paymentDAO.findByReservationId(reservationId);
     }
 
+    /** The customer's payment ledger, served from cache after the first load. */
     public List<Payment> findByCustomerId(int customerId) {
-        List<Reservation> reservations = reservationDAO.findByCustomerId(customerId);
-        return reservations.stream()
-                .flatMap(r -> paymentDAO.findByReservationId(r.getReservationId()).stream())
-                .toList();
+        return ledgers.get(customerId, id -> Optional.of(List.copyOf(paymentDAO.findByCustomerId(id)))).orElseThrow();
     }
 
     public Optional<Payment> findById(int paymentId) {
         return paymentDAO.findById(paymentId);
     }
+
+    /** Drops a customer's cached ledger, e.g. when one of their reservations moves to another customer. */
+    public void invalidateLedger(int customerId) {
+        ledgers.invalidate(customerId);
+    }
+
+    public LruCache.Stats getCacheStats() {
+        return ledgers.getStats();
+    }
+
+    private static void invalidateRevenue(Payment payment) {
+        if (payment.getPaymentDate() == null) return;
+        db().afterCommit(() -> RevenueReportService.getInstance().invalidateDay(payment.getPaymentDate().toLocalDate()));
+    }
+
+    private Optional<Integer> customerOf(Payment payment) {
+        return reservationDAO.findById(payment.getReservationId()).map(Reservation::getCustomerId);
+    }
+
+    private static SQLiteConnectionManager db() {
+        return SQLiteConnectionManager.getInstance();
+    }
 }
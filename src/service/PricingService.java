@@ -0,0 +1,181 @@
+package service;
+
+import dao.RateDAO;
+import dao.sqlite.SQLiteRateDAO;
+import model.Room;
+import model.RoomType;
+import util.LruCache;
+import util.SQLiteConnectionManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Dynamic pricing engine.
+ * A night's rate is the room's pricePerNight times a multiplier for its room type and night, built from
+ * occupancy bands, day of week and seasons. room_rates holds the multipliers of the next {@link #HORIZON_DAYS}
+ * nights and quotes read them through a bounded cache. {@link #recompute} rewrites a range in a batch; an
+ * inventory change rewrites only the nights it touched.
+ */
+public class PricingService {
+    /** A date range (inclusive, year-agnostic) with its own multiplier. May wrap the new year. */
+    private record Season(MonthDay start, MonthDay end, double multiplier) {
+        boolean contains(LocalDate date) {
+            MonthDay md = MonthDay.from(date);
+            return start.isAfter(end)
+                    ? !md.isBefore(start) || !md.isAfter(end)
+                    : !md.isBefore(start) && !md.isAfter(end);
+        }
+    }
+
+    private record RateKey(RoomType roomType, LocalDate night) {}
+
+    /** Nights ahead kept in room_rates. */
+    private static final int HORIZON_DAYS = 180;
+
+    private final RateDAO rateDAO;
+
+    private final LruCache<RateKey, Double> cache = new LruCache<>(Integer.getInteger("hotel.cache.rates", 4_000));
+    private final Map<DayOfWeek, Double> dayOfWeekMultipliers = new ConcurrentHashMap<>();
+    private final List<Season> seasons = new CopyOnWriteArrayList<>();
+    /** Occupancy ratio (lower bound) to multiplier, highest band wins. */
+    private final NavigableMap<Double, Double> occupancyBands = new ConcurrentSkipListMap<>();
+
+    public PricingService(RateDAO rateDAO) {
+        this.rateDAO = rateDAO;
+        dayOfWeekMultipliers.put(DayOfWeek.FRIDAY, 1.10);
+        dayOfWeekMultipliers.put(DayOfWeek.SATURDAY, 1.10);
+        seasons.add(new Season(MonthDay.of(12, 20), MonthDay.of(1, 5), 1.20));
+        seasons.add(new Season(MonthDay.of(7, 1), MonthDay.of(8, 31), 1.15));
+        occupancyBands.put(0.0, 0.90);
+        occupancyBands.put(0.50, 1.00);
+        occupancyBands.put(0.75, 1.15);
+        occupancyBands.put(0.90, 1.30);
+    }
+
+    private static final PricingService INSTANCE = new PricingService(new SQLiteRateDAO());
+
+    public static PricingService getInstance() {
+        return INSTANCE;
+    }
+
+    /** Price of one night in the room. */
+    public double getNightlyRate(Room room, LocalDate night) {
+        return round(room.getPricePerNight() * getMultiplier(room.getRoomType(), night));
+    }
+
+    /** Price of each night of the stay, in date order. */
+    public Map<LocalDate, Double> getNightlyRates(Room room, LocalDate checkIn, LocalDate checkOut) {
+        Map<LocalDate, Double> rates = new LinkedHashMap<>();
+        for (LocalDate night = checkIn; night.isBefore(checkOut); night = night.plusDays(1)) {
+            rates.put(night, getNightlyRate(room, night));
+        }
+        return rates;
+    }
+
+    public double getStayPrice(Room room, LocalDate checkIn, LocalDate checkOut) {
+        double total = 0;
+        for (LocalDate night = checkIn; night.isBefore(checkOut); night = night.plusDays(1)) {
+            total += getNightlyRate(room, night);
+        }
+        return round(total);
+    }
+
+    /** Stored multiplier of the night, computed only for nights room_rates does not hold. */
+    public double getMultiplier(RoomType roomType, LocalDate night) {
+        return cache.get(new RateKey(roomType, night), key -> {
+            Double stored = rateDAO.findRates(roomType, night, night.plusDays(1)).get(night);
+            return Optional.of(stored != null ? stored : computeMultiplier(roomType, night));
+        }).orElseThrow();
+    }
+
+    /**
+     * Batch job: recomputes every type's multipliers for nights in [from, to) and stores them in room_rates.
+     * Writers are serialised so the last one to store a night computed it from the latest counters.
+     */
+    public synchronized void recompute(LocalDate from, LocalDate to) {
+        Map<RoomType, Map<LocalDate, Double>> computed = new EnumMap<>(RoomType.class);
+        for (RoomType type : RoomType.values()) {
+            computed.put(type, computeRange(type, from, to));
+        }
+        SQLiteConnectionManager.getInstance().runInTransaction(() ->
+                computed.forEach(rateDAO::saveRates));
+        cache.invalidateAll();
+        QuoteService.getInstance().invalidate();
+    }
+
+    /** Rewrites the stored multipliers of nights whose occupancy changed. */
+    public synchronized void reprice(RoomType roomType, LocalDate from, LocalDate to) {
+        rateDAO.saveRates(roomType, computeRange(roomType, from, to));
+        for (LocalDate night = from; night.isBefore(to); night = night.plusDays(1)) {
+            cache.invalidate(new RateKey(roomType, night));
+        }
+        QuoteService.getInstance().invalidate();
+    }
+
+    /** Pricing rules or room counts changed, so every stored night is stale; rewrites the horizon once committed. */
+    public void invalidateAll() {
+        SQLiteConnectionManager.getInstance().afterCommit(() -> {
+            LocalDate today = LocalDate.now();
+            recompute(today, today.plusDays(HORIZON_DAYS));
+        });
+    }
+
+    public LruCache.Stats getCacheStats() {
+        return cache.getStats();
+    }
+
+    public void setDayOfWeekMultiplier(DayOfWeek day, double multiplier) {
+        dayOfWeekMultipliers.put(day, multiplier);
+        invalidateAll();
+    }
+
+    public void addSeason(MonthDay start, MonthDay end, double multiplier) {
+        seasons.add(new Season(start, end, multiplier));
+        invalidateAll();
+    }
+
+    /** Sets the multiplier applied once a night's occupancy ratio reaches {@code minOccupancy}. */
+    public void setOccupancyBand(double minOccupancy, double multiplier) {
+        occupancyBands.put(minOccupancy, multiplier);
+        invalidateAll();
+    }
+
+    private Map<LocalDate, Double> computeRange(RoomType roomType, LocalDate from, LocalDate to) {
+        Map<LocalDate, Double> nights = new TreeMap<>();
+        for (LocalDate night = from; night.isBefore(to); night = night.plusDays(1)) {
+            nights.put(night, computeMultiplier(roomType, night));
+        }
+        return nights;
+    }
+
+    private double computeMultiplier(RoomType roomType, LocalDate night) {
+        double multiplier = dayOfWeekMultipliers.getOrDefault(night.getDayOfWeek(), 1.0);
+        for (Season season : seasons) {
+            if (season.contains(night)) multiplier *= season.multiplier();
+        }
+        InventoryService inventory = InventoryService.getInstance();
+        int total = inventory.getTotal(roomType);
+        if (total > 0) {
+            double occupancy = (double) inventory.getSold(roomType, night) / total;
+            Map.Entry<Double, Double> band = occupancyBands.floorEntry(occupancy);
+            if (band != null) multiplier *= band.getValue();
+        }
+        return round(multiplier);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
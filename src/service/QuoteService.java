@@ -0,0 +1,107 @@
+package service;
+
+import dao.RoomDAO;
+import dao.sqlite.SQLiteRoomDAO;
+import model.Room;
+import model.RoomType;
+import model.StayQuote;
+import util.LruCache;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Stay quotes: per-night rates, taxes, total and deposit for a room or room type.
+ * Results sit in a bounded LRU cache, cleared whenever rates or availability change.
+ */
+public class QuoteService {
+    private record QuoteKey(int roomId, RoomType roomType, LocalDate checkIn, LocalDate checkOut, int guests) { }
+
+    private final RoomDAO roomDAO;
+    private final LruCache<QuoteKey, StayQuote> cache = new LruCache<>(Integer.getInteger("hotel.cache.quotes", 256));
+    private volatile double taxRate = 0.10;
+    private volatile double depositRate = 0.30;
+    private volatile int includedGuests = 2;
+    private volatile double extraGuestFeePerNight = 0.0;
+
+    public QuoteService(RoomDAO roomDAO) {
+        this.roomDAO = roomDAO;
+    }
+
+    private static final QuoteService INSTANCE = new QuoteService(new SQLiteRoomDAO());
+
+    public static QuoteService getInstance() {
+        return INSTANCE;
+    }
+
+    /** Quote for a specific room, or empty if the room does not exist or the dates are invalid. */
+    public Optional<StayQuote> quoteRoom(int roomId, LocalDate checkIn, LocalDate checkOut, int guests) {
+        if (!validDates(checkIn, checkOut)) return Optional.empty();
+        QuoteKey key = new QuoteKey(roomId, null, checkIn, checkOut, Math.max(guests, 1));
+        return cache.get(key, k -> roomDAO.findById(roomId).map(room -> build(room, checkIn, checkOut, k.guests())));
+    }
+
+    /** Quote for the room the assignment engine would pick for this type, or empty if the type is sold out. */
+    public Optional<StayQuote> quoteRoomType(RoomType roomType, LocalDate checkIn, LocalDate checkOut, int guests) {
+        if (roomType == null || !validDates(checkIn, checkOut)) return Optional.empty();
+        QuoteKey key = new QuoteKey(0, roomType, checkIn, checkOut, Math.max(guests, 1));
+        return cache.get(key, k -> RoomAssignmentService.getInstance().findBestRoom(roomType, checkIn, checkOut)
+                .map(room -> build(room, checkIn, checkOut, k.guests())));
+    }
+
+    /** Called when rates or availability change. */
+    public void invalidate() {
+        cache.invalidateAll();
+    }
+
+    public LruCache.Stats getCacheStats() {
+        return cache.getStats();
+    }
+
+    public double getTaxRate() {
+        return taxRate;
+    }
+
+    public void setTaxRate(double taxRate) {
+        this.taxRate = taxRate;
+        invalidate();
+    }
+
+    public void setDepositRate(double depositRate) {
+        this.depositRate = depositRate;
+        invalidate();
+    }
+
+    public void setExtraGuestFee(int includedGuests, double feePerNight) {
+        this.includedGuests = includedGuests;
+        this.extraGuestFeePerNight = feePerNight;
+        invalidate();
+    }
+
+    private StayQuote build(Room room, LocalDate checkIn, LocalDate checkOut, int guests) {
+        double extraGuestFee = Math.max(0, guests - includedGuests) * extraGuestFeePerNight;
+        Map<LocalDate, Double> nightly = new LinkedHashMap<>();
+        double subtotal = 0;
+        for (Map.Entry<LocalDate, Double> e : PricingService.getInstance().getNightlyRates(room, checkIn, checkOut).entrySet()) {
+            double rate = round(e.getValue() + extraGuestFee);
+            nightly.put(e.getKey(), rate);
+            subtotal += rate;
+        }
+        subtotal = round(subtotal);
+        double taxes = round(subtotal * taxRate);
+        double total = round(subtotal + taxes);
+        double deposit = round(total * depositRate);
+        return new StayQuote(room.getRoomId(), room.getRoomNumber(), room.getRoomType(), checkIn, checkOut,
+                guests, nightly, subtotal, taxes, total, deposit);
+    }
+
+    private static boolean validDates(LocalDate checkIn, LocalDate checkOut) {
+        return checkIn != null && checkOut != null && checkOut.isAfter(checkIn);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
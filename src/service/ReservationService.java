@@ -1,131 +1,368 @@
 package service;
 
+import dao.ReservationBalanceDAO;
 import dao.ReservationDAO;
 import dao.RoomDAO;
+import dao.RoomNightDAO;
+import dao.sqlite.SQLiteReservationBalanceDAO;
 import dao.sqlite.SQLiteReservationDAO;
 import dao.sqlite.SQLiteRoomDAO;
+import dao.sqlite.SQLiteRoomNightDAO;
 import model.Reservation;
+import model.BulkOutcome;
+import model.DomainEvent;
 import model.ReservationStatus;
+import model.ReservationRow;
 import model.Room;
-import model.RoomStatus;
+import model.RoomType;
+import model.StayQuote;
+import util.SQLiteConnectionManager;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Reservation business logic.
- * Checks room availability, validates dates, prevents double booking, updates room status.
+ * Checks room availability, validates dates, prevents double booking.
+ * Each change runs in one transaction together with its room_nights rows, from which room status is derived,
+ * and its reservation_balances charge.
  */
 public class ReservationService {
     private final ReservationDAO reservationDAO;
     private final RoomDAO roomDAO;
+    private final RoomNightDAO roomNightDAO;
+    private final ReservationBalanceDAO balanceDAO;
 
-    public ReservationService(ReservationDAO reservationDAO, RoomDAO roomDAO) {
+    public ReservationService(ReservationDAO reservationDAO, RoomDAO roomDAO, RoomNightDAO roomNightDAO,
+                              ReservationBalanceDAO balanceDAO) {
         this.reservationDAO = reservationDAO;
         this.roomDAO = roomDAO;
+        this.roomNightDAO = roomNightDAO;
+        this.balanceDAO = balanceDAO;
     }
 
     private static final ReservationService INSTANCE = new ReservationService(
-            new SQLiteReservationDAO(), new SQLiteRoomDAO());
+            new SQLiteReservationDAO(), new SQLiteRoomDAO(), new SQLiteRoomNightDAO(), new SQLiteReservationBalanceDAO());
 
     public static ReservationService getInstance() {
         return INSTANCE;
     }
 
     public int createReservation(int customerId, int roomId, LocalDate checkIn, LocalDate checkOut, int numberOfGuests) {
-        String validation = validateReservation(null, customerId, roomId, checkIn, checkOut);
-        if (validation != null) return -1;
-        if (numberOfGuests < 1) numberOfGuests = 1;
-
-        Reservation r = new Reservation(0, customerId, roomId, checkIn, checkOut, numberOfGuests, ReservationStatus.BOOKED);
-        reservationDAO.save(r);
-        roomDAO.findById(roomId).ifPresent(room -> {
-            room.setStatus(RoomStatus.OCCUPIED);
-            roomDAO.update(room);
+        return createReservation(null, customerId, roomId, checkIn, checkOut, numberOfGuests);
+    }
+
+    /** As above; a retry with the same idempotency key returns the first reservation's id instead of booking again. */
+    public int createReservation(String idempotencyKey, int customerId, int roomId, LocalDate checkIn, LocalDate checkOut,
+                                 int numberOfGuests) {
+        String request = "customer=" + customerId + ", room=" + roomId + ", checkIn=" + checkIn + ", checkOut=" + checkOut
+                + ", guests=" + numberOfGuests;
+        return IdempotencyService.getInstance().execute("createReservation", idempotencyKey, request,
+                () -> doCreateReservation(customerId, roomId, checkIn, checkOut, numberOfGuests));
+    }
+
+    private int doCreateReservation(int customerId, int roomId, LocalDate checkIn, LocalDate checkOut, int numberOfGuests) {
+        int guests = Math.max(numberOfGuests, 1);
+        // Priced before anything is written, so the quote cannot see this booking
+        double charged = charge(roomId, checkIn, checkOut, guests);
+        return db().inTransaction(() -> {
+            String validation = validateReservation(null, customerId, roomId, checkIn, checkOut);
+            if (validation != null) return -1;
+
+            Reservation r = new Reservation(0, customerId, roomId, checkIn, checkOut, guests, ReservationStatus.BOOKED);
+            reservationDAO.save(r);
+            roomNightDAO.addStay(r.getReservationId(), roomId, checkIn, checkOut);
+            balanceDAO.setCharged(r.getReservationId(), charged);
+            roomDAO.findById(roomId).ifPresent(room ->
+                    db().afterCommit(() -> InventoryService.getInstance().onReservationCreated(room.getRoomType(), checkIn, checkOut)));
+            db().afterCommit(() -> RoomService.getInstance().invalidateOccupancy(checkIn, checkOut));
+            recordChange("create", null, r);
+            events().publish(new DomainEvent.ReservationCreated(r.getReservationId(), customerId, roomId, checkIn, checkOut));
+            return r.getReservationId();
+        });
+    }
+
+    /** Books the best-fitting free room of the given type. Returns -1 if the type is sold out. */
+    public int createReservationForType(int customerId, RoomType roomType, LocalDate checkIn, LocalDate checkOut, int numberOfGuests) {
+        return createReservationForType(null, customerId, roomType, checkIn, checkOut, numberOfGuests);
+    }
+
+    /** As above, with an idempotency key; a retry returns the first booking even if the type has since sold out. */
+    public int createReservationForType(String idempotencyKey, int customerId, RoomType roomType, LocalDate checkIn,
+                                        LocalDate checkOut, int numberOfGuests) {
+        String request = "customer=" + customerId + ", type=" + roomType + ", checkIn=" + checkIn + ", checkOut=" + checkOut
+                + ", guests=" + numberOfGuests;
+        return IdempotencyService.getInstance().execute("createReservation", idempotencyKey, request, () -> {
+            if (!InventoryService.getInstance().canSell(roomType, checkIn, checkOut)) return -1;
+            Optional<Room> room = RoomAssignmentService.getInstance().findBestRoom(roomType, checkIn, checkOut);
+            if (room.isEmpty()) return -1;
+            return doCreateReservation(customerId, room.get().getRoomId(), checkIn, checkOut, numberOfGuests);
         });
-        return r.getReservationId();
     }
 
     public boolean updateReservation(int reservationId, int customerId, int roomId, LocalDate checkIn, LocalDate checkOut, int numberOfGuests) {
-        Optional<Reservation> opt = reservationDAO.findById(reservationId);
-        if (opt.isEmpty()) return false;
-        String validation = validateReservation(reservationId, customerId, roomId, checkIn, checkOut);
-        if (validation != null) return false;
-
-        Reservation r = opt.get();
-        int oldRoomId = r.getRoomId();
-        r.setCustomerId(customerId);
-        r.setRoomId(roomId);
-        r.setCheckInDate(checkIn);
-        r.setCheckOutDate(checkOut);
-        r.setNumberOfGuests(numberOfGuests > 0 ? numberOfGuests : 1);
-        reservationDAO.update(r);
-
-        if (oldRoomId != roomId) {
-            roomDAO.findById(oldRoomId).ifPresent(room -> {
-                if (!hasActiveReservation(oldRoomId, reservationId)) {
-                    room.setStatus(RoomStatus.AVAILABLE);
-                    roomDAO.update(room);
-                }
-            });
-        }
-        roomDAO.findById(roomId).ifPresent(room -> {
-            room.setStatus(RoomStatus.OCCUPIED);
-            roomDAO.update(room);
+        double repriced = charge(roomId, checkIn, checkOut, Math.max(numberOfGuests, 1));
+        return db().inTransaction(() -> {
+            Optional<Reservation> opt = reservationDAO.findById(reservationId);
+            if (opt.isEmpty()) return false;
+            String validation = validateReservation(reservationId, customerId, roomId, checkIn, checkOut);
+            if (validation != null) return false;
+
+            Reservation r = opt.get();
+            int oldCustomerId = r.getCustomerId();
+            int oldRoomId = r.getRoomId();
+            LocalDate oldCheckIn = r.getCheckInDate();
+            LocalDate oldCheckOut = r.getCheckOutDate();
+            int oldGuests = r.getNumberOfGuests();
+            Reservation before = copy(r);
+            boolean holdsInventory = isActive(r.getStatus());
+            r.setCustomerId(customerId);
+            r.setRoomId(roomId);
+            r.setCheckInDate(checkIn);
+            r.setCheckOutDate(checkOut);
+            r.setNumberOfGuests(numberOfGuests > 0 ? numberOfGuests : 1);
+            reservationDAO.update(r);
+            recordChange("update", before, r);
+            events().publish(new DomainEvent.ReservationUpdated(reservationId, customerId, roomId, checkIn, checkOut));
+            boolean stayChanged = oldRoomId != roomId || !oldCheckIn.equals(checkIn) || !oldCheckOut.equals(checkOut)
+                    || oldGuests != r.getNumberOfGuests();
+            // Re-price only when the stay itself changed, so a customer correction keeps the booked rate
+            if (stayChanged && isChargeable(r.getStatus())) {
+                balanceDAO.setCharged(reservationId, repriced);
+            }
+            if (oldRoomId != roomId) {
+                // Past revenue of this reservation is now reported under the new room's type
+                db().afterCommit(() -> RevenueReportService.getInstance().invalidateAll());
+            }
+            if (oldCustomerId != customerId) {
+                // The reservation's payments move to the new customer's ledger
+                db().afterCommit(() -> {
+                    PaymentService.getInstance().invalidateLedger(oldCustomerId);
+                    PaymentService.getInstance().invalidateLedger(customerId);
+                });
+            }
+            if (holdsInventory) {
+                roomNightDAO.removeStay(reservationId);
+                roomNightDAO.addStay(reservationId, roomId, checkIn, checkOut);
+                Optional<RoomType> oldType = roomDAO.findById(oldRoomId).map(Room::getRoomType);
+                Optional<RoomType> newType = oldRoomId == roomId ? oldType : roomDAO.findById(roomId).map(Room::getRoomType);
+                db().afterCommit(() -> {
+                    InventoryService.getInstance().onReservationModified(
+                            oldType.orElse(null), oldCheckIn, oldCheckOut, newType.orElse(null), checkIn, checkOut);
+                    RoomService.getInstance().invalidateOccupancy(oldCheckIn, oldCheckOut);
+                    RoomService.getInstance().invalidateOccupancy(checkIn, checkOut);
+                });
+            }
+            return true;
         });
-        return true;
     }
 
     public boolean cancelReservation(int reservationId) {
-        Optional<Reservation> opt = reservationDAO.findById(reservationId);
-        if (opt.isEmpty()) return false;
-        Reservation r = opt.get();
-        if (r.getStatus() == ReservationStatus.CANCELLED) return true;
-        r.setStatus(ReservationStatus.CANCELLED);
-        reservationDAO.update(r);
-        int roomId = r.getRoomId();
-        if (!hasActiveReservation(roomId, reservationId)) {
-            roomDAO.findById(roomId).ifPresent(room -> {
-                room.setStatus(RoomStatus.AVAILABLE);
-                roomDAO.update(room);
-            });
-        }
-        return true;
+        return db().inTransaction(() -> {
+            Optional<Reservation> opt = reservationDAO.findById(reservationId);
+            if (opt.isEmpty()) return false;
+            Reservation r = opt.get();
+            if (r.getStatus() == ReservationStatus.CANCELLED) return true;
+            boolean holdsInventory = isActive(r.getStatus());
+            Reservation before = copy(r);
+            r.setStatus(ReservationStatus.CANCELLED);
+            reservationDAO.update(r);
+            balanceDAO.voidCharges(List.of(reservationId));
+            releaseRoom(r, holdsInventory);
+            recordChange(statusAction(r.getStatus()), before, r);
+            events().publish(new DomainEvent.ReservationStatusChanged(reservationId, before.getStatus(), r.getStatus()));
+            return true;
+        });
     }
 
     public boolean checkIn(int reservationId) {
-        Optional<Reservation> opt = reservationDAO.findById(reservationId);
-        if (opt.isEmpty()) return false;
-        Reservation r = opt.get();
-        if (r.getStatus() != ReservationStatus.BOOKED) return false;
-        r.setStatus(ReservationStatus.CHECKED_IN);
-        reservationDAO.update(r);
-        return true;
+        return db().inTransaction(() -> {
+            Optional<Reservation> opt = reservationDAO.findById(reservationId);
+            if (opt.isEmpty()) return false;
+            Reservation r = opt.get();
+            if (r.getStatus() != ReservationStatus.BOOKED) return false;
+            Reservation before = copy(r);
+            r.setStatus(ReservationStatus.CHECKED_IN);
+            reservationDAO.update(r);
+            recordChange(statusAction(r.getStatus()), before, r);
+            events().publish(new DomainEvent.ReservationStatusChanged(reservationId, before.getStatus(), r.getStatus()));
+            return true;
+        });
     }
 
     public boolean checkOut(int reservationId) {
-        Optional<Reservation> opt = reservationDAO.findById(reservationId);
-        if (opt.isEmpty()) return false;
-        Reservation r = opt.get();
-        if (r.getStatus() != ReservationStatus.CHECKED_IN) return false;
-        r.setStatus(ReservationStatus.COMPLETED);
-        reservationDAO.update(r);
-        int roomId = r.getRoomId();
-        if (!hasActiveReservation(roomId, reservationId)) {
-            roomDAO.findById(roomId).ifPresent(room -> {
-                room.setStatus(RoomStatus.AVAILABLE);
-                roomDAO.update(room);
-            });
+        return db().inTransaction(() -> {
+            Optional<Reservation> opt = reservationDAO.findById(reservationId);
+            if (opt.isEmpty()) return false;
+            Reservation r = opt.get();
+            if (r.getStatus() != ReservationStatus.CHECKED_IN) return false;
+            Reservation before = copy(r);
+            r.setStatus(ReservationStatus.COMPLETED);
+            reservationDAO.update(r);
+            releaseRoom(r, true);
+            recordChange(statusAction(r.getStatus()), before, r);
+            events().publish(new DomainEvent.ReservationStatusChanged(reservationId, before.getStatus(), r.getStatus()));
+            return true;
+        });
+    }
+
+    /** Checks in every listed BOOKED reservation in one transaction. */
+    public Map<Integer, BulkOutcome> checkInAll(Collection<Integer> reservationIds) {
+        return transitionAll(reservationIds, EnumSet.of(ReservationStatus.BOOKED), ReservationStatus.CHECKED_IN);
+    }
+
+    /** Checks out every listed CHECKED_IN reservation in one transaction. */
+    public Map<Integer, BulkOutcome> checkOutAll(Collection<Integer> reservationIds) {
+        return transitionAll(reservationIds, EnumSet.of(ReservationStatus.CHECKED_IN), ReservationStatus.COMPLETED);
+    }
+
+    /** Cancels every listed reservation in one transaction; like {@link #cancelReservation}, any status may be cancelled. */
+    public Map<Integer, BulkOutcome> cancelAll(Collection<Integer> reservationIds) {
+        return transitionAll(reservationIds, EnumSet.allOf(ReservationStatus.class), ReservationStatus.CANCELLED);
+    }
+
+    /** Marks the listed BOOKED reservations as no-shows, releasing their rooms. */
+    public Map<Integer, BulkOutcome> markNoShows(Collection<Integer> reservationIds) {
+        return transitionAll(reservationIds, EnumSet.of(ReservationStatus.BOOKED), ReservationStatus.NO_SHOW);
+    }
+
+    /** Checks in all BOOKED reservations arriving on the date. */
+    public Map<Integer, BulkOutcome> checkInArrivals(LocalDate date) {
+        return checkInAll(ids(reservationDAO.findByStatusAndCheckIn(ReservationStatus.BOOKED, date)));
+    }
+
+    /** Checks out all CHECKED_IN reservations departing on the date. */
+    public Map<Integer, BulkOutcome> checkOutDepartures(LocalDate date) {
+        return checkOutAll(ids(reservationDAO.findByStatusAndCheckOut(ReservationStatus.CHECKED_IN, date)));
+    }
+
+    /**
+     * Moves every eligible reservation to the target status with one set-based UPDATE, and drops the
+     * released stays' room nights with one batch, all in a single transaction. Reports an outcome per id.
+     */
+    private Map<Integer, BulkOutcome> transitionAll(Collection<Integer> reservationIds, Set<ReservationStatus> allowedFrom,
+                                                    ReservationStatus target) {
+        Map<Integer, BulkOutcome> outcomes = new LinkedHashMap<>();
+        for (int id : reservationIds) {
+            outcomes.put(id, BulkOutcome.NOT_FOUND);
         }
-        return true;
+        if (outcomes.isEmpty()) return outcomes;
+        boolean releases = !isActive(target);
+        return db().inTransaction(() -> {
+            List<Reservation> released = new ArrayList<>();
+            List<Integer> eligible = new ArrayList<>();
+            List<Reservation> transitioned = new ArrayList<>();
+            for (Reservation r : reservationDAO.findByIds(outcomes.keySet())) {
+                if (r.getStatus() == target) {
+                    outcomes.put(r.getReservationId(), BulkOutcome.UNCHANGED);
+                } else if (!allowedFrom.contains(r.getStatus())) {
+                    outcomes.put(r.getReservationId(), BulkOutcome.INVALID_STATUS);
+                } else {
+                    outcomes.put(r.getReservationId(), BulkOutcome.UPDATED);
+                    eligible.add(r.getReservationId());
+                    transitioned.add(r);
+                    // Only stays still holding their nights and inventory give them back
+                    if (releases && isActive(r.getStatus())) released.add(r);
+                }
+            }
+            reservationDAO.updateStatus(eligible, target);
+            if (!isChargeable(target)) balanceDAO.voidCharges(eligible);
+            for (Reservation r : transitioned) {
+                Reservation before = copy(r);
+                r.setStatus(target);
+                recordChange(statusAction(target), before, r);
+                events().publish(new DomainEvent.ReservationStatusChanged(r.getReservationId(), before.getStatus(), target));
+            }
+            if (!released.isEmpty()) {
+                roomNightDAO.removeStays(ids(released));
+                Map<Integer, RoomType> roomTypes = new HashMap<>();
+                for (Room room : roomDAO.findAll()) {
+                    roomTypes.put(room.getRoomId(), room.getRoomType());
+                }
+                db().afterCommit(() -> {
+                    LocalDate from = LocalDate.MAX;
+                    LocalDate to = LocalDate.MIN;
+                    for (Reservation r : released) {
+                        InventoryService.getInstance().onReservationReleased(
+                                roomTypes.get(r.getRoomId()), r.getCheckInDate(), r.getCheckOutDate());
+                        if (r.getCheckInDate().isBefore(from)) from = r.getCheckInDate();
+                        if (r.getCheckOutDate().isAfter(to)) to = r.getCheckOutDate();
+                    }
+                    RoomService.getInstance().invalidateOccupancy(from, to);
+                });
+            }
+            return outcomes;
+        });
+    }
+
+    private static List<Integer> ids(List<Reservation> reservations) {
+        return reservations.stream().map(Reservation::getReservationId).toList();
+    }
+
+    /** Removes the stay's nights, which frees the room for them, and returns them to inventory. */
+    private void releaseRoom(Reservation r, boolean holdsInventory) {
+        if (!holdsInventory) return;
+        roomNightDAO.removeStay(r.getReservationId());
+        roomDAO.findById(r.getRoomId()).ifPresent(room ->
+                db().afterCommit(() -> InventoryService.getInstance().onReservationReleased(
+                        room.getRoomType(), r.getCheckInDate(), r.getCheckOutDate())));
+        db().afterCommit(() -> RoomService.getInstance().invalidateOccupancy(r.getCheckInDate(), r.getCheckOutDate()));
+    }
+
+    /** Audits the change and updates the dashboard counters once it commits. {@code before} is null for creations. */
+    private static void recordChange(String action, Reservation before, Reservation after) {
+        MetricsService.Stay was = before != null ? MetricsService.Stay.of(before) : null;
+        MetricsService.Stay now = MetricsService.Stay.of(after);
+        db().afterCommit(() -> MetricsService.getInstance().onReservationChanged(was, now));
+        AuditService.getInstance().record(AuditService.RESERVATION, after.getReservationId(), action,
+                AuditService.describe(before), AuditService.describe(after));
+    }
+
+    private static String statusAction(ReservationStatus status) {
+        return switch (status) {
+            case BOOKED -> "book";
+            case CHECKED_IN -> "check-in";
+            case COMPLETED -> "check-out";
+            case CANCELLED -> "cancel";
+            case NO_SHOW -> "no-show";
+        };
+    }
+
+    private static Reservation copy(Reservation r) {
+        return new Reservation(r.getReservationId(), r.getCustomerId(), r.getRoomId(), r.getCheckInDate(),
+                r.getCheckOutDate(), r.getNumberOfGuests(), r.getStatus());
+    }
+
+    private static EventBus events() {
+        return EventBus.getInstance();
+    }
+
+    private static SQLiteConnectionManager db() {
+        return SQLiteConnectionManager.getInstance();
+    }
+
+    /** Quoted total of the stay, which is what the reservation is charged. */
+    private static double charge(int roomId, LocalDate checkIn, LocalDate checkOut, int guests) {
+        return QuoteService.getInstance().quoteRoom(roomId, checkIn, checkOut, guests)
+                .map(StayQuote::getTotal).orElse(0.0);
+    }
+
+    /** Cancelled and no-show reservations carry no charge. */
+    private static boolean isChargeable(ReservationStatus status) {
+        return status != ReservationStatus.CANCELLED && status != ReservationStatus.NO_SHOW;
     }
 
-    private boolean hasActiveReservation(int roomId, int excludeReservationId) {
-        List<Reservation> list = reservationDAO.findByRoomId(roomId);
-        return list.stream()
-                .filter(r -> r.getReservationId() != excludeReservationId)
-                .anyMatch(r -> r.getStatus() == ReservationStatus.BOOKED || r.getStatus() == ReservationStatus.CHECKED_IN);
+    private static boolean isActive(ReservationStatus status) {
+        return status == ReservationStatus.BOOKED || status == ReservationStatus.CHECKED_IN;
     }
 
     public String validateReservation(Integer excludeReservationId, int customerId, int roomId,
@@ -134,7 +371,7 @@ public class ReservationService {
         if (!checkOut.isAfter(checkIn)) return "Check-out must be after check-in";
         if (checkIn.isBefore(LocalDate.now())) return "Check-in cannot be in the past";
         if (roomDAO.findById(roomId).isEmpty()) return "Room not found";
-        if (!reservationDAO.findOverlappingReservations(roomId, checkIn, checkOut, excludeReservationId).isEmpty()) {
+        if (reservationDAO.existsOverlapping(roomId, checkIn, checkOut, excludeReservationId)) {
             return "Room is already booked for these dates";
         }
         return null;
@@ -152,9 +389,27 @@ public class ReservationService {
         return reservationDAO.findByCustomerId(customerId);
     }
 
+    /** Reservations with customer name, room and balance for list screens, in one query. */
+    public List<ReservationRow> findAllRows() {
+        return reservationDAO.findAllRows();
+    }
+
+    public List<ReservationRow> findRowsByCustomerId(int customerId) {
+        return reservationDAO.findRowsByCustomerId(customerId);
+    }
+
+    /** Number of BOOKED or CHECKED_IN reservations holding the room. */
+    public int countActiveReservations(int roomId) {
+        return reservationDAO.countActiveByRoomId(roomId);
+    }
+
     public List<Room> getAvailableRooms(LocalDate checkIn, LocalDate checkOut) {
-        List<Room> all = roomDAO.findAll();
-        return all.stream().filter(r -> reservationDAO.findOverlappingReservations(
-                r.getRoomId(), checkIn, checkOut, null).isEmpty()).toList();
+        Set<Integer> occupied = new HashSet<>(roomNightDAO.findOccupiedRoomIds(checkIn, checkOut));
+        return roomDAO.findAll().stream().filter(r -> !occupied.contains(r.getRoomId())).toList();
+    }
+
+    /** Occupied room count per night in [from, to), read from the room_nights table. */
+    public Map<LocalDate, Integer> getOccupancyByNight(LocalDate from, LocalDate to) {
+        return roomNightDAO.countOccupiedByNight(from, to);
     }
 }
@@ -0,0 +1,146 @@
+package service;
+
+import dao.RevenueDAO;
+import dao.sqlite.SQLiteRevenueDAO;
+import model.DomainEvent;
+import model.RevenueEntry;
+import model.RevenueReport;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Revenue reporting by day, room type and payment method.
+ * Closed days (before today) are cached per day, so repeated reports only query days not seen yet and
+ * today. Uncached ranges longer than {@link #CHUNK_DAYS} are split and aggregated in parallel.
+ */
+public class RevenueReportService {
+    private static final int CHUNK_DAYS = 31;
+    /** SQLite serves concurrent readers, but little is gained past a few connections. */
+    private static final int MAX_PARALLELISM = 4;
+
+    private final RevenueDAO revenueDAO;
+    private final ForkJoinPool pool = new ForkJoinPool(
+            Math.min(MAX_PARALLELISM, Runtime.getRuntime().availableProcessors()));
+    /** Closed day to its entries; days with no payments map to an empty list. */
+    private final Map<LocalDate, List<RevenueEntry>> closedDays = new ConcurrentHashMap<>();
+    /** Bumped under the closedDays lock by every invalidation; a load only caches days if it has not moved since. */
+    private long generation;
+
+    public RevenueReportService(RevenueDAO revenueDAO) {
+        this.revenueDAO = revenueDAO;
+    }
+
+    private static final RevenueReportService INSTANCE = new RevenueReportService(new SQLiteRevenueDAO());
+
+    public static RevenueReportService getInstance() {
+        return INSTANCE;
+    }
+
+    /** Revenue of payments dated in [from, to). */
+    public RevenueReport getReport(LocalDate from, LocalDate to) {
+        if (from == null || to == null || !to.isAfter(from)) return new RevenueReport(from, to, List.of());
+        LocalDate today = LocalDate.now();
+        List<RevenueEntry> entries = new ArrayList<>();
+        LocalDate gapStart = null;
+        for (LocalDate day = from; day.isBefore(to); day = day.plusDays(1)) {
+            List<RevenueEntry> cached = day.isBefore(today) ? closedDays.get(day) : null;
+            if (cached == null) {
+                if (gapStart == null) gapStart = day;
+                continue;
+            }
+            if (gapStart != null) {
+                entries.addAll(load(gapStart, day, today));
+                gapStart = null;
+            }
+            entries.addAll(cached);
+        }
+        if (gapStart != null) entries.addAll(load(gapStart, to, today));
+        return new RevenueReport(from, to, entries);
+    }
+
+    /** Drops a cached day, e.g. when one of its payments is edited or deleted. */
+    public void invalidateDay(LocalDate day) {
+        synchronized (closedDays) {
+            closedDays.remove(day);
+            generation++;
+        }
+    }
+
+    /** Totals group by room type, so only retyped or deleted rooms invalidate them. */
+    static void subscribeTo(EventBus bus) {
+        bus.subscribe(DomainEvent.RoomUpdated.class, e -> {
+            if (e.typeChanged()) getInstance().invalidateAll();
+        });
+        bus.subscribe(DomainEvent.RoomDeleted.class, e -> getInstance().invalidateAll());
+    }
+
+    /** Drops every cached day, e.g. when a room changes type. */
+    public void invalidateAll() {
+        synchronized (closedDays) {
+            closedDays.clear();
+            generation++;
+        }
+    }
+
+    /** Queries [from, to) and caches the closed days in it, unless an invalidation overlapped the query. */
+    private List<RevenueEntry> load(LocalDate from, LocalDate to, LocalDate today) {
+        long loadGeneration;
+        synchronized (closedDays) {
+            loadGeneration = generation;
+        }
+        List<RevenueEntry> entries = daysBetween(from, to) > CHUNK_DAYS
+                ? pool.invoke(new Chunk(from, to))
+                : revenueDAO.aggregateByDay(from, to);
+        LocalDate closedUntil = to.isAfter(today) ? today : to;
+        Map<LocalDate, List<RevenueEntry>> byDay = new HashMap<>();
+        for (LocalDate day = from; day.isBefore(closedUntil); day = day.plusDays(1)) {
+            byDay.put(day, new ArrayList<>());
+        }
+        for (RevenueEntry e : entries) {
+            List<RevenueEntry> day = byDay.get(e.getDay());
+            if (day != null) day.add(e);
+        }
+        synchronized (closedDays) {
+            if (generation == loadGeneration) {
+                byDay.forEach((day, dayEntries) -> closedDays.put(day, List.copyOf(dayEntries)));
+            }
+        }
+        return entries;
+    }
+
+    private static long daysBetween(LocalDate from, LocalDate to) {
+        return to.toEpochDay() - from.toEpochDay();
+    }
+
+    /** Splits a range in halves until each piece is at most one chunk, then aggregates the pieces concurrently. */
+    private class Chunk extends RecursiveTask<List<RevenueEntry>> {
+        private static final long serialVersionUID = 1L;
+
+        private final LocalDate from;
+        private final LocalDate to;
+
+        Chunk(LocalDate from, LocalDate to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<RevenueEntry> compute() {
+            long days = daysBetween(from, to);
+            if (days <= CHUNK_DAYS) return revenueDAO.aggregateByDay(from, to);
+            LocalDate mid = from.plusDays(days / 2);
+            Chunk left = new Chunk(from, mid);
+            left.fork();
+            List<RevenueEntry> entries = new ArrayList<>(new Chunk(mid, to).compute());
+            entries.addAll(0, left.join());
+            return entries;
+        }
+    }
+}
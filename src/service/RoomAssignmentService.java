@@ -0,0 +1,224 @@
+package service;
+
+import dao.ReservationDAO;
+import dao.RoomDAO;
+import dao.RoomNightDAO;
+import dao.sqlite.SQLiteReservationDAO;
+import dao.sqlite.SQLiteRoomDAO;
+import dao.sqlite.SQLiteRoomNightDAO;
+import model.Reservation;
+import model.ReservationStatus;
+import model.Room;
+import model.RoomType;
+import util.SQLiteConnectionManager;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Room assignment engine.
+ * Picks the room of a type that packs the calendar tightest, so stays butt up against each other
+ * instead of leaving short unsellable gaps, and re-packs future bookings in a batch.
+ */
+public class RoomAssignmentService {
+    /** Gaps shorter than this many nights are considered unsellable. */
+    private static final int MIN_SELLABLE_GAP = 3;
+    private static final long ORPHAN_GAP_COST = 1000;
+    /** Cost of leaving the calendar open-ended after a stay (no following booking). */
+    private static final long OPEN_GAP_COST = 30;
+    /** Moves applied per transaction, so bookings are not locked out for the length of a whole re-pack. */
+    private static final int MOVE_BATCH = 50;
+
+    private final ReservationDAO reservationDAO;
+    private final RoomDAO roomDAO;
+    private final RoomNightDAO roomNightDAO;
+
+    public RoomAssignmentService(ReservationDAO reservationDAO, RoomDAO roomDAO, RoomNightDAO roomNightDAO) {
+        this.reservationDAO = reservationDAO;
+        this.roomDAO = roomDAO;
+        this.roomNightDAO = roomNightDAO;
+    }
+
+    private static final RoomAssignmentService INSTANCE = new RoomAssignmentService(
+            new SQLiteReservationDAO(), new SQLiteRoomDAO(), new SQLiteRoomNightDAO());
+
+    public static RoomAssignmentService getInstance() {
+        return INSTANCE;
+    }
+
+    /** Best-fitting free room of the given type, or empty if the type is sold out for these dates. */
+    public Optional<Room> findBestRoom(RoomType roomType, LocalDate checkIn, LocalDate checkOut) {
+        if (roomType == null || checkIn == null || checkOut == null || !checkOut.isAfter(checkIn)) return Optional.empty();
+        List<Room> rooms = roomDAO.findByType(roomType);
+        Map<Integer, TreeMap<LocalDate, LocalDate>> calendars = loadCalendars(LocalDate.now());
+        Room best = null;
+        long bestCost = Long.MAX_VALUE;
+        for (Room room : rooms) {
+            long cost = fitCost(calendars.get(room.getRoomId()), checkIn, checkOut, LocalDate.now());
+            if (cost >= 0 && cost < bestCost) {
+                best = room;
+                bestCost = cost;
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    /**
+     * Orders candidate rooms by type, then by how tightly the stay fits each room's calendar.
+     * Rooms that cannot take the stay sort last.
+     */
+    public List<Room> rankByFit(List<Room> candidates, LocalDate checkIn, LocalDate checkOut) {
+        Map<Integer, TreeMap<LocalDate, LocalDate>> calendars = loadCalendars(LocalDate.now());
+        Map<Integer, Long> costs = new HashMap<>();
+        for (Room room : candidates) {
+            long cost = fitCost(calendars.get(room.getRoomId()), checkIn, checkOut, LocalDate.now());
+            costs.put(room.getRoomId(), cost < 0 ? Long.MAX_VALUE : cost);
+        }
+        List<Room> ranked = new ArrayList<>(candidates);
+        ranked.sort(Comparator.comparing(Room::getRoomType)
+                .thenComparing(r -> costs.get(r.getRoomId()))
+                .thenComparing(Room::getRoomNumber));
+        return ranked;
+    }
+
+    /**
+     * Re-packs BOOKED reservations starting on or after {@code from} across rooms of their type.
+     * Stays already checked in or started before {@code from} stay where they are.
+     * The plan is made from a snapshot; each move is then re-checked against the database inside the transaction
+     * that applies it, in batches of {@value #MOVE_BATCH} so the write lock is released between them. A stay that
+     * changed since the snapshot is left alone, and a move whose target room is no longer free waits for the rest
+     * of the plan, then is dropped if the room is still taken.
+     * Returns the number of reservations moved to another room.
+     */
+    public int reoptimize(LocalDate from) {
+        Map<RoomType, List<Room>> roomsByType = new HashMap<>();
+        Map<Integer, Room> roomsById = new HashMap<>();
+        for (Room room : roomDAO.findAll()) {
+            roomsByType.computeIfAbsent(room.getRoomType(), t -> new ArrayList<>()).add(room);
+            roomsById.put(room.getRoomId(), room);
+        }
+
+        List<Reservation> fixed = new ArrayList<>();
+        List<Reservation> movable = new ArrayList<>();
+        for (Reservation r : reservationDAO.findActiveFrom(from)) {
+            boolean canMove = r.getStatus() == ReservationStatus.BOOKED && !r.getCheckInDate().isBefore(from)
+                    && roomsById.containsKey(r.getRoomId());
+            (canMove ? movable : fixed).add(r);
+        }
+        Map<Integer, TreeMap<LocalDate, LocalDate>> calendars = calendarsOf(fixed);
+        // Earliest arrival first, longest stay first on ties: greedy best-fit never runs out of rooms in this order
+        movable.sort(Comparator.comparing(Reservation::getCheckInDate)
+                .thenComparing(Reservation::getCheckOutDate, Comparator.reverseOrder()));
+
+        List<Move> plan = new ArrayList<>();
+        for (Reservation r : movable) {
+            RoomType type = roomsById.get(r.getRoomId()).getRoomType();
+            Room best = null;
+            long bestCost = Long.MAX_VALUE;
+            for (Room room : roomsByType.get(type)) {
+                long cost = fitCost(calendars.get(room.getRoomId()), r.getCheckInDate(), r.getCheckOutDate(), from);
+                if (cost < 0) continue;
+                // Prefer the current room on ties so the plan does not churn
+                if (cost < bestCost || (cost == bestCost && room.getRoomId() == r.getRoomId())) {
+                    best = room;
+                    bestCost = cost;
+                }
+            }
+            int targetRoomId = best != null ? best.getRoomId() : r.getRoomId();
+            calendars.computeIfAbsent(targetRoomId, id -> new TreeMap<>()).put(r.getCheckInDate(), r.getCheckOutDate());
+            if (targetRoomId != r.getRoomId()) plan.add(new Move(r, targetRoomId));
+        }
+
+        // A room handed from one planned move to another frees up only once the earlier move is applied,
+        // so deferred moves are retried for as long as a pass makes progress
+        int moved = 0;
+        List<Move> pending = plan;
+        while (!pending.isEmpty()) {
+            List<Move> deferred = new ArrayList<>();
+            for (int i = 0; i < pending.size(); i += MOVE_BATCH) {
+                List<Move> batch = pending.subList(i, Math.min(i + MOVE_BATCH, pending.size()));
+                moved += SQLiteConnectionManager.getInstance().inTransaction(() -> apply(batch, deferred));
+            }
+            if (deferred.size() == pending.size()) break;
+            pending = deferred;
+        }
+        return moved;
+    }
+
+    private record Move(Reservation planned, int targetRoomId) { }
+
+    /** Applies the moves that still fit; those whose target room is taken go to {@code deferred}. Returns the count applied. */
+    private int apply(List<Move> batch, List<Move> deferred) {
+        int applied = 0;
+        for (Move move : batch) {
+            Reservation planned = move.planned();
+            Optional<Reservation> current = reservationDAO.findById(planned.getReservationId());
+            if (current.isEmpty()) continue;
+            Reservation r = current.get();
+            if (r.getStatus() != ReservationStatus.BOOKED || r.getRoomId() != planned.getRoomId()
+                    || !r.getCheckInDate().equals(planned.getCheckInDate())
+                    || !r.getCheckOutDate().equals(planned.getCheckOutDate())) {
+                continue;
+            }
+            if (reservationDAO.existsOverlapping(move.targetRoomId(), r.getCheckInDate(), r.getCheckOutDate(), r.getReservationId())) {
+                deferred.add(move);
+                continue;
+            }
+            // Moves stay within a room type, so type-level inventory counters are unaffected
+            String before = AuditService.describe(r);
+            r.setRoomId(move.targetRoomId());
+            reservationDAO.update(r);
+            roomNightDAO.removeStay(r.getReservationId());
+            roomNightDAO.addStay(r.getReservationId(), r.getRoomId(), r.getCheckInDate(), r.getCheckOutDate());
+            AuditService.getInstance().record(AuditService.RESERVATION, r.getReservationId(), "reassign",
+                    before, AuditService.describe(r));
+            SQLiteConnectionManager.getInstance().afterCommit(() ->
+                    RoomService.getInstance().invalidateOccupancy(r.getCheckInDate(), r.getCheckOutDate()));
+            applied++;
+        }
+        return applied;
+    }
+
+    /** Room id to (check-in -> check-out) of its active stays ending after {@code from}. */
+    private Map<Integer, TreeMap<LocalDate, LocalDate>> loadCalendars(LocalDate from) {
+        return calendarsOf(reservationDAO.findActiveFrom(from));
+    }
+
+    private static Map<Integer, TreeMap<LocalDate, LocalDate>> calendarsOf(List<Reservation> stays) {
+        Map<Integer, TreeMap<LocalDate, LocalDate>> calendars = new HashMap<>();
+        for (Reservation r : stays) {
+            calendars.computeIfAbsent(r.getRoomId(), id -> new TreeMap<>()).put(r.getCheckInDate(), r.getCheckOutDate());
+        }
+        return calendars;
+    }
+
+    /**
+     * Fragmentation cost of placing the stay into a room calendar, or -1 if it overlaps an existing stay.
+     * Zero-night gaps on both sides are free; gaps too short to sell are heavily penalised.
+     */
+    private static long fitCost(TreeMap<LocalDate, LocalDate> calendar, LocalDate checkIn, LocalDate checkOut, LocalDate horizonStart) {
+        if (calendar == null || calendar.isEmpty()) {
+            return gapCost(Math.max(0, ChronoUnit.DAYS.between(horizonStart, checkIn))) + OPEN_GAP_COST;
+        }
+        Map.Entry<LocalDate, LocalDate> prev = calendar.lowerEntry(checkOut);
+        if (prev != null && prev.getValue().isAfter(checkIn)) return -1;
+        Map.Entry<LocalDate, LocalDate> next = calendar.ceilingEntry(checkOut);
+        LocalDate gapStart = prev != null ? prev.getValue() : horizonStart;
+        long before = Math.max(0, ChronoUnit.DAYS.between(gapStart, checkIn));
+        long after = next != null ? gapCost(ChronoUnit.DAYS.between(checkOut, next.getKey())) : OPEN_GAP_COST;
+        return gapCost(before) + after;
+    }
+
+    private static long gapCost(long nights) {
+        if (nights == 0) return 0;
+        if (nights < MIN_SELLABLE_GAP) return ORPHAN_GAP_COST;
+        return nights;
+    }
+}
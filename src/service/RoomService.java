@@ -1,25 +1,44 @@
 package service;
 
+import dao.ReservationDAO;
 import dao.RoomDAO;
+import dao.RoomNightDAO;
+import dao.sqlite.SQLiteReservationDAO;
 import dao.sqlite.SQLiteRoomDAO;
+import dao.sqlite.SQLiteRoomNightDAO;
+import model.DomainEvent;
 import model.Room;
 import model.RoomStatus;
 import model.RoomType;
+import util.LruCache;
+import util.SQLiteConnectionManager;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Room business logic.
+ * Room status is derived for a date from room_nights; the occupied set of each date is cached.
+ * Rooms by id are cached too, and callers always get their own copy.
  */
 public class RoomService {
     private final RoomDAO roomDAO;
+    private final RoomNightDAO roomNightDAO;
+    private final ReservationDAO reservationDAO;
+    private final LruCache<LocalDate, Set<Integer>> occupiedByDate =
+            new LruCache<>(Integer.getInteger("hotel.cache.occupancy", 400));
+    private final LruCache<Integer, Room> roomsById = new LruCache<>(Integer.getInteger("hotel.cache.rooms", 2_000));
 
-    public RoomService(RoomDAO roomDAO) {
+    public RoomService(RoomDAO roomDAO, RoomNightDAO roomNightDAO, ReservationDAO reservationDAO) {
         this.roomDAO = roomDAO;
+        this.roomNightDAO = roomNightDAO;
+        this.reservationDAO = reservationDAO;
     }
 
-    private static final RoomService INSTANCE = new RoomService(new SQLiteRoomDAO());
+    private static final RoomService INSTANCE = new RoomService(
+            new SQLiteRoomDAO(), new SQLiteRoomNightDAO(), new SQLiteReservationDAO());
 
     public static RoomService getInstance() {
         return INSTANCE;
@@ -30,13 +49,18 @@ public class RoomService {
         if (roomDAO.findByRoomNumber(roomNumber.trim()).isPresent()) return -1;
         if (pricePerNight < 0) return -1;
         Room r = new Room(0, roomNumber.trim(), roomType, pricePerNight, RoomStatus.AVAILABLE);
-        return roomDAO.save(r).getRoomId();
+        int id = roomDAO.save(r).getRoomId();
+        EventBus.getInstance().publish(new DomainEvent.RoomAdded(id));
+        AuditService.getInstance().record(AuditService.ROOM, id, "create", null, AuditService.describe(r));
+        return id;
     }
 
     public boolean updateRoom(int roomId, String roomNumber, RoomType roomType, double pricePerNight) {
         Optional<Room> opt = roomDAO.findById(roomId);
         if (opt.isEmpty()) return false;
         Room r = opt.get();
+        RoomType oldType = r.getRoomType();
+        String before = AuditService.describe(r);
         if (roomNumber != null && !roomNumber.trim().isEmpty()) {
             Optional<Room> existing = roomDAO.findByRoomNumber(roomNumber.trim());
             if (existing.isPresent() && existing.get().getRoomId() != roomId) return false;
@@ -45,32 +69,84 @@ public class RoomService {
         if (roomType != null) r.setRoomType(roomType);
         if (pricePerNight >= 0) r.setPricePerNight(pricePerNight);
         roomDAO.update(r);
+        evict(roomId);
+        EventBus.getInstance().publish(new DomainEvent.RoomUpdated(roomId, oldType, r.getRoomType()));
+        AuditService.getInstance().record(AuditService.ROOM, roomId, "update", before, AuditService.describe(r));
         return true;
     }
 
+    /** Refuses rooms still held by a BOOKED or CHECKED_IN reservation. */
     public boolean deleteRoom(int roomId) {
         Optional<Room> opt = roomDAO.findById(roomId);
         if (opt.isEmpty()) return false;
-        if (opt.get().getStatus() == RoomStatus.OCCUPIED) return false;
-        return roomDAO.delete(roomId);
+        if (reservationDAO.existsActiveByRoomId(roomId)) return false;
+        boolean deleted = roomDAO.delete(roomId);
+        if (deleted) {
+            evict(roomId);
+            EventBus.getInstance().publish(new DomainEvent.RoomDeleted(roomId));
+            AuditService.getInstance().record(AuditService.ROOM, roomId, "delete", AuditService.describe(opt.get()), null);
+        }
+        return deleted;
     }
 
+    /** All rooms, with status as of tonight. */
     public List<Room> findAll() {
-        return roomDAO.findAll();
+        return findAll(LocalDate.now());
+    }
+
+    /** All rooms, with status as of the given night. */
+    public List<Room> findAll(LocalDate date) {
+        Set<Integer> occupied = getOccupiedRoomIds(date);
+        List<Room> rooms = roomDAO.findAll();
+        for (Room room : rooms) {
+            room.setStatus(occupied.contains(room.getRoomId()) ? RoomStatus.OCCUPIED : RoomStatus.AVAILABLE);
+        }
+        return rooms;
     }
 
     public Optional<Room> findById(int roomId) {
-        return roomDAO.findById(roomId);
+        return roomsById.get(roomId, roomDAO::findById).map(RoomService::copy).map(this::withStatusTonight);
+    }
+
+    public LruCache.Stats getCacheStats() {
+        return roomsById.getStats();
+    }
+
+    public LruCache.Stats getOccupancyCacheStats() {
+        return occupiedByDate.getStats();
     }
 
     public Optional<Room> findByRoomNumber(String roomNumber) {
-        return roomDAO.findByRoomNumber(roomNumber);
+        return roomDAO.findByRoomNumber(roomNumber).map(this::withStatusTonight);
+    }
+
+    public RoomStatus getStatus(int roomId, LocalDate date) {
+        return getOccupiedRoomIds(date).contains(roomId) ? RoomStatus.OCCUPIED : RoomStatus.AVAILABLE;
+    }
+
+    /** Rooms held by an active stay on the given night. Cached per date until a stay covering it changes. */
+    public Set<Integer> getOccupiedRoomIds(LocalDate date) {
+        return occupiedByDate.get(date,
+                d -> Optional.of(Set.copyOf(roomNightDAO.findOccupiedRoomIds(d, d.plusDays(1))))).orElseThrow();
+    }
+
+    /** Drops cached occupancy for nights in [from, to). */
+    public void invalidateOccupancy(LocalDate from, LocalDate to) {
+        occupiedByDate.invalidateIf(d -> !d.isBefore(from) && d.isBefore(to));
+    }
+
+    /** Drops the cached room now and again once the change commits, so no reader re-caches the old row. */
+    private void evict(int roomId) {
+        roomsById.invalidate(roomId);
+        SQLiteConnectionManager.getInstance().afterCommit(() -> roomsById.invalidate(roomId));
+    }
+
+    private static Room copy(Room r) {
+        return new Room(r.getRoomId(), r.getRoomNumber(), r.getRoomType(), r.getPricePerNight(), r.getStatus());
     }
 
-    public void updateRoomStatus(int roomId, RoomStatus status) {
-        roomDAO.findById(roomId).ifPresent(r -> {
-            r.setStatus(status);
-            roomDAO.update(r);
-        });
+    private Room withStatusTonight(Room room) {
+        room.setStatus(getStatus(room.getRoomId(), LocalDate.now()));
+        return room;
     }
 }
@@ -0,0 +1,49 @@
+package service;
+
+import java.time.Instant;
+
+/**
+ * One signed-in admin or guest, identified by an opaque token. Immutable apart from its idle clock.
+ */
+public final class Session {
+    private final String token;
+    private final SessionManager.UserType type;
+    private final int principalId;
+    private final String displayName;
+    private final Instant createdAt;
+    private volatile long lastAccessMillis;
+    private volatile boolean closed;
+
+    Session(String token, SessionManager.UserType type, int principalId, String displayName, long nowMillis) {
+        this.token = token;
+        this.type = type;
+        this.principalId = principalId;
+        this.displayName = displayName;
+        this.createdAt = Instant.ofEpochMilli(nowMillis);
+        this.lastAccessMillis = nowMillis;
+    }
+
+    public String getToken() { return token; }
+    public SessionManager.UserType getType() { return type; }
+    /** User id for admins, customer id for guests. */
+    public int getPrincipalId() { return principalId; }
+    public String getDisplayName() { return displayName; }
+    public Instant getCreatedAt() { return createdAt; }
+    public long getLastAccessMillis() { return lastAccessMillis; }
+    public boolean isAdmin() { return type == SessionManager.UserType.ADMIN; }
+    public boolean isGuest() { return type == SessionManager.UserType.GUEST; }
+    public boolean isClosed() { return closed; }
+
+    void touch(long nowMillis) {
+        lastAccessMillis = nowMillis;
+    }
+
+    void close() {
+        closed = true;
+    }
+
+    @Override
+    public String toString() {
+        return (isAdmin() ? "admin:" : "guest:") + principalId + " " + displayName;
+    }
+}
@@ -1,63 +1,100 @@
 package service;
 
+import java.util.function.Supplier;
+
 /**
- * Manages current session: user type (ADMIN or GUEST) and ID.
+ * The session the current code runs for.
+ * A thread serving a remote client binds that client's session with {@link #runAs}; otherwise this is the
+ * session of the local desktop terminal. Sessions themselves live in {@link SessionRegistry}.
  */
 public final class SessionManager {
     public enum UserType { ADMIN, GUEST }
 
-    private static volatile UserType currentType;
-    private static volatile int currentAdminId = -1;
-    private static volatile int currentGuestId = -1;
-    private static volatile String currentDisplayName;
+    private static final ThreadLocal<Session> bound = new ThreadLocal<>();
+    private static volatile Session terminalSession;
+
+    /** The session of the calling thread, or null if nobody is signed in or it has expired. */
+    public static Session current() {
+        Session session = bound.get();
+        if (session == null) session = terminalSession;
+        if (session == null || session.isClosed()) return null;
+        session.touch(System.currentTimeMillis());
+        return session;
+    }
+
+    /**
+     * True once the terminal's session has ended without a logout, e.g. on idle expiry, so the terminal can go
+     * back to sign-in. Unlike {@link #current} this does not count as use of the session.
+     */
+    public static boolean isTerminalSessionExpired() {
+        Session session = terminalSession;
+        return session != null && session.isClosed();
+    }
+
+    /** Runs the work on behalf of the session, restoring the previous binding afterwards. */
+    public static <T> T runAs(Session session, Supplier<T> work) {
+        Session previous = bound.get();
+        bound.set(session);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) bound.remove(); else bound.set(previous);
+        }
+    }
+
+    /** Makes the session the local terminal's, ending the one it replaces. */
+    public static void attach(Session session) {
+        Session previous = terminalSession;
+        terminalSession = session;
+        if (previous != null && previous != session) SessionRegistry.getInstance().close(previous.getToken());
+    }
 
     public static void loginAdmin(int userId, String displayName) {
-        currentType = UserType.ADMIN;
-        currentAdminId = userId;
-        currentGuestId = -1;
-        currentDisplayName = displayName;
+        attach(SessionRegistry.getInstance().open(UserType.ADMIN, userId, displayName));
     }
 
     public static void loginGuest(int customerId, String displayName) {
-        currentType = UserType.GUEST;
-        currentGuestId = customerId;
-        currentAdminId = -1;
-        currentDisplayName = displayName;
+        attach(SessionRegistry.getInstance().open(UserType.GUEST, customerId, displayName));
     }
 
     public static void logout() {
-        currentType = null;
-        currentAdminId = -1;
-        currentGuestId = -1;
-        currentDisplayName = null;
+        Session previous = terminalSession;
+        terminalSession = null;
+        if (previous != null) SessionRegistry.getInstance().close(previous.getToken());
     }
 
     public static UserType getCurrentType() {
-        return currentType;
+        Session session = current();
+        return session != null ? session.getType() : null;
     }
 
     public static boolean isAdmin() {
-        return currentType == UserType.ADMIN;
+        Session session = current();
+        return session != null && session.isAdmin();
     }
 
     public static boolean isGuest() {
-        return currentType == UserType.GUEST;
+        Session session = current();
+        return session != null && session.isGuest();
     }
 
     public static int getCurrentAdminId() {
-        return currentAdminId;
+        Session session = current();
+        return session != null && session.isAdmin() ? session.getPrincipalId() : -1;
     }
 
     public static int getCurrentGuestId() {
-        return currentGuestId;
+        Session session = current();
+        return session != null && session.isGuest() ? session.getPrincipalId() : -1;
     }
 
     public static String getCurrentDisplayName() {
-        return currentDisplayName;
+        Session session = current();
+        return session != null ? session.getDisplayName() : null;
     }
 
     /** For guests, returns customer ID. For admins, returns -1. */
     public static int getCurrentCustomerIdForReservation() {
-        return currentGuestId;
+        return getCurrentGuestId();
     }
 }
@@ -0,0 +1,145 @@
+package service;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * All open sessions, keyed by token.
+ * Lookups are a single map read plus a volatile write of the idle clock, so they never lock. Idle expiry uses a
+ * hashed timer wheel: each session sits in the bucket of its deadline tick, and the ticker only visits the
+ * bucket that is due. A session touched since it was filed is re-filed under its new deadline instead of
+ * expiring, so touching never has to move it.
+ */
+public class SessionRegistry {
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 512;
+    private static final long DEFAULT_IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    public record Stats(int open, long opened, long closed, long expired) {}
+
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final List<Queue<Session>> wheel;
+    private final SecureRandom random = new SecureRandom();
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder closed = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private volatile long idleTimeoutMillis = DEFAULT_IDLE_TIMEOUT_MILLIS;
+    /** Next tick to process; only the ticker thread touches it. */
+    private long nextTick;
+
+    public SessionRegistry() {
+        List<Queue<Session>> buckets = new ArrayList<>(WHEEL_SIZE);
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            buckets.add(new ConcurrentLinkedQueue<>());
+        }
+        wheel = List.copyOf(buckets);
+        nextTick = System.currentTimeMillis() / TICK_MILLIS;
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "session-expiry");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleAtFixedRate(this::advance, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private static final SessionRegistry INSTANCE = new SessionRegistry();
+
+    public static SessionRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /** Opens a session for an authenticated admin or guest. */
+    public Session open(SessionManager.UserType type, int principalId, String displayName) {
+        long now = System.currentTimeMillis();
+        Session session = new Session(newToken(), type, principalId, displayName, now);
+        sessions.put(session.getToken(), session);
+        schedule(session, now + idleTimeoutMillis);
+        opened.increment();
+        return session;
+    }
+
+    /** The open session for the token, marking it used; empty if unknown, closed or idle too long. */
+    public Optional<Session> find(String token) {
+        if (token == null) return Optional.empty();
+        Session session = sessions.get(token);
+        if (session == null) return Optional.empty();
+        long now = System.currentTimeMillis();
+        // The ticker may not have reached it yet
+        if (now - session.getLastAccessMillis() >= idleTimeoutMillis) {
+            if (remove(session)) expired.increment();
+            return Optional.empty();
+        }
+        session.touch(now);
+        return Optional.of(session);
+    }
+
+    public void close(String token) {
+        Session session = token != null ? sessions.get(token) : null;
+        if (session != null && remove(session)) closed.increment();
+    }
+
+    /** Ends every session of the principal except {@code keepToken}, e.g. after a password change. */
+    public void closeAll(SessionManager.UserType type, int principalId, String keepToken) {
+        for (Session session : sessions.values()) {
+            if (session.getType() == type && session.getPrincipalId() == principalId
+                    && !session.getToken().equals(keepToken) && remove(session)) {
+                closed.increment();
+            }
+        }
+    }
+
+    public void setIdleTimeout(long duration, TimeUnit unit) {
+        idleTimeoutMillis = Math.max(TICK_MILLIS, unit.toMillis(duration));
+    }
+
+    public Stats getStats() {
+        return new Stats(sessions.size(), opened.sum(), closed.sum(), expired.sum());
+    }
+
+    private boolean remove(Session session) {
+        if (!sessions.remove(session.getToken(), session)) return false;
+        session.close();
+        return true;
+    }
+
+    private void schedule(Session session, long deadlineMillis) {
+        wheel.get((int) Math.floorMod(deadlineMillis / TICK_MILLIS, (long) WHEEL_SIZE)).add(session);
+    }
+
+    /** Processes every tick up to now; a slow run catches up on the ticks it missed. */
+    private void advance() {
+        long now = System.currentTimeMillis();
+        long nowTick = now / TICK_MILLIS;
+        for (; nextTick <= nowTick; nextTick++) {
+            Queue<Session> bucket = wheel.get((int) Math.floorMod(nextTick, (long) WHEEL_SIZE));
+            // Only the sessions filed before this pass; re-filed ones may land back in the same bucket
+            for (int n = bucket.size(); n > 0; n--) {
+                Session session = bucket.poll();
+                if (session == null) break;
+                if (session.isClosed()) continue;
+                long deadline = session.getLastAccessMillis() + idleTimeoutMillis;
+                if (deadline <= now) {
+                    if (remove(session)) expired.increment();
+                } else {
+                    schedule(session, deadline);
+                }
+            }
+        }
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -1,6 +1,10 @@
 package ui.view;
 
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
@@ -18,6 +22,7 @@ import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import model.*;
 import service.*;
 import util.DatabaseInitializer;
@@ -26,6 +31,8 @@ import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * Hotel Reservation System - Main JavaFX Application.
@@ -150,7 +157,26 @@ public class HotelReservationApp extends Application {
 
     private void showMainWithSidePanel() {
         if (SessionManager.isAdmin()) mainLayout.setLeft(buildAdminSidePanel());
-        else mainLayout.setLeft(buildGuestSidePanel());
+        else if (SessionManager.isGuest()) mainLayout.setLeft(buildGuestSidePanel());
+        else showLanding();
+    }
+
+    /** Ends the terminal's session, if any, and returns to the sign-in cards. */
+    private void showLanding() {
+        AuthService.getInstance().logout();
+        mainLayout.setLeft(null);
+        mainLayout.setCenter(landingView);
+    }
+
+    /** The registry expires idle sessions; when the terminal's goes, so does the signed-in view. */
+    private void watchSessionExpiry() {
+        Timeline watch = new Timeline(new KeyFrame(Duration.seconds(15), e -> {
+            if (!SessionManager.isTerminalSessionExpired()) return;
+            showLanding();
+            new Alert(Alert.AlertType.INFORMATION, "You were signed out after a period of inactivity.").show();
+        }));
+        watch.setCycleCount(Animation.INDEFINITE);
+        watch.play();
     }
 
     private VBox buildGuestSidePanel() {
@@ -199,12 +225,7 @@ public class HotelReservationApp extends Application {
         Button logoutBtn = new Button("Log out");
         logoutBtn.setMaxWidth(Double.MAX_VALUE);
         logoutBtn.setStyle(SIDE_BTN);
-        logoutBtn.setOnAction(e -> {
-            SessionManager.logout();
-            AuthService.getInstance().logout();
-            mainLayout.setLeft(null);
-            mainLayout.setCenter(landingView);
-        });
+        logoutBtn.setOnAction(e -> showLanding());
         side.getChildren().add(logoutBtn);
         return side;
     }
@@ -270,12 +291,7 @@ public class HotelReservationApp extends Application {
         Button logoutBtn = new Button("Log out");
         logoutBtn.setMaxWidth(Double.MAX_VALUE);
         logoutBtn.setStyle(SIDE_BTN);
-        logoutBtn.setOnAction(e -> {
-            SessionManager.logout();
-            AuthService.getInstance().logout();
-            mainLayout.setLeft(null);
-            mainLayout.setCenter(landingView);
-        });
+        logoutBtn.setOnAction(e -> showLanding());
         side.getChildren().add(logoutBtn);
 
         return side;
@@ -298,15 +314,20 @@ public class HotelReservationApp extends Application {
         card.setPadding(new Insets(24));
         card.setStyle("-fx-background-color: rgba(255, 255, 255, 0.06); -fx-background-radius: 12;");
 
-        int roomCount = RoomService.getInstance().findAll().size();
-        int customerCount = CustomerService.getInstance().findAll().size();
-        int reservationCount = ReservationService.getInstance().findAll().size();
+        DashboardMetrics metrics = MetricsService.getInstance().getMetrics();
 
-        Label stats = new Label(String.format("Rooms: %d | Customers: %d | Reservations: %d", roomCount, customerCount, reservationCount));
+        Label stats = new Label(String.format("Rooms: %d | Customers: %d | Reservations: %d",
+                metrics.getRooms(), metrics.getCustomers(), metrics.getReservations()));
         stats.setFont(Font.font("Segoe UI", 14));
         stats.setTextFill(Color.web("#c0c0c0"));
 
-        card.getChildren().addAll(welcome, stats);
+        Label today = new Label(String.format("In house: %d | Arrivals today: %d | Departures today: %d | Occupancy: %.0f%% (%d/%d)",
+                metrics.getInHouse(), metrics.getArrivalsToday(), metrics.getDeparturesToday(),
+                metrics.getOccupancyPercent(), metrics.getOccupiedTonight(), metrics.getRooms()));
+        today.setFont(Font.font("Segoe UI", 14));
+        today.setTextFill(Color.web("#c0c0c0"));
+
+        card.getChildren().addAll(welcome, stats, today);
         main.getChildren().addAll(heading, card);
 
         ScrollPane scroll = new ScrollPane(main);
@@ -371,7 +392,10 @@ public class HotelReservationApp extends Application {
                     return;
                 }
                 if (new Alert(Alert.AlertType.CONFIRMATION, "Delete room " + sel.getRoomNumber() + "?").showAndWait().orElse(ButtonType.CANCEL) == ButtonType.OK) {
-                    RoomService.getInstance().deleteRoom(sel.getRoomId());
+                    if (!RoomService.getInstance().deleteRoom(sel.getRoomId())) {
+                        int active = ReservationService.getInstance().countActiveReservations(sel.getRoomId());
+                        new Alert(Alert.AlertType.WARNING, "Room has " + active + " active reservation(s). Cancel or move them first.").show();
+                    }
                     showRoomManagement();
                 }
             }
@@ -473,7 +497,12 @@ public class HotelReservationApp extends Application {
         refreshBtn.setStyle("-fx-background-color: rgba(255,255,255,0.1); -fx-text-fill: #e8e8e8; -fx-cursor: hand;");
         refreshBtn.setOnAction(e -> showCustomerManagement());
 
-        topBar.getChildren().addAll(heading, addBtn, refreshBtn);
+        TextField searchField = new TextField();
+        searchField.setPromptText("Search name, phone, email or ID");
+        searchField.setPrefWidth(280);
+        searchField.setStyle(DIALOG_FIELD);
+
+        topBar.getChildren().addAll(heading, addBtn, refreshBtn, searchField);
 
         TableView<Customer> table = new TableView<>();
         table.setPlaceholder(new Label("No customers yet. Click 'Add Customer'."));
@@ -493,6 +522,9 @@ public class HotelReservationApp extends Application {
 
         table.getColumns().addAll(idCol, nameCol, phoneCol, emailCol, idNumCol);
         table.setItems(FXCollections.observableArrayList(CustomerService.getInstance().findAll()));
+        searchField.textProperty().addListener((obs, old, text) -> table.setItems(FXCollections.observableArrayList(
+                !CustomerSearchService.isSearchable(text) ? CustomerService.getInstance().findAll()
+                        : CustomerSearchService.getInstance().search(text, 200))));
 
         ContextMenu ctx = new ContextMenu();
         MenuItem editItem = new MenuItem("Edit");
@@ -638,37 +670,58 @@ public class HotelReservationApp extends Application {
         refreshBtn.setStyle("-fx-background-color: rgba(255,255,255,0.1); -fx-text-fill: #e8e8e8; -fx-cursor: hand;");
         refreshBtn.setOnAction(e -> showReservationManagement());
 
-        topBar.getChildren().addAll(heading, addBtn, refreshBtn);
+        Button arrivalsBtn = new Button("Check In Today's Arrivals");
+        arrivalsBtn.setStyle("-fx-background-color: rgba(255,255,255,0.1); -fx-text-fill: #e8e8e8; -fx-cursor: hand;");
+        arrivalsBtn.setOnAction(e -> {
+            Map<Integer, BulkOutcome> outcomes = ReservationService.getInstance().checkInArrivals(LocalDate.now());
+            long done = outcomes.values().stream().filter(o -> o == BulkOutcome.UPDATED).count();
+            new Alert(Alert.AlertType.INFORMATION, "Checked in " + done + " reservation(s).").showAndWait();
+            showReservationManagement();
+        });
+
+        Button departuresBtn = new Button("Check Out Today's Departures");
+        departuresBtn.setStyle("-fx-background-color: rgba(255,255,255,0.1); -fx-text-fill: #e8e8e8; -fx-cursor: hand;");
+        departuresBtn.setOnAction(e -> {
+            Map<Integer, BulkOutcome> outcomes = ReservationService.getInstance().checkOutDepartures(LocalDate.now());
+            long done = outcomes.values().stream().filter(o -> o == BulkOutcome.UPDATED).count();
+            new Alert(Alert.AlertType.INFORMATION, "Checked out " + done + " reservation(s).").showAndWait();
+            showReservationManagement();
+        });
 
-        TableView<Reservation> table = new TableView<>();
+        topBar.getChildren().addAll(heading, addBtn, refreshBtn, arrivalsBtn, departuresBtn);
+
+        TableView<ReservationRow> table = new TableView<>();
+        table.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
         table.setPlaceholder(new Label("No reservations yet."));
         table.setStyle("-fx-background-color: rgba(255, 255, 255, 0.04);");
         table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_ALL_COLUMNS);
 
-        TableColumn<Reservation, Integer> idCol = new TableColumn<>("ID");
+        // Rows carry the customer, room and balance from one joined query; cells never hit the database
+        TableColumn<ReservationRow, Integer> idCol = new TableColumn<>("ID");
         idCol.setCellValueFactory(new PropertyValueFactory<>("reservationId"));
-        TableColumn<Reservation, String> custCol = new TableColumn<>("Customer");
+        TableColumn<ReservationRow, String> custCol = new TableColumn<>("Customer");
         custCol.setCellValueFactory(c -> new javafx.beans.property.SimpleStringProperty(
-                CustomerService.getInstance().findById(c.getValue().getCustomerId()).map(Customer::getFullName).orElse("?")));
-        TableColumn<Reservation, String> roomCol = new TableColumn<>("Room");
-        roomCol.setCellValueFactory(c -> new javafx.beans.property.SimpleStringProperty(
-                RoomService.getInstance().findById(c.getValue().getRoomId()).map(Room::getRoomNumber).orElse("?")));
-        TableColumn<Reservation, String> checkInCol = new TableColumn<>("Check-in");
+                c.getValue().getCustomerName() != null ? c.getValue().getCustomerName() : "?"));
+        TableColumn<ReservationRow, String> roomCol = new TableColumn<>("Room");
+        roomCol.setCellValueFactory(c -> new javafx.beans.property.SimpleStringProperty(roomLabel(c.getValue())));
+        TableColumn<ReservationRow, String> checkInCol = new TableColumn<>("Check-in");
         checkInCol.setCellValueFactory(c -> new javafx.beans.property.SimpleStringProperty(c.getValue().getCheckInDate().toString()));
-        TableColumn<Reservation, String> checkOutCol = new TableColumn<>("Check-out");
+        TableColumn<ReservationRow, String> checkOutCol = new TableColumn<>("Check-out");
         checkOutCol.setCellValueFactory(c -> new javafx.beans.property.SimpleStringProperty(c.getValue().getCheckOutDate().toString()));
-        TableColumn<Reservation, String> statusCol = new TableColumn<>("Status");
+        TableColumn<ReservationRow, String> statusCol = new TableColumn<>("Status");
         statusCol.setCellValueFactory(c -> new javafx.beans.property.SimpleStringProperty(c.getValue().getStatus().toString()));
 
-        TableColumn<Reservation, Integer> guestsCol = new TableColumn<>("Guests");
+        TableColumn<ReservationRow, Integer> guestsCol = new TableColumn<>("Guests");
         guestsCol.setCellValueFactory(new PropertyValueFactory<>("numberOfGuests"));
-        table.getColumns().addAll(idCol, custCol, roomCol, checkInCol, checkOutCol, guestsCol, statusCol);
-        table.setItems(FXCollections.observableArrayList(ReservationService.getInstance().findAll()));
+        TableColumn<ReservationRow, String> balanceCol = new TableColumn<>("Balance");
+        balanceCol.setCellValueFactory(c -> new javafx.beans.property.SimpleStringProperty(String.format("$%.2f", c.getValue().getBalance())));
+        table.getColumns().addAll(idCol, custCol, roomCol, checkInCol, checkOutCol, guestsCol, statusCol, balanceCol);
+        table.setItems(FXCollections.observableArrayList(ReservationService.getInstance().findAllRows()));
 
         ContextMenu ctx = new ContextMenu();
         MenuItem checkInItem = new MenuItem("Check In");
         checkInItem.setOnAction(e -> {
-            Reservation sel = table.getSelectionModel().getSelectedItem();
+            ReservationRow sel = table.getSelectionModel().getSelectedItem();
             if (sel != null && sel.getStatus() == ReservationStatus.BOOKED) {
                 ReservationService.getInstance().checkIn(sel.getReservationId());
                 showReservationManagement();
@@ -676,7 +729,7 @@ public class HotelReservationApp extends Application {
         });
         MenuItem checkOutItem = new MenuItem("Check Out");
         checkOutItem.setOnAction(e -> {
-            Reservation sel = table.getSelectionModel().getSelectedItem();
+            ReservationRow sel = table.getSelectionModel().getSelectedItem();
             if (sel != null && sel.getStatus() == ReservationStatus.CHECKED_IN) {
                 ReservationService.getInstance().checkOut(sel.getReservationId());
                 showReservationManagement();
@@ -684,9 +737,11 @@ public class HotelReservationApp extends Application {
         });
         MenuItem cancelItem = new MenuItem("Cancel");
         cancelItem.setOnAction(e -> {
-            Reservation sel = table.getSelectionModel().getSelectedItem();
-            if (sel != null && new Alert(Alert.AlertType.CONFIRMATION, "Cancel reservation?").showAndWait().orElse(ButtonType.CANCEL) == ButtonType.OK) {
-                ReservationService.getInstance().cancelReservation(sel.getReservationId());
+            List<Integer> ids = table.getSelectionModel().getSelectedItems().stream().map(ReservationRow::getReservationId).toList();
+            if (!ids.isEmpty() && new Alert(Alert.AlertType.CONFIRMATION, "Cancel " + ids.size() + " reservation(s)?").showAndWait().orElse(ButtonType.CANCEL) == ButtonType.OK) {
+                Map<Integer, BulkOutcome> outcomes = ReservationService.getInstance().cancelAll(ids);
+                long skipped = outcomes.values().stream().filter(o -> o == BulkOutcome.INVALID_STATUS || o == BulkOutcome.NOT_FOUND).count();
+                if (skipped > 0) new Alert(Alert.AlertType.WARNING, skipped + " reservation(s) could not be cancelled.").showAndWait();
                 showReservationManagement();
             }
         });
@@ -705,6 +760,8 @@ public class HotelReservationApp extends Application {
     private void showAddReservationDialog() {
         Dialog<Object> dialog = new Dialog<>();
         dialog.setTitle("New Reservation");
+        // One key per dialog: a double-fired submit books and charges once
+        String requestKey = UUID.randomUUID().toString();
         dialog.setHeaderText("Create a reservation");
 
         ButtonType addType = new ButtonType("Create", ButtonBar.ButtonData.OK_DONE);
@@ -715,7 +772,8 @@ public class HotelReservationApp extends Application {
         grid.setVgap(12);
         grid.setPadding(new Insets(20));
 
-        List<Customer> customers = CustomerService.getInstance().findAll();
+        // Newest customers up front; the search box finds anyone else without loading every customer
+        List<Customer> customers = CustomerService.getInstance().findRecent(CustomerSearchService.DEFAULT_LIMIT);
         ComboBox<Customer> custCombo = new ComboBox<>(FXCollections.observableArrayList(customers));
         custCombo.setConverter(new javafx.util.StringConverter<Customer>() {
             @Override
@@ -724,6 +782,14 @@ public class HotelReservationApp extends Application {
             public Customer fromString(String s) { return null; }
         });
         if (!customers.isEmpty()) custCombo.setValue(customers.get(0));
+        TextField custSearch = new TextField();
+        custSearch.setPromptText("Search name, phone, email or ID");
+        custSearch.textProperty().addListener((obs, old, text) -> {
+            if (!CustomerSearchService.isSearchable(text)) return;
+            List<Customer> matches = CustomerSearchService.getInstance().search(text);
+            custCombo.setItems(FXCollections.observableArrayList(matches));
+            custCombo.setValue(matches.isEmpty() ? null : matches.get(0));
+        });
 
         DatePicker checkInPicker = new DatePicker(LocalDate.now());
         DatePicker checkOutPicker = new DatePicker(LocalDate.now().plusDays(1));
@@ -736,13 +802,14 @@ public class HotelReservationApp extends Application {
         Label daysLabel = new Label("0 nights");
         styleDialogLabel(daysLabel);
 
+        styleDialogField(custSearch);
         styleDialogField(custCombo);
         styleDialogField(checkInPicker);
         styleDialogField(checkOutPicker);
         styleDialogField(guestsSpinner);
         styleDialogField(roomCombo);
 
-        addDialogRow(grid, 0, "Customer*:", custCombo);
+        addDialogRow(grid, 0, "Customer*:", new VBox(6, custSearch, custCombo));
         addDialogRow(grid, 1, "Check-in*:", checkInPicker);
         addDialogRow(grid, 2, "Check-out*:", checkOutPicker);
         addDialogRow(grid, 3, "Nights staying:", daysLabel);
@@ -771,6 +838,14 @@ public class HotelReservationApp extends Application {
         addDialogRow(grid, 6, "Pay now (optional):", payAmountField);
         addDialogRow(grid, 7, "Payment method:", payMethodCombo);
 
+        Label quoteLabel = new Label();
+        styleDialogLabel(quoteLabel);
+        addDialogRow(grid, 8, "Estimated cost:", quoteLabel);
+        Runnable updateQuote = () -> updateQuoteLabel(quoteLabel, checkInPicker, checkOutPicker, guestsSpinner, roomCombo);
+        roomCombo.valueProperty().addListener((o, old, val) -> updateQuote.run());
+        guestsSpinner.valueProperty().addListener((o, old, val) -> updateQuote.run());
+        updateQuote.run();
+
         dialog.getDialogPane().setContent(grid);
 
         Button addButton = (Button) dialog.getDialogPane().lookupButton(addType);
@@ -802,12 +877,12 @@ public class HotelReservationApp extends Application {
             Customer cust = custCombo.getValue();
             int numGuests = guestsSpinner.getValue();
             if (cust != null && ci != null && co != null && sel != null) {
-                int id = ReservationService.getInstance().createReservation(cust.getCustomerId(), sel.getRoomId(), ci, co, numGuests);
+                int id = ReservationService.getInstance().createReservation(requestKey, cust.getCustomerId(), sel.getRoomId(), ci, co, numGuests);
                 if (id != -1) {
                     try {
                         double payAmount = Double.parseDouble(payAmountField.getText().trim());
                         if (payAmount > 0) {
-                            PaymentService.getInstance().recordPayment(id, payAmount, payMethodCombo.getValue());
+                            PaymentService.getInstance().recordPayment(requestKey + ":deposit", id, payAmount, payMethodCombo.getValue());
                         }
                     } catch (NumberFormatException ignored) { }
                     showReservationManagement();
@@ -821,13 +896,33 @@ public class HotelReservationApp extends Application {
         LocalDate co = checkOut.getValue();
         roomCombo.getItems().clear();
         if (ci == null || co == null || !co.isAfter(ci)) return;
-        List<Room> available = ReservationService.getInstance().getAvailableRooms(ci, co);
+        List<Room> available = RoomAssignmentService.getInstance().rankByFit(
+                ReservationService.getInstance().getAvailableRooms(ci, co), ci, co);
         for (Room r : available) {
             roomCombo.getItems().add(r.getRoomNumber() + " - " + r.getRoomType() + " - $" + r.getPricePerNight());
         }
         if (!available.isEmpty()) roomCombo.setValue(roomCombo.getItems().get(0));
     }
 
+    private void updateQuoteLabel(Label quoteLabel, DatePicker checkIn, DatePicker checkOut,
+                                  Spinner<Integer> guests, ComboBox<String> roomCombo) {
+        Room room = getSelectedRoom(roomCombo);
+        StayQuote quote = room == null ? null : QuoteService.getInstance()
+                .quoteRoom(room.getRoomId(), checkIn.getValue(), checkOut.getValue(), guests.getValue()).orElse(null);
+        if (quote == null) {
+            quoteLabel.setText("-");
+            quoteLabel.setTooltip(null);
+            return;
+        }
+        quoteLabel.setText(String.format("$%.2f (incl. $%.2f tax) - deposit $%.2f",
+                quote.getTotal(), quote.getTaxes(), quote.getDeposit()));
+        StringBuilder breakdown = new StringBuilder();
+        quote.getNightlyRates().forEach((night, rate) ->
+                breakdown.append(night).append(": $").append(String.format("%.2f", rate)).append('\n'));
+        breakdown.append("Subtotal: $").append(String.format("%.2f", quote.getSubtotal()));
+        quoteLabel.setTooltip(new Tooltip(breakdown.toString()));
+    }
+
     private Room getSelectedRoom(ComboBox<String> roomCombo) {
         String val = roomCombo.getValue();
         if (val == null) return null;
@@ -893,6 +988,7 @@ public class HotelReservationApp extends Application {
 
         table.setPrefHeight(400);
         main.getChildren().addAll(topBar, table);
+        if (!SessionManager.isGuest()) main.getChildren().add(buildRevenueCard());
 
         ScrollPane scroll = new ScrollPane(main);
         scroll.setFitToWidth(true);
@@ -900,9 +996,49 @@ public class HotelReservationApp extends Application {
         contentArea.getChildren().add(scroll);
     }
 
+    /** Revenue of a date range by room type and payment method; closed days come from the report cache. */
+    private VBox buildRevenueCard() {
+        VBox card = new VBox(12);
+        card.setPadding(new Insets(24));
+        card.setStyle("-fx-background-color: rgba(255, 255, 255, 0.06); -fx-background-radius: 12;");
+        Label title = new Label("Revenue");
+        title.setFont(Font.font("Segoe UI", FontWeight.BOLD, 18));
+        title.setTextFill(Color.web("#e8e8e8"));
+
+        DatePicker fromPicker = new DatePicker(LocalDate.now().withDayOfMonth(1));
+        DatePicker toPicker = new DatePicker(LocalDate.now());
+        Button runBtn = new Button("Show");
+        runBtn.setStyle("-fx-background-color: rgba(255,255,255,0.1); -fx-text-fill: #e8e8e8; -fx-cursor: hand;");
+        HBox range = new HBox(12, new Label("From"), fromPicker, new Label("To (inclusive)"), toPicker, runBtn);
+        range.setAlignment(Pos.CENTER_LEFT);
+        range.getChildren().stream().filter(n -> n instanceof Label).forEach(n -> ((Label) n).setTextFill(Color.web("#c0c0c0")));
+
+        Label summary = new Label();
+        summary.setFont(Font.font("Segoe UI", 14));
+        summary.setTextFill(Color.web("#c0c0c0"));
+        runBtn.setOnAction(e -> {
+            LocalDate from = fromPicker.getValue();
+            LocalDate to = toPicker.getValue();
+            if (from == null || to == null || to.isBefore(from)) {
+                summary.setText("Pick a valid date range.");
+                return;
+            }
+            RevenueReport report = RevenueReportService.getInstance().getReport(from, to.plusDays(1));
+            StringBuilder text = new StringBuilder(String.format("Total: $%.2f from %d payment(s)", report.getTotal(), report.getPaymentCount()));
+            report.getByRoomType().forEach((type, amount) -> text.append(String.format("%n%s: $%.2f", type, amount)));
+            report.getByMethod().forEach((method, amount) -> text.append(String.format("%n%s: $%.2f", method, amount)));
+            summary.setText(text.toString());
+        });
+        runBtn.fire();
+
+        card.getChildren().addAll(title, range, summary);
+        return card;
+    }
+
     private void showAddPaymentDialog() {
         Dialog<Object> dialog = new Dialog<>();
         dialog.setTitle("Record Payment");
+        String requestKey = UUID.randomUUID().toString();
         dialog.setHeaderText("Record a payment for a reservation");
 
         ButtonType addType = new ButtonType("Record", ButtonBar.ButtonData.OK_DONE);
@@ -947,7 +1083,7 @@ public class HotelReservationApp extends Application {
             try {
                 int resId = Integer.parseInt(resIdField.getText().trim());
                 double amount = Double.parseDouble(amountField.getText().trim());
-                int id = PaymentService.getInstance().recordPayment(resId, amount, methodCombo.getValue());
+                int id = PaymentService.getInstance().recordPayment(requestKey, resId, amount, methodCombo.getValue());
                 if (id != -1) showPaymentManagement();
                 else new Alert(Alert.AlertType.ERROR, "Reservation not found or invalid amount").show();
             } catch (NumberFormatException e) {
@@ -1006,8 +1142,12 @@ public class HotelReservationApp extends Application {
                 statusLabel.setVisible(true);
                 return;
             }
-            if (GuestAuthService.getInstance().login(u, p) != -1) switchToGuestDashboard();
-            else { statusLabel.setText("Invalid username or password"); statusLabel.setVisible(true); }
+            signInBtn.setDisable(true);
+            GuestAuthService.getInstance().loginAsync(u, p).whenComplete((id, err) -> Platform.runLater(() -> {
+                signInBtn.setDisable(false);
+                if (err == null && id != -1) switchToGuestDashboard();
+                else { statusLabel.setText(err != null ? "Sign-in is busy, please try again" : "Invalid username or password"); statusLabel.setVisible(true); }
+            }));
         });
         Hyperlink toRegister = new Hyperlink("Create account");
         toRegister.setFont(Font.font("Segoe UI", 12));
@@ -1059,8 +1199,13 @@ public class HotelReservationApp extends Application {
         Button createBtn = styleButton(new Button("CREATE ACCOUNT"));
         createBtn.setOnAction(e -> {
             if (!p.getText().equals(cp.getText())) { statusLabel.setText("Passwords do not match"); statusLabel.setVisible(true); return; }
-            if (GuestAuthService.getInstance().register(u.getText().trim(), fn.getText().trim(), ph.getText(), em.getText(), null, p.getText()) != -1) switchToGuestDashboard();
-            else { statusLabel.setText("Username may already exist"); statusLabel.setVisible(true); }
+            createBtn.setDisable(true);
+            GuestAuthService.getInstance().registerAsync(u.getText().trim(), fn.getText().trim(), ph.getText(), em.getText(), null, p.getText())
+                    .whenComplete((id, err) -> Platform.runLater(() -> {
+                        createBtn.setDisable(false);
+                        if (err == null && id != -1) switchToGuestDashboard();
+                        else { statusLabel.setText(err != null ? "Sign-up is busy, please try again" : "Username may already exist"); statusLabel.setVisible(true); }
+                    }));
         });
         Hyperlink toLogin = new Hyperlink("Already have an account? Sign in");
         toLogin.setFont(Font.font("Segoe UI", 12));
@@ -1097,8 +1242,12 @@ public class HotelReservationApp extends Application {
         statusLabel.setVisible(false);
         Button signInBtn = styleButton(new Button("SIGN IN"));
         signInBtn.setOnAction(e -> {
-            if (AuthService.getInstance().login(u.getText().trim(), p.getText()) != -1) switchToAdminDashboard();
-            else { statusLabel.setText("Invalid username or password"); statusLabel.setVisible(true); }
+            signInBtn.setDisable(true);
+            AuthService.getInstance().loginAsync(u.getText().trim(), p.getText()).whenComplete((id, err) -> Platform.runLater(() -> {
+                signInBtn.setDisable(false);
+                if (err == null && id != -1) switchToAdminDashboard();
+                else { statusLabel.setText(err != null ? "Sign-in is busy, please try again" : "Invalid username or password"); statusLabel.setVisible(true); }
+            }));
         });
         Hyperlink toRegister = new Hyperlink("Create admin account");
         toRegister.setFont(Font.font("Segoe UI", 12));
@@ -1143,8 +1292,13 @@ public class HotelReservationApp extends Application {
         Button createBtn = styleButton(new Button("CREATE ADMIN ACCOUNT"));
         createBtn.setOnAction(e -> {
             if (!p.getText().equals(cp.getText())) { statusLabel.setText("Passwords do not match"); statusLabel.setVisible(true); return; }
-            if (AuthService.getInstance().register(u.getText().trim(), fn.getText().trim(), p.getText()) != -1) switchToAdminDashboard();
-            else { statusLabel.setText("Username may already exist"); statusLabel.setVisible(true); }
+            createBtn.setDisable(true);
+            AuthService.getInstance().registerAsync(u.getText().trim(), fn.getText().trim(), p.getText())
+                    .whenComplete((id, err) -> Platform.runLater(() -> {
+                        createBtn.setDisable(false);
+                        if (err == null && id != -1) switchToAdminDashboard();
+                        else { statusLabel.setText(err != null ? "Sign-up is busy, please try again" : "Username may already exist"); statusLabel.setVisible(true); }
+                    }));
         });
         Hyperlink toLogin = new Hyperlink("Already have an account? Sign in");
         toLogin.setFont(Font.font("Segoe UI", 12));
@@ -1231,6 +1385,7 @@ public class HotelReservationApp extends Application {
     private void showGuestBookDialog() {
         Dialog<Object> dialog = new Dialog<>();
         dialog.setTitle("Book a Room");
+        String requestKey = UUID.randomUUID().toString();
         dialog.setHeaderText("Create your reservation");
         ButtonType addType = new ButtonType("Book", ButtonBar.ButtonData.OK_DONE);
         dialog.getDialogPane().getButtonTypes().addAll(addType, ButtonType.CANCEL);
@@ -1277,6 +1432,14 @@ public class HotelReservationApp extends Application {
         checkOutPicker.valueProperty().addListener((o, a, v) -> updateRooms.run());
         updateRooms.run();
 
+        Label quoteLabel = new Label();
+        styleDialogLabel(quoteLabel);
+        addDialogRow(grid, 7, "Estimated cost:", quoteLabel);
+        Runnable updateQuote = () -> updateQuoteLabel(quoteLabel, checkInPicker, checkOutPicker, guestsSpinner, roomCombo);
+        roomCombo.valueProperty().addListener((o, a, v) -> updateQuote.run());
+        guestsSpinner.valueProperty().addListener((o, a, v) -> updateQuote.run());
+        updateQuote.run();
+
         dialog.getDialogPane().setContent(grid);
         Button addButton = (Button) dialog.getDialogPane().lookupButton(addType);
         addButton.addEventFilter(javafx.event.ActionEvent.ACTION, ev -> {
@@ -1297,11 +1460,11 @@ public class HotelReservationApp extends Application {
             LocalDate co = checkOutPicker.getValue();
             Room sel = getSelectedRoom(roomCombo);
             if (guestId != -1 && ci != null && co != null && sel != null) {
-                int id = ReservationService.getInstance().createReservation(guestId, sel.getRoomId(), ci, co, guestsSpinner.getValue());
+                int id = ReservationService.getInstance().createReservation(requestKey, guestId, sel.getRoomId(), ci, co, guestsSpinner.getValue());
                 if (id != -1) {
                     try {
                         double pay = Double.parseDouble(payAmountField.getText().trim());
-                        if (pay > 0) PaymentService.getInstance().recordPayment(id, pay, payMethodCombo.getValue());
+                        if (pay > 0) PaymentService.getInstance().recordPayment(requestKey + ":deposit", id, pay, payMethodCombo.getValue());
                     } catch (NumberFormatException ignored) { }
                     showGuestReservations();
                 }
@@ -1325,30 +1488,31 @@ public class HotelReservationApp extends Application {
         top.setAlignment(Pos.CENTER_LEFT);
         top.getChildren().addAll(heading, bookBtn);
 
-        TableView<Reservation> table = new TableView<>();
+        TableView<ReservationRow> table = new TableView<>();
         table.setPlaceholder(new Label("No reservations yet. Click 'Book a Room' to make one."));
         table.setStyle("-fx-background-color: rgba(255, 255, 255, 0.04);");
         table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_ALL_COLUMNS);
-        TableColumn<Reservation, Integer> idCol = new TableColumn<>("ID");
+        TableColumn<ReservationRow, Integer> idCol = new TableColumn<>("ID");
         idCol.setCellValueFactory(new PropertyValueFactory<>("reservationId"));
-        TableColumn<Reservation, String> roomCol = new TableColumn<>("Room");
-        roomCol.setCellValueFactory(c -> new javafx.beans.property.SimpleStringProperty(
-                RoomService.getInstance().findById(c.getValue().getRoomId()).map(Room::getRoomNumber).orElse("?")));
-        TableColumn<Reservation, String> checkInCol = new TableColumn<>("Check-in");
+        TableColumn<ReservationRow, String> roomCol = new TableColumn<>("Room");
+        roomCol.setCellValueFactory(c -> new javafx.beans.property.SimpleStringProperty(roomLabel(c.getValue())));
+        TableColumn<ReservationRow, String> checkInCol = new TableColumn<>("Check-in");
         checkInCol.setCellValueFactory(c -> new javafx.beans.property.SimpleStringProperty(c.getValue().getCheckInDate().toString()));
-        TableColumn<Reservation, String> checkOutCol = new TableColumn<>("Check-out");
+        TableColumn<ReservationRow, String> checkOutCol = new TableColumn<>("Check-out");
         checkOutCol.setCellValueFactory(c -> new javafx.beans.property.SimpleStringProperty(c.getValue().getCheckOutDate().toString()));
-        TableColumn<Reservation, Integer> guestsCol = new TableColumn<>("Guests");
+        TableColumn<ReservationRow, Integer> guestsCol = new TableColumn<>("Guests");
         guestsCol.setCellValueFactory(new PropertyValueFactory<>("numberOfGuests"));
-        TableColumn<Reservation, String> statusCol = new TableColumn<>("Status");
+        TableColumn<ReservationRow, String> statusCol = new TableColumn<>("Status");
         statusCol.setCellValueFactory(c -> new javafx.beans.property.SimpleStringProperty(c.getValue().getStatus().toString()));
-        table.getColumns().addAll(idCol, roomCol, checkInCol, checkOutCol, guestsCol, statusCol);
-        table.setItems(FXCollections.observableArrayList(ReservationService.getInstance().findByCustomerId(SessionManager.getCurrentGuestId())));
+        TableColumn<ReservationRow, String> balanceCol = new TableColumn<>("Balance");
+        balanceCol.setCellValueFactory(c -> new javafx.beans.property.SimpleStringProperty(String.format("$%.2f", c.getValue().getBalance())));
+        table.getColumns().addAll(idCol, roomCol, checkInCol, checkOutCol, guestsCol, statusCol, balanceCol);
+        table.setItems(FXCollections.observableArrayList(ReservationService.getInstance().findRowsByCustomerId(SessionManager.getCurrentGuestId())));
 
         ContextMenu ctx = new ContextMenu();
         MenuItem cancelItem = new MenuItem("Cancel");
         cancelItem.setOnAction(e -> {
-            Reservation sel = table.getSelectionModel().getSelectedItem();
+            ReservationRow sel = table.getSelectionModel().getSelectedItem();
             if (sel != null && sel.getStatus() == ReservationStatus.BOOKED && new Alert(Alert.AlertType.CONFIRMATION, "Cancel reservation?").showAndWait().orElse(ButtonType.CANCEL) == ButtonType.OK) {
                 ReservationService.getInstance().cancelReservation(sel.getReservationId());
                 showGuestReservations();
@@ -1364,6 +1528,11 @@ public class HotelReservationApp extends Application {
         contentArea.getChildren().add(scroll);
     }
 
+    private static String roomLabel(ReservationRow row) {
+        if (row.getRoomNumber() == null) return "?";
+        return row.getRoomType() != null ? row.getRoomNumber() + " (" + row.getRoomType() + ")" : row.getRoomNumber();
+    }
+
     private void showGuestPayments() {
         contentArea.getChildren().clear();
         VBox main = new VBox(20);
@@ -1434,14 +1603,22 @@ public class HotelReservationApp extends Application {
         contentArea.getChildren().add(scroll);
     }
 
+    @Override
+    public void stop() {
+        NightAuditService.getInstance().shutdown();
+        AuditService.getInstance().shutdown();
+    }
+
     @Override
     public void start(Stage primaryStage) {
         try {
             DatabaseInitializer.initialize();
+            AuthService.seedAdminIfNeeded();
         } catch (Exception e) {
             new Alert(Alert.AlertType.ERROR, "Failed to initialize database: " + e.getMessage()).showAndWait();
             return;
         }
+        NightAuditService.getInstance().start();
 
         primaryStage.setTitle("Hotel Reservation System");
         primaryStage.setMaximized(true);
@@ -1471,6 +1648,7 @@ public class HotelReservationApp extends Application {
 
         landingView = buildLandingPage();
         mainLayout.setCenter(landingView);
+        watchSessionExpiry();
 
         Scene scene = new Scene(root, 1200, 800);
         primaryStage.setScene(scene);
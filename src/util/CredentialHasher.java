@@ -0,0 +1,13 @@
+package util;
+
+/**
+ * A password hashing scheme. Stored hashes carry enough of their parameters to be verified later.
+ */
+public interface CredentialHasher {
+    String hash(String password);
+    /** True if this hasher produced the stored hash format. */
+    boolean canVerify(String storedHash);
+    boolean matches(String password, String storedHash);
+    /** True if the stored hash is this hasher's format but with weaker parameters than it now uses. */
+    boolean needsRehash(String storedHash);
+}
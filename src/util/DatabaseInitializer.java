@@ -1,8 +1,12 @@
 package util;
 
-import service.AuthService;
+import dao.sqlite.SQLiteCustomerDAO;
+import dao.sqlite.SQLiteReservationBalanceDAO;
+import dao.sqlite.SQLiteRoomNightDAO;
+import service.QuoteService;
 
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 
@@ -24,8 +28,7 @@ public final class DatabaseInitializer {
                     "room_id INTEGER PRIMARY KEY AUTOINCREMENT," +
                     "room_number TEXT UNIQUE NOT NULL," +
                     "room_type TEXT NOT NULL," +
-                    "price_per_night REAL NOT NULL," +
-                    "status TEXT NOT NULL DEFAULT 'AVAILABLE')",
+                    "price_per_night REAL NOT NULL)",
             "CREATE TABLE IF NOT EXISTS reservations (" +
                     "reservation_id INTEGER PRIMARY KEY AUTOINCREMENT," +
                     "customer_id INTEGER NOT NULL," +
@@ -41,7 +44,67 @@ public final class DatabaseInitializer {
                     "amount REAL NOT NULL," +
                     "method TEXT NOT NULL," +
                     "payment_date TEXT NOT NULL," +
-                    "FOREIGN KEY (reservation_id) REFERENCES reservations(reservation_id))"
+                    "FOREIGN KEY (reservation_id) REFERENCES reservations(reservation_id))",
+            "CREATE TABLE IF NOT EXISTS room_nights (" +
+                    "room_id INTEGER NOT NULL," +
+                    "night TEXT NOT NULL," +
+                    "reservation_id INTEGER NOT NULL," +
+                    "PRIMARY KEY (room_id, night)," +
+                    "FOREIGN KEY (room_id) REFERENCES rooms(room_id)," +
+                    "FOREIGN KEY (reservation_id) REFERENCES reservations(reservation_id)) WITHOUT ROWID",
+            "CREATE TABLE IF NOT EXISTS room_rates (" +
+                    "room_type TEXT NOT NULL," +
+                    "night TEXT NOT NULL," +
+                    "multiplier REAL NOT NULL," +
+                    "PRIMARY KEY (room_type, night)) WITHOUT ROWID",
+            "CREATE TABLE IF NOT EXISTS daily_snapshots (" +
+                    "business_date TEXT PRIMARY KEY," +
+                    "revenue REAL NOT NULL," +
+                    "occupied_rooms INTEGER NOT NULL," +
+                    "total_rooms INTEGER NOT NULL," +
+                    "no_shows INTEGER NOT NULL," +
+                    "auto_check_outs INTEGER NOT NULL)",
+            "CREATE TABLE IF NOT EXISTS reservation_balances (" +
+                    "reservation_id INTEGER PRIMARY KEY," +
+                    "total_charged REAL NOT NULL DEFAULT 0," +
+                    "total_paid REAL NOT NULL DEFAULT 0," +
+                    "balance REAL NOT NULL DEFAULT 0," +
+                    "FOREIGN KEY (reservation_id) REFERENCES reservations(reservation_id))",
+            "CREATE TABLE IF NOT EXISTS audit_log (" +
+                    "audit_id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                    "occurred_at TEXT NOT NULL," +
+                    "actor TEXT NOT NULL," +
+                    "entity TEXT NOT NULL," +
+                    "entity_id INTEGER NOT NULL," +
+                    "action TEXT NOT NULL," +
+                    "before_value TEXT," +
+                    "after_value TEXT)",
+            "CREATE TABLE IF NOT EXISTS idempotency_keys (" +
+                    "operation TEXT NOT NULL," +
+                    "idempotency_key TEXT NOT NULL," +
+                    "result INTEGER NOT NULL," +
+                    "principal TEXT," +
+                    "request_hash TEXT," +
+                    "expires_at INTEGER NOT NULL," +
+                    "PRIMARY KEY (operation, idempotency_key)) WITHOUT ROWID",
+            // rowid is the customer id; prefix indexes keep type-ahead queries off full scans of the term list
+            "CREATE VIRTUAL TABLE IF NOT EXISTS customer_search USING fts5(" +
+                    "full_name, phone, email, id_number, " +
+                    "tokenize = 'unicode61 remove_diacritics 2', prefix = '2 3 4')"
+    };
+
+    private static final String[] CREATE_INDEXES = {
+            "CREATE INDEX IF NOT EXISTS idx_reservations_room_status ON reservations(room_id, status, check_in_date)",
+            "CREATE INDEX IF NOT EXISTS idx_reservations_status_check_in ON reservations(status, check_in_date)",
+            "CREATE INDEX IF NOT EXISTS idx_reservations_status_check_out ON reservations(status, check_out_date)",
+            "CREATE INDEX IF NOT EXISTS idx_room_nights_night ON room_nights(night)",
+            "CREATE INDEX IF NOT EXISTS idx_room_nights_reservation ON room_nights(reservation_id)",
+            "CREATE INDEX IF NOT EXISTS idx_reservations_customer ON reservations(customer_id)",
+            "CREATE INDEX IF NOT EXISTS idx_payments_reservation ON payments(reservation_id)",
+            "CREATE INDEX IF NOT EXISTS idx_payments_date ON payments(payment_date)",
+            "CREATE INDEX IF NOT EXISTS idx_reservation_balances_outstanding ON reservation_balances(balance) WHERE balance > 0",
+            "CREATE INDEX IF NOT EXISTS idx_audit_log_entity ON audit_log(entity, entity_id)",
+            "CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires ON idempotency_keys(expires_at)"
     };
 
     public static void initialize() throws SQLException {
@@ -51,8 +114,13 @@ public final class DatabaseInitializer {
                 stmt.execute(sql);
             }
             runMigrations(stmt);
+            for (String sql : CREATE_INDEXES) {
+                stmt.execute(sql);
+            }
         }
-        seedDefaultUser();
+        populateRoomNightsIfEmpty();
+        populateBalancesIfEmpty();
+        populateCustomerSearchIfEmpty();
     }
 
     private static void runMigrations(Statement stmt) throws SQLException {
@@ -65,9 +133,40 @@ public final class DatabaseInitializer {
         try {
             stmt.execute("ALTER TABLE reservations ADD COLUMN number_of_guests INTEGER DEFAULT 1");
         } catch (SQLException ignored) { }
+        try {
+            // Room status is derived from room_nights; the stored one went stale
+            stmt.execute("ALTER TABLE rooms DROP COLUMN status");
+        } catch (SQLException ignored) { /* already dropped */ }
+    }
+
+    /** First run after room_nights was introduced: derive it from existing reservations. */
+    private static void populateRoomNightsIfEmpty() throws SQLException {
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT EXISTS (SELECT 1 FROM room_nights)")) {
+            if (rs.next() && rs.getInt(1) == 1) return;
+        }
+        new SQLiteRoomNightDAO().rebuild();
     }
 
-    private static void seedDefaultUser() {
-        AuthService.seedAdminIfNeeded();
+    /** First run after reservation_balances was introduced: charge existing reservations at their room's base rate. */
+    private static void populateBalancesIfEmpty() throws SQLException {
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT EXISTS (SELECT 1 FROM reservation_balances)")) {
+            if (rs.next() && rs.getInt(1) == 1) return;
+        }
+        new SQLiteReservationBalanceDAO().rebuild(QuoteService.getInstance().getTaxRate());
+    }
+
+    /** First run after customer_search was introduced: index existing customers. */
+    private static void populateCustomerSearchIfEmpty() throws SQLException {
+        try (Connection conn = SQLiteConnectionManager.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT EXISTS (SELECT 1 FROM customer_search) " +
+                     "OR NOT EXISTS (SELECT 1 FROM customers)")) {
+            if (rs.next() && rs.getInt(1) == 1) return;
+        }
+        new SQLiteCustomerDAO().rebuildSearchIndex();
     }
 }
@@ -0,0 +1,49 @@
+package util;
+
+import model.DuplicateCandidate;
+import service.AuditService;
+import service.DuplicateCustomerService;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Command-line duplicate-customer finder.
+ * Usage: DuplicateCustomersTool find [minScore] [limit] | merge keepId duplicateId | merge-all [minScore]
+ */
+public final class DuplicateCustomersTool {
+    public static void main(String[] args) throws SQLException {
+        String command = args.length > 0 ? args[0] : "find";
+        DatabaseInitializer.initialize();
+        DuplicateCustomerService service = DuplicateCustomerService.getInstance();
+        switch (command) {
+            case "find" -> {
+                double minScore = args.length > 1 ? Double.parseDouble(args[1]) : DuplicateCustomerService.DEFAULT_MIN_SCORE;
+                int limit = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+                long start = System.nanoTime();
+                List<DuplicateCandidate> found = service.findDuplicates(minScore);
+                found.stream().limit(limit).forEach(c -> System.out.printf("%d ~ %d  %.2f  %s%n",
+                        c.getFirstCustomerId(), c.getSecondCustomerId(), c.getScore(), String.join(", ", c.getReasons())));
+                System.out.printf("%d likely duplicate pairs in %d ms%n", found.size(), (System.nanoTime() - start) / 1_000_000);
+            }
+            case "merge" -> {
+                if (args.length < 3) usage();
+                boolean merged = service.merge(Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+                System.out.println(merged ? "Merged" : "Nothing merged: check both ids exist and differ");
+                if (!merged) System.exit(1);
+            }
+            case "merge-all" -> {
+                double minScore = args.length > 1 ? Double.parseDouble(args[1]) : 0.9;
+                int merged = service.mergeAll(service.findDuplicates(minScore));
+                System.out.println("Merged " + merged + " customer records");
+            }
+            default -> usage();
+        }
+        AuditService.getInstance().flush();
+    }
+
+    private static void usage() {
+        System.err.println("Usage: DuplicateCustomersTool find [minScore] [limit] | merge keepId duplicateId | merge-all [minScore]");
+        System.exit(2);
+    }
+}
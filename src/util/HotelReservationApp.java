@@ -1438,6 +1438,7 @@ public class HotelReservationApp extends Application {
     public void start(Stage primaryStage) {
         try {
             DatabaseInitializer.initialize();
+            AuthService.seedAdminIfNeeded();
         } catch (Exception e) {
             new Alert(Alert.AlertType.ERROR, "Failed to initialize database: " + e.getMessage()).showAndWait();
             return;
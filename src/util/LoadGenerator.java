@@ -0,0 +1,273 @@
+package util;
+
+import model.PaymentMethod;
+import model.RoomType;
+import service.AuditService;
+import service.CustomerSearchService;
+import service.CustomerService;
+import service.PaymentService;
+import service.ReservationService;
+import service.RoomService;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Drives the service layer with a mix of front-desk work from concurrent clients and reports throughput,
+ * latency percentiles and conflict/error rates per operation. Runs against a scratch database that is
+ * seeded first, so it never touches hotel_reservation.db: a temporary file deleted afterwards unless {@code keep}
+ * is given, or a new file at {@code db=path}, which must not exist yet and is left in place.
+ * Usage: LoadGenerator [clients=16] [seconds=30] [warmup=5] [rooms=200] [customers=5000] [db=path] [keep]
+ *        [mix=search:35,book:20,modify:10,cancel:5,checkin:10,pay:10,newguest:3,profile:2,lookup:5]
+ * newguest adds a customer, profile edits one and lookup runs a front-desk customer search.
+ * A conflict is an operation the services refused (sold out, overlap, wrong status); an error is an exception.
+ * Each client is a virtual thread.
+ */
+public final class LoadGenerator {
+    enum Op { SEARCH, BOOK, MODIFY, CANCEL, CHECKIN, PAY, NEWGUEST, PROFILE, LOOKUP }
+
+    private enum Outcome { OK, CONFLICT, ERROR }
+
+    /** Latencies of one operation on one client; merged after the run. */
+    private static final class Samples {
+        long[] nanos = new long[1024];
+        int size;
+        long conflicts;
+        long errors;
+
+        void add(long value) {
+            if (size == nanos.length) nanos = Arrays.copyOf(nanos, size * 2);
+            nanos[size++] = value;
+        }
+    }
+
+    private static final int HORIZON_DAYS = 120;
+    private static final int MAX_TRACKED = 1 << 16;
+    private static final String DEFAULT_MIX = "search:35,book:20,modify:10,cancel:5,checkin:10,pay:10,"
+            + "newguest:3,profile:2,lookup:5";
+
+    private static int customers;
+    private static Op[] mixTable;
+    /** Ring of recently booked reservation ids for the modify/cancel/check-in/pay operations. */
+    private static final AtomicIntegerArray booked = new AtomicIntegerArray(MAX_TRACKED);
+    private static final AtomicInteger bookedCount = new AtomicInteger();
+    private static final AtomicInteger walkIns = new AtomicInteger();
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            opts.put(eq < 0 ? arg : arg.substring(0, eq), eq < 0 ? "true" : arg.substring(eq + 1));
+        }
+        int clients = Integer.parseInt(opts.getOrDefault("clients", "16"));
+        int seconds = Integer.parseInt(opts.getOrDefault("seconds", "30"));
+        int warmup = Integer.parseInt(opts.getOrDefault("warmup", "5"));
+        int rooms = Integer.parseInt(opts.getOrDefault("rooms", "200"));
+        customers = Integer.parseInt(opts.getOrDefault("customers", "5000"));
+        mixTable = parseMix(opts.getOrDefault("mix", DEFAULT_MIX));
+        // SQLite calls are native and hold the driver's monitors, pinning a virtual thread to its carrier; a client
+        // sleeping in the busy handler would otherwise starve the writer it waits for. One carrier per client.
+        if (System.getProperty("jdk.virtualThreadScheduler.parallelism") == null) {
+            System.setProperty("jdk.virtualThreadScheduler.parallelism",
+                    String.valueOf(Math.max(clients, Runtime.getRuntime().availableProcessors())));
+        }
+
+        Path db;
+        if (opts.containsKey("db")) {
+            db = Path.of(opts.get("db"));
+            if (Files.exists(db)) {
+                System.err.println("Refusing to seed an existing database: " + db);
+                System.exit(2);
+            }
+        } else {
+            db = Files.createTempFile("hotel-load-", ".db");
+            if (!opts.containsKey("keep")) {
+                for (String suffix : new String[]{"", "-wal", "-shm"}) new File(db + suffix).deleteOnExit();
+            }
+        }
+        // Must be set before anything touches SQLiteConnectionManager
+        System.setProperty("hotel.db.url", "jdbc:sqlite:" + db.toAbsolutePath());
+        DatabaseInitializer.initialize();
+        seed(rooms);
+        System.out.printf("Seeded %d rooms, %d customers in %s%n", rooms, customers, db);
+
+        if (warmup > 0) run(clients, warmup);
+        long start = System.nanoTime();
+        Map<Op, Samples> results = run(clients, seconds);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        report(results, elapsed, clients);
+        AuditService.getInstance().flush();
+    }
+
+    private static void seed(int rooms) {
+        RoomType[] types = RoomType.values();
+        SQLiteConnectionManager.getInstance().runInTransaction(() -> {
+            for (int i = 0; i < rooms; i++) {
+                RoomType type = types[i % types.length];
+                RoomService.getInstance().addRoom(String.valueOf(100 + i), type, 80 + 40 * type.ordinal());
+            }
+            for (int i = 1; i <= customers; i++) {
+                CustomerService.getInstance().addCustomer("Load Guest " + i, "+1555" + String.format("%07d", i),
+                        "guest" + i + "@example.test", "ID" + i);
+            }
+        });
+    }
+
+    private static Map<Op, Samples> run(int clients, int seconds) throws Exception {
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            return run(pool, clients, seconds);
+        }
+    }
+
+    private static Map<Op, Samples> run(ExecutorService pool, int clients, int seconds) throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Future<Map<Op, Samples>>> futures = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            futures.add(pool.submit(() -> {
+                Map<Op, Samples> mine = new EnumMap<>(Op.class);
+                for (Op op : Op.values()) mine.put(op, new Samples());
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    Op op = mixTable[random.nextInt(mixTable.length)];
+                    Samples samples = mine.get(op);
+                    long t0 = System.nanoTime();
+                    Outcome outcome;
+                    try {
+                        outcome = execute(op, random);
+                    } catch (RuntimeException e) {
+                        outcome = Outcome.ERROR;
+                    }
+                    samples.add(System.nanoTime() - t0);
+                    if (outcome == Outcome.CONFLICT) samples.conflicts++;
+                    else if (outcome == Outcome.ERROR) samples.errors++;
+                }
+                return mine;
+            }));
+        }
+        Map<Op, Samples> merged = new EnumMap<>(Op.class);
+        for (Op op : Op.values()) merged.put(op, new Samples());
+        for (Future<Map<Op, Samples>> f : futures) {
+            f.get().forEach((op, s) -> {
+                Samples into = merged.get(op);
+                for (int i = 0; i < s.size; i++) into.add(s.nanos[i]);
+                into.conflicts += s.conflicts;
+                into.errors += s.errors;
+            });
+        }
+        return merged;
+    }
+
+    private static Outcome execute(Op op, ThreadLocalRandom random) {
+        LocalDate checkIn = LocalDate.now().plusDays(random.nextInt(HORIZON_DAYS));
+        LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(6));
+        ReservationService reservations = ReservationService.getInstance();
+        switch (op) {
+            case SEARCH -> {
+                reservations.getAvailableRooms(checkIn, checkOut);
+                return Outcome.OK;
+            }
+            case BOOK -> {
+                RoomType type = RoomType.values()[random.nextInt(RoomType.values().length)];
+                int id = reservations.createReservationForType(1 + random.nextInt(customers), type, checkIn, checkOut,
+                        1 + random.nextInt(2));
+                if (id == -1) return Outcome.CONFLICT;
+                booked.set(bookedCount.getAndIncrement() & (MAX_TRACKED - 1), id);
+                return Outcome.OK;
+            }
+            case NEWGUEST -> {
+                int n = walkIns.incrementAndGet();
+                int id = CustomerService.getInstance().addCustomer("Walk-in Guest " + n,
+                        "+1444" + String.format("%07d", n), "walkin" + n + "@example.test", "WI" + n);
+                return id == -1 ? Outcome.CONFLICT : Outcome.OK;
+            }
+            case PROFILE -> {
+                int id = 1 + random.nextInt(customers);
+                boolean done = CustomerService.getInstance().updateCustomer(id, "Load Guest " + id,
+                        "+1555" + String.format("%07d", id), "guest" + id + "+" + random.nextInt(100) + "@example.test",
+                        "ID" + id);
+                return done ? Outcome.OK : Outcome.CONFLICT;
+            }
+            case LOOKUP -> {
+                // The prefix a clerk has typed so far: "guest1" matches guest1, guest10..., guest1000...
+                String email = "guest" + (1 + random.nextInt(customers));
+                String typed = email.substring(0, Math.min(email.length(), 6 + random.nextInt(4)));
+                CustomerSearchService.getInstance().search(typed);
+                return Outcome.OK;
+            }
+            default -> {
+                int id = recentBooking(random);
+                if (id == 0) return Outcome.CONFLICT;
+                boolean done = switch (op) {
+                    case MODIFY -> reservations.findById(id).map(r -> reservations.updateReservation(id, r.getCustomerId(),
+                            r.getRoomId(), r.getCheckInDate().plusDays(1), r.getCheckOutDate().plusDays(1),
+                            r.getNumberOfGuests())).orElse(false);
+                    case CANCEL -> reservations.cancelReservation(id);
+                    case CHECKIN -> reservations.checkIn(id);
+                    case PAY -> PaymentService.getInstance().recordPayment(id, 10 + random.nextInt(200),
+                            PaymentMethod.values()[random.nextInt(PaymentMethod.values().length)]) != -1;
+                    default -> throw new IllegalStateException(op.name());
+                };
+                return done ? Outcome.OK : Outcome.CONFLICT;
+            }
+        }
+    }
+
+    private static int recentBooking(ThreadLocalRandom random) {
+        int count = Math.min(bookedCount.get(), MAX_TRACKED);
+        return count == 0 ? 0 : booked.get(random.nextInt(count));
+    }
+
+    /** Expands "op:weight,..." into a lookup table a random index picks from. */
+    private static Op[] parseMix(String mix) {
+        List<Op> table = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split(":");
+            Op op = Op.valueOf(kv[0].trim().toUpperCase());
+            int weight = kv.length > 1 ? Integer.parseInt(kv[1].trim()) : 1;
+            for (int i = 0; i < weight; i++) table.add(op);
+        }
+        if (table.isEmpty()) throw new IllegalArgumentException("Empty mix");
+        return table.toArray(new Op[0]);
+    }
+
+    private static void report(Map<Op, Samples> results, double elapsed, int clients) {
+        long total = 0, conflicts = 0, errors = 0;
+        System.out.printf("%n%d clients, %.1f s%n", clients, elapsed);
+        System.out.printf("%-8s %9s %9s %8s %8s %8s %8s %8s %8s%n",
+                "op", "count", "ops/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "conflict", "error");
+        for (Map.Entry<Op, Samples> e : results.entrySet()) {
+            Samples s = e.getValue();
+            if (s.size == 0) continue;
+            long[] sorted = Arrays.copyOf(s.nanos, s.size);
+            Arrays.sort(sorted);
+            System.out.printf("%-8s %9d %9.1f %8.2f %8.2f %8.2f %8.2f %7.2f%% %7.2f%%%n",
+                    e.getKey().name().toLowerCase(), s.size, s.size / elapsed,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    sorted[sorted.length - 1] / 1e6, 100.0 * s.conflicts / s.size, 100.0 * s.errors / s.size);
+            total += s.size;
+            conflicts += s.conflicts;
+            errors += s.errors;
+        }
+        System.out.printf("%-8s %9d %9.1f %44.2f%% %7.2f%%%n", "all", total, total / elapsed,
+                total == 0 ? 0 : 100.0 * conflicts / total, total == 0 ? 0 : 100.0 * errors / total);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(sorted.length * p) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,89 @@
+package util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Size-bounded, read-through LRU cache with hit, miss and eviction counts.
+ * Loads run outside the lock. A load that overlaps an invalidation is returned to its caller but not stored,
+ * so a row read just before a write commits can never outlive that write in the cache. Only present values are
+ * cached; misses for unknown keys always go to the loader.
+ */
+public final class LruCache<K, V> {
+    public record Stats(long hits, long misses, long evictions, int size, int capacity) {
+        public double hitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    private final int capacity;
+    private final LinkedHashMap<K, V> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+    /** Bumped by every invalidation; a load only stores its value if this has not moved since it started. */
+    private long generation;
+
+    public LruCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(Math.min(capacity, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() <= LruCache.this.capacity) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    public Optional<V> get(K key, Function<K, Optional<V>> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            V cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return Optional.of(cached);
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+        Optional<V> loaded = loader.apply(key);
+        loaded.ifPresent(value -> {
+            synchronized (this) {
+                if (generation == loadGeneration) entries.put(key, value);
+            }
+        });
+        return loaded;
+    }
+
+    /** Replaces a cached value in place. Like an invalidation, it keeps overlapping loads from storing what they read. */
+    public synchronized void computeIfPresent(K key, UnaryOperator<V> remapping) {
+        V cached = entries.get(key);
+        if (cached != null) entries.put(key, remapping.apply(cached));
+        generation++;
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+        generation++;
+    }
+
+    public synchronized void invalidateIf(Predicate<? super K> stale) {
+        entries.keySet().removeIf(stale);
+        generation++;
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        generation++;
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, evictions, entries.size(), capacity);
+    }
+}
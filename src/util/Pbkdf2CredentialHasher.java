@@ -0,0 +1,77 @@
+package util;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Salted PBKDF2-HMAC-SHA256. Stored as {@code pbkdf2-sha256$<iterations>$<salt>$<hash>}, Base64 encoded.
+ */
+public class Pbkdf2CredentialHasher implements CredentialHasher {
+    private static final String PREFIX = "pbkdf2-sha256";
+    private static final int SALT_BYTES = 16;
+    private static final int KEY_BITS = 256;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final ThreadLocal<SecretKeyFactory> FACTORY = ThreadLocal.withInitial(() -> {
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("PBKDF2WithHmacSHA256 not available", e);
+        }
+    });
+
+    private final int iterations;
+
+    public Pbkdf2CredentialHasher(int iterations) {
+        if (iterations < 1) throw new IllegalArgumentException("iterations must be positive");
+        this.iterations = iterations;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        Base64.Encoder b64 = Base64.getEncoder();
+        return PREFIX + "$" + iterations + "$" + b64.encodeToString(salt) + "$"
+                + b64.encodeToString(derive(password, salt, iterations));
+    }
+
+    @Override
+    public boolean canVerify(String storedHash) {
+        return storedHash != null && storedHash.startsWith(PREFIX + "$");
+    }
+
+    @Override
+    public boolean matches(String password, String storedHash) {
+        String[] parts = storedHash.split("\\$");
+        if (parts.length != 4) return false;
+        Base64.Decoder b64 = Base64.getDecoder();
+        byte[] expected = b64.decode(parts[3]);
+        return MessageDigest.isEqual(expected, derive(password, b64.decode(parts[2]), Integer.parseInt(parts[1])));
+    }
+
+    @Override
+    public boolean needsRehash(String storedHash) {
+        String[] parts = storedHash.split("\\$");
+        return parts.length != 4 || Integer.parseInt(parts[1]) < iterations;
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, KEY_BITS);
+        try {
+            return FACTORY.get().generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Failed to hash password", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package util;
+
+import dao.RoomNightDAO;
+import dao.sqlite.SQLiteRoomNightDAO;
+
+import java.sql.SQLException;
+
+/**
+ * Command-line maintenance for the room_nights table.
+ * Usage: RoomNightsTool verify | rebuild
+ */
+public final class RoomNightsTool {
+    public static void main(String[] args) throws SQLException {
+        String command = args.length > 0 ? args[0] : "verify";
+        DatabaseInitializer.initialize();
+        RoomNightDAO dao = new SQLiteRoomNightDAO();
+        switch (command) {
+            case "rebuild" -> System.out.println("Rebuilt room_nights: " + dao.rebuild() + " nights");
+            case "verify" -> {
+                int[] diff = dao.verify();
+                System.out.println("Missing nights: " + diff[0] + ", extra nights: " + diff[1]);
+                if (diff[0] != 0 || diff[1] != 0) System.exit(1);
+            }
+            default -> {
+                System.err.println("Usage: RoomNightsTool verify | rebuild");
+                System.exit(2);
+            }
+        }
+    }
+}
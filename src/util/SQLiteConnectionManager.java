@@ -1,13 +1,33 @@
 package util;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
 
 public final class SQLiteConnectionManager {
-    private static final String DB_URL = "jdbc:sqlite:hotel_reservation.db";
+    /** Overridable with -Dhotel.db.url, e.g. to point tools at a scratch database. Read once, at first use. */
+    private static final String DB_URL = System.getProperty("hotel.db.url", "jdbc:sqlite:hotel_reservation.db");
     private static volatile SQLiteConnectionManager instance;
-    private Connection connection;
+    /** Auto-commit connection per thread, so a DAO closing its connection never pulls it from under another thread. */
+    private final ThreadLocal<Connection> connection = new ThreadLocal<>();
+    /** Connection of the transaction open on this thread, wrapped so DAO close() calls leave it open. */
+    private final ThreadLocal<Connection> transaction = new ThreadLocal<>();
+    private final ThreadLocal<List<Runnable>> afterCommit = new ThreadLocal<>();
+    /** Numbers transactions in commit order. */
+    private final AtomicLong commits = new AtomicLong();
+    /** Commits share it; {@link #loadCommitted} takes it alone, so its reads see exactly the commits numbered so far. */
+    private final ReadWriteLock commitOrder = new ReentrantReadWriteLock();
+    /** Number of the transaction whose afterCommit callbacks are running on this thread. */
+    private final ThreadLocal<Long> committing = new ThreadLocal<>();
 
     private SQLiteConnectionManager() {
         try {
@@ -29,18 +49,163 @@ public final class SQLiteConnectionManager {
     }
 
     public Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            connection = DriverManager.getConnection(DB_URL);
-            connection.setAutoCommit(true);
+        Connection tx = transaction.get();
+        if (tx != null) return tx;
+        Connection conn = connection.get();
+        if (conn == null || conn.isClosed()) {
+            conn = open(false);
+            conn.setAutoCommit(true);
+            connection.set(conn);
         }
-        return connection;
+        return conn;
+    }
+
+    /**
+     * Runs the work in one transaction; every DAO call made on this thread inside it shares the connection.
+     * Nested calls join the outer transaction. Any exception rolls the whole unit back.
+     */
+    public <T> T inTransaction(Supplier<T> work) {
+        if (transaction.get() != null) return work.get();
+        Connection conn;
+        try {
+            conn = open(true);
+            conn.setAutoCommit(false);
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to begin transaction", e);
+        }
+        transaction.set(nonClosing(conn));
+        List<Runnable> callbacks = new ArrayList<>();
+        afterCommit.set(callbacks);
+        T result;
+        long sequence;
+        try {
+            result = work.get();
+            commitOrder.readLock().lock();
+            try {
+                conn.commit();
+                sequence = commits.incrementAndGet();
+            } finally {
+                commitOrder.readLock().unlock();
+            }
+        } catch (SQLException e) {
+            rollback(conn);
+            throw new RuntimeException("Failed to commit transaction", e);
+        } catch (RuntimeException | Error e) {
+            rollback(conn);
+            throw e;
+        } finally {
+            transaction.remove();
+            afterCommit.remove();
+            try {
+                conn.close();
+            } catch (SQLException ignored) { }
+        }
+        Long outer = committing.get();
+        committing.set(sequence);
+        try {
+            for (Runnable callback : callbacks) {
+                callback.run();
+            }
+        } finally {
+            if (outer == null) committing.remove(); else committing.set(outer);
+        }
+        return result;
+    }
+
+    /**
+     * Number of the transaction whose afterCommit callbacks are running on this thread, to compare with what
+     * {@link #loadCommitted} returned. {@code Long.MAX_VALUE} when no callback is running, e.g. for work that ran
+     * without a transaction: such changes are always treated as newer than any load.
+     */
+    public long committedSequence() {
+        Long sequence = committing.get();
+        return sequence != null ? sequence : Long.MAX_VALUE;
+    }
+
+    /**
+     * Runs a cache load with no commit in progress, on this thread's auto-commit connection, and returns the number
+     * of the last transaction it saw. Transactions numbered up to that are in what it read, so their afterCommit
+     * callbacks must not be applied to it again; later ones are not. Commits wait while the load runs.
+     */
+    public long loadCommitted(Runnable load) {
+        commitOrder.writeLock().lock();
+        try {
+            long seen = commits.get();
+            outsideTransaction(() -> {
+                load.run();
+                return null;
+            });
+            return seen;
+        } finally {
+            commitOrder.writeLock().unlock();
+        }
+    }
+
+    /** Runs the callback once the current transaction commits, or right away when none is open. Dropped on rollback. */
+    public void afterCommit(Runnable callback) {
+        List<Runnable> callbacks = afterCommit.get();
+        if (callbacks != null) callbacks.add(callback);
+        else callback.run();
+    }
+
+    /**
+     * Runs the work on this thread's auto-commit connection even while a transaction is open here, so it reads
+     * committed data only. For loading caches that must not absorb rows a transaction may still roll back.
+     */
+    public <T> T outsideTransaction(Supplier<T> work) {
+        Connection tx = transaction.get();
+        if (tx == null) return work.get();
+        transaction.remove();
+        try {
+            return work.get();
+        } finally {
+            transaction.set(tx);
+        }
+    }
+
+    public void runInTransaction(Runnable work) {
+        inTransaction(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * WAL lets readers run alongside the writer, and a busy timeout makes writers from other threads wait their
+     * turn instead of failing. Transactions take the write lock up front, since upgrading a read lock can deadlock.
+     */
+    private static Connection open(boolean forTransaction) throws SQLException {
+        Properties props = new Properties();
+        props.setProperty("journal_mode", "WAL");
+        props.setProperty("busy_timeout", "5000");
+        if (forTransaction) props.setProperty("transaction_mode", "IMMEDIATE");
+        return DriverManager.getConnection(DB_URL, props);
+    }
+
+    private static void rollback(Connection conn) {
+        try {
+            conn.rollback();
+        } catch (SQLException ignored) { }
+    }
+
+    private static Connection nonClosing(Connection conn) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close")) return null;
+                    try {
+                        return method.invoke(conn, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
     }
 
     public void closeConnection() {
         try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                connection = null;
+            Connection conn = connection.get();
+            if (conn != null && !conn.isClosed()) {
+                conn.close();
+                connection.remove();
             }
         } catch (SQLException e) {
             // Log or handle
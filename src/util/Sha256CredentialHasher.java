@@ -0,0 +1,42 @@
+package util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Legacy scheme: unsalted SHA-256, Base64 encoded. Kept so existing accounts can still sign in and be upgraded.
+ */
+public class Sha256CredentialHasher implements CredentialHasher {
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
+    });
+
+    @Override
+    public String hash(String password) {
+        MessageDigest md = DIGEST.get();
+        md.reset();
+        return Base64.getEncoder().encodeToString(md.digest(password.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Override
+    public boolean canVerify(String storedHash) {
+        return storedHash != null && !storedHash.contains("$");
+    }
+
+    @Override
+    public boolean matches(String password, String storedHash) {
+        return MessageDigest.isEqual(hash(password).getBytes(StandardCharsets.UTF_8),
+                storedHash.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public boolean needsRehash(String storedHash) {
+        return false;
+    }
+}
@@ -0,0 +1,68 @@
+package service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CustomerSearchServiceTest {
+
+    @Test
+    void blankTextHasNoExpression() {
+        assertNull(CustomerSearchService.toMatchExpression(null));
+        assertNull(CustomerSearchService.toMatchExpression(""));
+        assertNull(CustomerSearchService.toMatchExpression("   "));
+    }
+
+    @Test
+    void eachWordBecomesAQuotedPrefixTerm() {
+        assertEquals("\"john\"* \"smith\"*", CustomerSearchService.toMatchExpression("  john   smith "));
+    }
+
+    @Test
+    void punctuationSeparatesWordsAndNeverReachesTheQuery() {
+        assertEquals("\"ama\"* \"example\"* \"com\"*", CustomerSearchService.toMatchExpression("ama@example.com"));
+        // Operators are quoted into plain terms
+        assertEquals("\"drop\"* \"OR\"* \"table\"*", CustomerSearchService.toMatchExpression("\"drop\" OR table*"));
+    }
+
+    @Test
+    void oneLetterWordsAreDropped() {
+        assertNull(CustomerSearchService.toMatchExpression("j"));
+        assertEquals("\"smith\"*", CustomerSearchService.toMatchExpression("j smith"));
+        assertEquals("\"jo\"*", CustomerSearchService.toMatchExpression("jo"));
+    }
+
+    @Test
+    void phoneLikeTextIsOneDigitRunOverPhoneAndId() {
+        assertEquals("{phone id_number} : \"5550101\"*", CustomerSearchService.toMatchExpression("555-0101"));
+        assertEquals("{phone id_number} : \"15550101234\"*", CustomerSearchService.toMatchExpression("+1 (555) 010-1234"));
+    }
+
+    @Test
+    void lettersWithDigitsAreWords() {
+        // Case is left to the tokenizer, which folds it
+        assertEquals("\"GH123\"*", CustomerSearchService.toMatchExpression("GH123"));
+    }
+
+    @Test
+    void rankingStartsAtThreeLetters() {
+        assertFalse(CustomerSearchService.isRanked("jo"));
+        assertFalse(CustomerSearchService.isRanked("jo sm"));
+        assertTrue(CustomerSearchService.isRanked("joh"));
+        assertTrue(CustomerSearchService.isRanked("jo smi"));
+    }
+
+    @Test
+    void phoneNumbersAreNotRanked() {
+        assertFalse(CustomerSearchService.isRanked("555-0101"));
+    }
+
+    @Test
+    void searchabilityFollowsTheExpression() {
+        assertFalse(CustomerSearchService.isSearchable("j"));
+        assertTrue(CustomerSearchService.isSearchable("jo"));
+    }
+}
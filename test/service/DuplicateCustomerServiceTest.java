@@ -0,0 +1,75 @@
+package service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DuplicateCustomerServiceTest {
+
+    @Test
+    void soundexCodesSimilarSoundingNamesAlike() {
+        assertEquals("R163", DuplicateCustomerService.soundex("robert"));
+        assertEquals("R163", DuplicateCustomerService.soundex("rupert"));
+        assertEquals("R150", DuplicateCustomerService.soundex("rubin"));
+        assertEquals("T522", DuplicateCustomerService.soundex("tymczak"));
+    }
+
+    @Test
+    void soundexPadsShortNamesWithZeros() {
+        assertEquals("L000", DuplicateCustomerService.soundex("lee"));
+        assertEquals("O000", DuplicateCustomerService.soundex("o"));
+    }
+
+    @Test
+    void soundexDoesNotLetHOrWSeparateEqualCodes() {
+        assertEquals("A261", DuplicateCustomerService.soundex("ashcraft"));
+        assertEquals("H555", DuplicateCustomerService.soundex("honeyman"));
+    }
+
+    @Test
+    void soundexSkipsFirstLetterCodeRepeatedByNextLetter() {
+        assertEquals("P236", DuplicateCustomerService.soundex("pfister"));
+    }
+
+    @Test
+    void soundexIgnoresCharactersOutsideAToZ() {
+        assertEquals("M235", DuplicateCustomerService.soundex("mc-donald"));
+        assertEquals("M235", DuplicateCustomerService.soundex("mcdonald"));
+    }
+
+    @Test
+    void soundexIsNullWithoutLatinLetters() {
+        assertNull(DuplicateCustomerService.soundex(""));
+        assertNull(DuplicateCustomerService.soundex("1234"));
+        assertNull(DuplicateCustomerService.soundex("李"));
+    }
+
+    @Test
+    void jaroWinklerMatchesPublishedExamples() {
+        assertEquals(0.961, DuplicateCustomerService.jaroWinkler("martha", "marhta"), 0.001);
+        assertEquals(0.840, DuplicateCustomerService.jaroWinkler("dwayne", "duane"), 0.001);
+        assertEquals(0.813, DuplicateCustomerService.jaroWinkler("dixon", "dicksonx"), 0.001);
+    }
+
+    @Test
+    void jaroWinklerBounds() {
+        assertEquals(1.0, DuplicateCustomerService.jaroWinkler("ama owusu", "ama owusu"));
+        assertEquals(0.0, DuplicateCustomerService.jaroWinkler("abc", "xyz"));
+        assertEquals(0.0, DuplicateCustomerService.jaroWinkler("", "abc"));
+        assertEquals(0.0, DuplicateCustomerService.jaroWinkler("abc", ""));
+    }
+
+    @Test
+    void jaroWinklerIsSymmetric() {
+        assertEquals(DuplicateCustomerService.jaroWinkler("kwame mensah", "kwame mensa"),
+                DuplicateCustomerService.jaroWinkler("kwame mensa", "kwame mensah"), 1e-12);
+    }
+
+    @Test
+    void jaroWinklerRewardsCommonPrefix() {
+        assertTrue(DuplicateCustomerService.jaroWinkler("jonathan", "jonathon")
+                > DuplicateCustomerService.jaroWinkler("jonathan", "nathanjo"));
+    }
+}